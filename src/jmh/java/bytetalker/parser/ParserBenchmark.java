@@ -0,0 +1,96 @@
+package bytetalker.parser;
+
+import bytetalker.exception.EventUnsupportedFormatException;
+import bytetalker.exception.TodoUnsupportedFormatException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the parsing done for every command the user enters.
+ * The date time benchmarks compare DateTimeParser, with and without its cache, against parsing with a formatter
+ * built from the pattern on every call, which is how Parser.parseDateTime used to work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParserBenchmark {
+    private final String eventInput = "event project kick-off meeting /from 8/2/2024 1500 /to 2024-2-8 1800";
+    private final String[] splitEventInput = Parser.parse(eventInput);
+    private final String longTodoInput = "todo " + "pasted meeting notes with many words ".repeat(500);
+
+    @Benchmark
+    public String[] parse() {
+        return Parser.parse(eventInput);
+    }
+
+    @Benchmark
+    public LocalDateTime parseDateTime_slashFormat() {
+        return Parser.parseDateTime("8/2/2024 1500");
+    }
+
+    @Benchmark
+    public LocalDateTime parseDateTime_dashFormat() {
+        return Parser.parseDateTime("2024-2-8 1800");
+    }
+
+    @Benchmark
+    public LocalDateTime parseDateTime_uncached() {
+        return DateTimeParser.parseUncached("8/2/2024 1500");
+    }
+
+    @Benchmark
+    public LocalDateTime parseDateTime_invalid() {
+        return DateTimeParser.parse("8/2/24 1500");
+    }
+
+    @Benchmark
+    public LocalDateTime parseDateTimeWithFormatter_slashFormat() {
+        return parseWithFormatter("8/2/2024 1500");
+    }
+
+    @Benchmark
+    public LocalDateTime parseDateTimeWithFormatter_invalid() {
+        return parseWithFormatter("8/2/24 1500");
+    }
+
+    @Benchmark
+    public String[] parseEventAddInput() throws EventUnsupportedFormatException {
+        return Parser.parseEventAddInput(splitEventInput);
+    }
+
+    @Benchmark
+    public String[] parseEventAddInput_raw() throws EventUnsupportedFormatException {
+        return Parser.parseEventAddInput(eventInput);
+    }
+
+    @Benchmark
+    public String[] parseTodoAddInput_longInput() throws TodoUnsupportedFormatException {
+        return Parser.parseTodoAddInput(longTodoInput);
+    }
+
+    private static LocalDateTime parseWithFormatter(String dateTimeString) {
+        String cleanDateTimeString = dateTimeString.strip();
+        boolean isTimeExist = cleanDateTimeString.split(" ").length > 1;
+        boolean isInputFirstFormat = dateTimeString.split("-").length > 1;
+        if (!isTimeExist) {
+            cleanDateTimeString += " 2359";
+        }
+        DateTimeFormatter inputFormatter = isInputFirstFormat
+                ? DateTimeFormatter.ofPattern("yyyy-M-d Hmm")
+                : DateTimeFormatter.ofPattern("d/M/yyyy Hmm");
+        try {
+            return LocalDateTime.parse(cleanDateTimeString, inputFormatter);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package bytetalker.server;
+
+import bytetalker.CommandProcessor;
+import bytetalker.storage.Storage;
+import bytetalker.task.BenchmarkTasks;
+import bytetalker.ui.Ui;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the round trips of commands sent to the server by several clients at once, with write-behind mode
+ * saving the list of 1000 tasks at most every 100 milliseconds.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class CommandServerBenchmark {
+    private static final long WRITE_BEHIND_MILLIS = 100;
+
+    @State(Scope.Benchmark)
+    public static class ServerState {
+        private Path directory;
+        private CommandServer server;
+
+        @Setup
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("bytetalker-benchmark");
+            ScheduledExecutorService commandExecutor = Executors.newSingleThreadScheduledExecutor();
+            Storage storage = new Storage(directory.resolve("ByteTalker.txt").toString());
+            storage.setupDirectoryAndFile();
+            storage.storeTasks(BenchmarkTasks.create(1000));
+            storage.enableWriteBehind(commandExecutor, WRITE_BEHIND_MILLIS);
+            server = new CommandServer(new CommandProcessor(storage, new Ui(), commandExecutor), commandExecutor,
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            Thread serverThread = new Thread(() -> {
+                try {
+                    server.serve();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            serverThread.setDaemon(true);
+            serverThread.start();
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            server.close();
+            try (Stream<Path> paths = Files.walk(directory)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ClientState {
+        private Socket socket;
+        private PrintWriter writer;
+        private BufferedReader reader;
+
+        @Setup(Level.Trial)
+        public void setUp(ServerState serverState) throws IOException {
+            socket = new Socket();
+            socket.setTcpNoDelay(true);
+            socket.connect(serverState.server.getLocalAddress());
+            writer = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            socket.close();
+        }
+
+        int send(String command) throws IOException {
+            writer.println(command);
+            int lineCount = 0;
+            while (!reader.readLine().equals(CommandServer.END_OF_REPLY)) {
+                lineCount++;
+            }
+            return lineCount;
+        }
+    }
+
+    @Benchmark
+    public int find(ClientState clientState) throws IOException {
+        return clientState.send("find timesheet");
+    }
+
+    @Benchmark
+    public int addAndDelete(ClientState clientState) throws IOException {
+        return clientState.send("todo benchmark task") + clientState.send("delete 1001");
+    }
+}
@@ -0,0 +1,70 @@
+package bytetalker.storage;
+
+import bytetalker.task.BenchmarkTasks;
+import bytetalker.task.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures saving and loading lists of different sizes in each format and durability level.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"TEXT", "BINARY"})
+    private StorageFormat format;
+
+    @Param({"NONE", "FILE", "FILE_AND_DIRECTORY"})
+    private Durability durability;
+
+    private Path directory;
+    private Storage storage;
+    private ArrayList<Task> tasks;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("bytetalker-benchmark");
+        storage = new Storage(directory.resolve("ByteTalker.txt").toString());
+        storage.setFormat(format);
+        storage.setDurability(durability);
+        storage.setupDirectoryAndFile();
+        tasks = BenchmarkTasks.create(size);
+        storage.storeTasks(tasks);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void storeTasks() throws IOException {
+        storage.storeTasks(tasks);
+    }
+
+    @Benchmark
+    public ArrayList<Task> loadTasks() throws IOException {
+        return storage.loadTasks();
+    }
+}
@@ -0,0 +1,39 @@
+package bytetalker.task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * Creates lists of tasks shared by the benchmarks, mixing todos, deadlines and events with recurring content.
+ */
+public class BenchmarkTasks {
+    private static final String[] CONTENTS = {
+        "read book", "weekly sync", "submit timesheet", "return library book", "midterm exam", "project meeting"
+    };
+
+    private BenchmarkTasks() {
+    }
+
+    /**
+     * Creates a list of tasks.
+     *
+     * @param size Number of tasks in the list.
+     * @return List of tasks.
+     */
+    public static ArrayList<Task> create(int size) {
+        ArrayList<Task> tasks = new ArrayList<>(size);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        for (int i = 0; i < size; i++) {
+            String content = CONTENTS[i % CONTENTS.length] + " " + i;
+            LocalDateTime time = start.plusHours(i % 10_000);
+            if (i % 3 == 0) {
+                tasks.add(new Todo(content, i % 2 == 0));
+            } else if (i % 3 == 1) {
+                tasks.add(new Deadline(content, time, i % 2 == 0));
+            } else {
+                tasks.add(new Event(content, time, time.plusHours(2), i % 2 == 0));
+            }
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,141 @@
+package bytetalker.task;
+
+import bytetalker.exception.CommandWrongFormatExcpetion;
+import bytetalker.exception.DeadlineUnsupportedFormatException;
+import bytetalker.exception.EventUnsupportedFormatException;
+import bytetalker.exception.TodoUnsupportedFormatException;
+import bytetalker.exception.UnsupportedCommandException;
+import bytetalker.parser.Parser;
+import bytetalker.parser.Tokenizer;
+import bytetalker.storage.Storage;
+import bytetalker.ui.Ui;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many malformed commands are rejected per millisecond, as in a script full of mistakes. The baseline
+ * rejects the same commands the way TaskList used to, by throwing and catching the parser exceptions.
+ * Invalid dates are left out, as rejecting them is dominated by the warning printed for every one of them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class InvalidInputBenchmark {
+    private static final String[] INVALID_INPUTS = {
+        "todo", "todo read book /by tomorrow", "deadline return book", "event meeting /from 8/2/2024 1500",
+        "mark abc", "delete #x", "unmark", "meeting tomorrow"
+    };
+
+    private Path directory;
+    private Storage storage;
+    private TaskList tasks;
+    private final Ui ui = new Ui();
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("bytetalker-benchmark");
+        storage = new Storage(directory.resolve("ByteTalker.txt").toString());
+        storage.setupDirectoryAndFile();
+        tasks = new TaskList(BenchmarkTasks.create(1000));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(directory.resolve("ByteTalker.txt"));
+        Files.deleteIfExists(directory);
+    }
+
+    private String nextInput() {
+        next = (next + 1) % INVALID_INPUTS.length;
+        return INVALID_INPUTS[next];
+    }
+
+    @Benchmark
+    public String rejectWithParseResults() {
+        String input = nextInput();
+        String command = Tokenizer.word(input, 0);
+        if (command.equals("mark")) {
+            return tasks.markTask(Parser.parse(input), storage, ui);
+        } else if (command.equals("unmark")) {
+            return tasks.unmarkTask(Parser.parse(input), storage, ui);
+        } else if (command.equals("delete")) {
+            return tasks.deleteTask(Parser.parse(input), storage, ui);
+        }
+        return tasks.addTask(input, storage, ui);
+    }
+
+    @Benchmark
+    public String rejectWithExceptions() {
+        String input = nextInput();
+        String command = Tokenizer.word(input, 0);
+        if (command.equals("mark") || command.equals("unmark") || command.equals("delete")) {
+            return findIndexWithExceptions(Parser.parse(input));
+        }
+        return addTaskWithExceptions(input);
+    }
+
+    private String findIndexWithExceptions(String[] splitMessages) {
+        try {
+            Parser.checkCommand(splitMessages);
+            String reference = splitMessages[1];
+            long index = reference.startsWith("#")
+                    ? Long.parseLong(reference.substring(1))
+                    : Integer.parseInt(reference) - 1;
+            return String.valueOf(index);
+        } catch (NumberFormatException e) {
+            return ui.showMissingIndexMessage();
+        } catch (CommandWrongFormatExcpetion e) {
+            return e.getMessage();
+        }
+    }
+
+    private static String addTaskWithExceptions(String input) {
+        try {
+            String command = Tokenizer.word(input, 0);
+            String[] fields;
+            if (command.equals("todo")) {
+                fields = parseOrNull(() -> Parser.parseTodoAddInput(input));
+            } else if (command.equals("deadline")) {
+                fields = parseOrNull(() -> Parser.parseDeadlineAddInput(input));
+            } else if (command.equals("event")) {
+                fields = parseOrNull(() -> Parser.parseEventAddInput(input));
+            } else {
+                throw new UnsupportedCommandException("This is unsupported task");
+            }
+            if (fields == null) {
+                throw new CommandWrongFormatExcpetion("Wrong command format. Please follow the correct format.");
+            }
+            return fields[0];
+        } catch (UnsupportedCommandException ex) {
+            return ex.getMessage() + ". Please only enter the supported types of task.";
+        } catch (CommandWrongFormatExcpetion e) {
+            return e.getMessage();
+        }
+    }
+
+    private interface FieldsParser {
+        String[] parse() throws TodoUnsupportedFormatException, DeadlineUnsupportedFormatException,
+                EventUnsupportedFormatException;
+    }
+
+    private static String[] parseOrNull(FieldsParser parser) {
+        try {
+            return parser.parse();
+        } catch (TodoUnsupportedFormatException | DeadlineUnsupportedFormatException
+                | EventUnsupportedFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package bytetalker.task;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares finding tasks through the keyword index with scanning every task for the search string, and measures
+ * building the index.
+ * The words searched for are in a sixth, a third and none of the tasks, the last as a phrase of words in the index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class KeywordIndexBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"timesheet", "book", "library book 4"})
+    private String query;
+
+    private TaskSequence tasks;
+    private KeywordIndex index;
+
+    @Setup
+    public void setUp() {
+        ArrayList<Task> createdTasks = BenchmarkTasks.create(size);
+        TaskList.assignIds(createdTasks);
+        tasks = TaskSequence.of(createdTasks);
+        index = new KeywordIndex(tasks);
+    }
+
+    @Benchmark
+    public ArrayList<Task> find_index() {
+        return index.find(tasks, query);
+    }
+
+    @Benchmark
+    public ArrayList<Task> find_scan() {
+        ArrayList<Task> foundTasks = new ArrayList<>();
+        for (Task task : tasks) {
+            if (task.getTask().contains(query)) {
+                foundTasks.add(task);
+            }
+        }
+        return foundTasks;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public KeywordIndex build() {
+        return new KeywordIndex(tasks);
+    }
+}
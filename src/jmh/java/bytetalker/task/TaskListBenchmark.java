@@ -0,0 +1,53 @@
+package bytetalker.task;
+
+import bytetalker.ui.Ui;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures finding and listing tasks in lists of different sizes.
+ * Listing the whole list repeatedly only copies the strings rendered for the tasks the first time they are listed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskListBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private TaskList tasks;
+    private final Ui ui = new Ui();
+
+    @Setup
+    public void setUp() {
+        tasks = new TaskList(BenchmarkTasks.create(size));
+    }
+
+    @Benchmark
+    public String findTask_word() {
+        return tasks.findTask(new String[] {"find", "timesheet"}, ui);
+    }
+
+    @Benchmark
+    public String findTask_phrase() {
+        return tasks.findTask(new String[] {"find", "library", "book", "4"}, ui);
+    }
+
+    @Benchmark
+    public String listTasks_all() {
+        return tasks.listTasks(new String[] {"list"}, ui);
+    }
+
+    @Benchmark
+    public String listTasks_page() {
+        return tasks.listTasks(new String[] {"list", "3"}, ui);
+    }
+}
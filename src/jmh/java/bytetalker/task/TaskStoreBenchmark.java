@@ -0,0 +1,73 @@
+package bytetalker.task;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a sequence of task objects with a sequence of tasks kept in columns, for the scans that read the columns
+ * directly, for reading every task and for replacing a task. Together with the gc profiler configured for the jmh
+ * task, the build benchmark shows the memory taken by the tasks in each store.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskStoreBenchmark {
+    @Param({"100000", "1000000"})
+    private int size;
+
+    @Param({"OBJECTS", "COLUMNS"})
+    private TaskStore store;
+
+    private ArrayList<Task> createdTasks;
+    private TaskSequence tasks;
+    private int position;
+
+    @Setup
+    public void setUp() {
+        createdTasks = BenchmarkTasks.create(size);
+        TaskList.assignIds(createdTasks);
+        tasks = TaskSequence.of(createdTasks, store);
+    }
+
+    @Benchmark
+    public boolean[] selectByStatus() {
+        return tasks.selectByStatus(true);
+    }
+
+    @Benchmark
+    public ArrayList<Task> findContaining() {
+        return tasks.findContaining("timesheet 9");
+    }
+
+    @Benchmark
+    public int readEveryTask() {
+        int count = 0;
+        for (Task task : tasks) {
+            count += task.getStatus() ? 1 : 0;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public TaskSequence replaceTask() {
+        position = (position + 7_919) % size;
+        Task task = tasks.get(position).copy();
+        task.setStatus(!task.getStatus());
+        return tasks.with(position, task);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public TaskSequence build() {
+        return TaskSequence.of(createdTasks, store);
+    }
+}
@@ -0,0 +1,92 @@
+package graphics;
+
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.CornerRadii;
+import javafx.scene.layout.HBox;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Circle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of the nodes created for every message shown in the window, together with the gc profiler
+ * configured for the jmh task, which reports the bytes allocated per message. The baseline builds a dialog box the
+ * way DialogBox used to, with its own clip, paddings and background.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DialogBoxBenchmark {
+    private static final String MESSAGE = "Got it. I've added this task:\n       [T][ ] read book\n"
+            + "Now you have 1 tasks in the list.";
+
+    private Image picture;
+    private DialogBox reusedDialogBox;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        started.await();
+        picture = new Image(DialogBoxBenchmark.class.getResourceAsStream("/images/chatbot.png"));
+
+        // The shared avatar can only be rendered on the JavaFX application thread.
+        CountDownLatch rendered = new CountDownLatch(1);
+        Platform.runLater(() -> {
+            DialogBox.getAvatar(picture);
+            rendered.countDown();
+        });
+        rendered.await();
+        reusedDialogBox = new DialogBox(new Label(), new ImageView());
+    }
+
+    @TearDown
+    public void tearDown() {
+        Platform.exit();
+    }
+
+    @Benchmark
+    public DialogBox createDialogBox() {
+        return DialogBox.getByteTalkerDialog(new Label(MESSAGE), new ImageView(picture));
+    }
+
+    @Benchmark
+    public DialogBox reuseDialogBox() {
+        reusedDialogBox.showMessage(MESSAGE, picture, false);
+        return reusedDialogBox;
+    }
+
+    @Benchmark
+    public HBox createDialogBoxWithoutSharing() {
+        Label text = new Label(MESSAGE);
+        ImageView displayPicture = new ImageView(picture);
+        text.setWrapText(true);
+        text.setPadding(new Insets(10));
+        displayPicture.setFitWidth(80.0);
+        displayPicture.setFitHeight(80.0);
+        displayPicture.setClip(new Circle(40, 40, 40));
+        displayPicture.setPreserveRatio(true);
+        HBox dialogBox = new HBox(displayPicture, text);
+        dialogBox.setPadding(new Insets(8, 8, 8, 8));
+        dialogBox.setAlignment(Pos.TOP_LEFT);
+        dialogBox.setBackground(new Background(new BackgroundFill(Color.GRAY, CornerRadii.EMPTY, Insets.EMPTY)));
+        text.setTextFill(Color.WHITE);
+        return dialogBox;
+    }
+}
@@ -1,27 +1,27 @@
 package bytetalker;
 
-import bytetalker.task.TaskList;
 import bytetalker.ui.Ui;
 import bytetalker.storage.Storage;
-import bytetalker.parser.Parser;
 
-import graphics.DialogBox;
+import graphics.ChatMessage;
+import graphics.DialogCell;
 
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javafx.application.Application;
 import javafx.application.Platform;
+import javafx.collections.ObservableList;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
-import javafx.scene.layout.Region;
-import javafx.scene.control.Label;
 import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
 
 /**
  * The ByteTalker program implements a chatbot where it processes user input.
@@ -31,63 +31,83 @@ import javafx.scene.image.ImageView;
  * @since 2024-01-28
  */
 public class ByteTalker extends Application {
-    private TaskList tasks;
-    private Storage storage;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+    private static final int DEFAULT_HISTORY_LIMIT = 1000;
+    private static final double LOADING_INDICATOR_SIZE = 40.0;
+
+    private volatile CommandProcessor commandProcessor;
+    private volatile Storage storage;
     private Ui ui;
-    boolean isExit = false;
+    private final long startNanos = System.nanoTime();
+    private final boolean isStartupLogged = Boolean.getBoolean("bytetalker.logStartup");
+    private boolean hasReplied = false;
 
-    private ScrollPane scrollPane;
-    private VBox dialogContainer;
+    /**
+     * Shows the transcript with a virtualized list, which only creates dialog boxes for the messages on the screen.
+     * At most historyLimit messages are kept, set with the bytetalker.historyLimit system property, so a long
+     * session costs the same as a short one.
+     */
+    private ListView<ChatMessage> transcript;
+    private final int historyLimit = Integer.getInteger("bytetalker.historyLimit", DEFAULT_HISTORY_LIMIT);
     private TextField userInput;
     private Button sendButton;
+    private ProgressIndicator loadingIndicator;
     private Scene scene;
-    private Image user = new Image(this.getClass().getResourceAsStream("/images/user.png"));
-    private Image byteTalker = new Image(this.getClass().getResourceAsStream("/images/chatbot.png"));
+    private Image user;
+    private Image byteTalker;
+
+    /**
+     * Runs every command one after another, away from the JavaFX application thread, so saving a large list does
+     * not freeze the window and commands are applied in the order they were entered. Write-behind flushes are
+     * scheduled on it as well, so they never overlap with a command.
+     */
+    private final ScheduledExecutorService commandExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bytetalker-command");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public ByteTalker() {
         ui = new Ui();
-        storage = new Storage("./data/ByteTalker.txt");
-        storage.setupDirectoryAndFile();
+    }
+
+    /**
+     * Creates the storage and loads the tasks on the command executor, so the window is shown right away.
+     * Commands entered in the meantime are queued behind the loading on the same executor.
+     */
+    private void loadTasks() {
+        storage = CommandProcessor.createStorage(CommandProcessor.DATA_FILE_PATH, commandExecutor);
+        logStartup("storage ready");
         try {
-            tasks = new TaskList(storage.loadTasks());
-        } catch (FileNotFoundException e) {
-            ui.showFileNotFoundErrorMsg();
-            isExit = true;
+            commandProcessor = new CommandProcessor(storage, ui);
+            logStartup(storage.getContentDictionary() == null
+                    ? "tasks loaded"
+                    : "tasks loaded with " + storage.getContentDictionary());
+        } catch (IOException e) {
+            logStartup("loading failed");
         }
+        Platform.runLater(() -> loadingIndicator.setVisible(false));
     }
 
     /**
-     * Determines the response based on the user input.
-     * User input is processed and the chatbot gives a reponse as a message to indicate successful or unsuccessful
-     * execution.
+     * Prints how long after the application was created a phase of the startup was reached, so the time until the
+     * window can be used and until the tasks are loaded can be tracked. Only printed when the application is started
+     * with the bytetalker.logStartup system property set to true.
      *
-     * @param input User input as a string.
-     * @return Message indicating successful or unsuccessful execution of the program.
+     * @param phase Phase of the startup that has been reached.
      */
-    private String getResponse(String input) {
-        String[] splitMessages = Parser.parse(input);
-        if (input.equals("bye")) {
-            Platform.exit();
-            return this.ui.showBye();
-        } else if (input.equals("list")) {
-            return this.ui.returnList(this.tasks.getTasks());
-        } else if (splitMessages[0].equals("mark")) {
-            return this.tasks.markTask(splitMessages, storage, ui);
-        } else if (splitMessages[0].equals("unmark")) {
-            return this.tasks.unmarkTask(splitMessages, storage, ui);
-        } else if (splitMessages[0].equals("delete")) {
-            return this.tasks.deleteTask(splitMessages, storage, ui);
-        } else if (splitMessages[0].equals("find")) {
-            return this.tasks.findTask(splitMessages, ui);
-        } else if (splitMessages[0].equals("update")) {
-            return this.tasks.editTask(splitMessages, storage, ui);
-        } else {
-            return this.tasks.addTask(splitMessages, storage, ui);
+    private void logStartup(String phase) {
+        if (!isStartupLogged) {
+            return;
         }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        System.out.println("Startup: " + phase + " after " + elapsedMillis + " ms");
     }
 
     /**
      * Creates a Gui for the chatbot.
+     * The avatars are decoded in the background and the tasks are loaded on the command executor, so the window is
+     * shown without waiting for either.
      *
      * @param stage the primary stage for this application, onto which
      * the application scene can be set.
@@ -96,15 +116,20 @@ public class ByteTalker extends Application {
      */
     @Override
     public void start(Stage stage) {
-        scrollPane = new ScrollPane();
-        dialogContainer = new VBox();
-        scrollPane.setContent(dialogContainer);
+        commandExecutor.execute(this::loadTasks);
+        user = new Image(this.getClass().getResource("/images/user.png").toExternalForm(), true);
+        byteTalker = new Image(this.getClass().getResource("/images/chatbot.png").toExternalForm(), true);
+
+        transcript = new ListView<>();
+        transcript.setCellFactory(listView -> new DialogCell(user, byteTalker));
 
         userInput = new TextField();
         sendButton = new Button("Send");
+        loadingIndicator = new ProgressIndicator();
+        loadingIndicator.setMaxSize(LOADING_INDICATOR_SIZE, LOADING_INDICATOR_SIZE);
 
         AnchorPane mainLayout = new AnchorPane();
-        mainLayout.getChildren().addAll(scrollPane, userInput, sendButton);
+        mainLayout.getChildren().addAll(transcript, userInput, sendButton, loadingIndicator);
 
         scene = new Scene(mainLayout);
 
@@ -113,19 +138,36 @@ public class ByteTalker extends Application {
         //functionality
         handleActions();
 
-        dialogContainer.heightProperty().addListener((observable) -> scrollPane.setVvalue(1.0));
-        dialogContainer.getChildren().add(DialogBox.getByteTalkerDialog(new Label(this.ui.showWelcome()),
-                new ImageView(byteTalker)));
+        addMessage(new ChatMessage(this.ui.showWelcome(), false));
+        logStartup("window shown");
+    }
+
+    /**
+     * Appends a message to the transcript, drops the oldest messages beyond the history limit and scrolls to the
+     * new message.
+     *
+     * @param message Message to be appended.
+     */
+    private void addMessage(ChatMessage message) {
+        ObservableList<ChatMessage> messages = transcript.getItems();
+        messages.add(message);
+        if (messages.size() > historyLimit) {
+            messages.remove(0, messages.size() - historyLimit);
+        }
+        transcript.scrollTo(messages.size() - 1);
     }
 
     private void setAcnhorPane() {
-        AnchorPane.setTopAnchor(scrollPane, 1.0);
+        AnchorPane.setTopAnchor(transcript, 1.0);
 
         AnchorPane.setBottomAnchor(sendButton, 1.0);
         AnchorPane.setRightAnchor(sendButton, 1.0);
 
         AnchorPane.setLeftAnchor(userInput , 1.0);
         AnchorPane.setBottomAnchor(userInput, 1.0);
+
+        AnchorPane.setTopAnchor(loadingIndicator, 10.0);
+        AnchorPane.setRightAnchor(loadingIndicator, 25.0);
     }
 
     private void handleActions() {
@@ -145,18 +187,12 @@ public class ByteTalker extends Application {
         stage.setMinWidth(400.0);
     }
 
-    private void setScrollPane() {
-        scrollPane.setPrefSize(385, 535);
-        scrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
-        scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.ALWAYS);
-
-        scrollPane.setVvalue(1.0);
-        scrollPane.setFitToWidth(true);
+    private void setTranscript() {
+        transcript.setPrefSize(385, 535);
+        transcript.setFocusTraversable(false);
     }
 
     private void setPref() {
-        dialogContainer.setPrefHeight(Region.USE_COMPUTED_SIZE);
-
         userInput.setPrefWidth(340.0);
 
         sendButton.setPrefWidth(55.0);
@@ -170,7 +206,7 @@ public class ByteTalker extends Application {
 
         mainLayout.setPrefSize(400.0, 600.0);
 
-        setScrollPane();
+        setTranscript();
 
         setPref();
 
@@ -178,16 +214,57 @@ public class ByteTalker extends Application {
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Duke's reply and then appends them to
-     * the dialog container. Clears teh user input after processing.
+     * Echoes user input in the transcript right away and clears the user input. The command is then executed on the
+     * command executor and ByteTalker's reply is appended to the transcript once it is done.
      */
     private void handleUserInput() {
-        Label userText = new Label(userInput.getText());
-        Label botText = new Label(getResponse(userInput.getText()));
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(userText, new ImageView(user)),
-                DialogBox.getByteTalkerDialog(botText, new ImageView(byteTalker))
-        );
+        String input = userInput.getText();
+        addMessage(new ChatMessage(input, true));
         userInput.clear();
+        commandExecutor.execute(() -> {
+            String response;
+            try {
+                if (commandProcessor == null) {
+                    response = ui.showFileNotFoundErrorMsg();
+                } else {
+                    response = commandProcessor.execute(input);
+                    if (commandProcessor.isExit()) {
+                        Platform.exit();
+                    }
+                }
+            } catch (RuntimeException e) {
+                response = "Something went wrong while executing the command: " + e.getMessage();
+            }
+            String botResponse = response;
+            Platform.runLater(() -> {
+                addMessage(new ChatMessage(botResponse, false));
+                if (!hasReplied) {
+                    hasReplied = true;
+                    logStartup("first reply shown");
+                }
+            });
+        });
+    }
+
+    /**
+     * Lets the commands already entered finish and writes the changes still waiting in write-behind mode before the
+     * application exits.
+     *
+     * @throws InterruptedException If interrupted while waiting for the commands to finish.
+     */
+    @Override
+    public void stop() throws InterruptedException {
+        commandExecutor.execute(() -> {
+            if (storage == null) {
+                return;
+            }
+            try {
+                storage.flush();
+            } catch (IOException e) {
+                System.out.println("Failed to save the task list before exiting");
+            }
+        });
+        commandExecutor.shutdown();
+        commandExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
     }
 }
@@ -0,0 +1,288 @@
+package bytetalker;
+
+import bytetalker.command.Command;
+import bytetalker.command.CommandRegistry;
+import bytetalker.parser.Tokenizer;
+import bytetalker.storage.Durability;
+import bytetalker.storage.Storage;
+import bytetalker.storage.StorageFormat;
+import bytetalker.task.ConcurrentTaskList;
+import bytetalker.task.ContentDictionary;
+import bytetalker.task.TaskList;
+import bytetalker.task.TaskStore;
+import bytetalker.ui.Ui;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Executes the commands entered by the user against the list of tasks and returns the replies, regardless of
+ * whether the commands come from the window, a script or a client of the server.
+ * Commands are looked up in a command registry by the first word of the input. Given a writer lane, commands may be
+ * executed from several threads at once: read-only commands read the latest published copy of the list on the calling
+ * thread without any lock, while every other command is executed on the lane.
+ */
+public class CommandProcessor {
+    public static final String DATA_FILE_PATH = "./data/ByteTalker.txt";
+
+    private static final String EXIT_COMMAND = "bye";
+    private static final String RUN_COMMAND = "run";
+
+    private final ConcurrentTaskList tasks;
+    private final CommandRegistry commands = CommandRegistry.createDefault();
+    private final Storage storage;
+    private final Ui ui;
+    private volatile boolean isScriptEnabled = true;
+    private volatile boolean isExit = false;
+
+    /**
+     * Creates a command processor working on the list of tasks loaded from the storage, whose commands are all
+     * executed by the same thread.
+     *
+     * @param storage Storage the list is loaded from and saved into.
+     * @param ui Utility object creating the replies.
+     * @throws IOException If the list cannot be loaded.
+     */
+    public CommandProcessor(Storage storage, Ui ui) throws IOException {
+        this(storage, ui, null);
+    }
+
+    /**
+     * Creates a command processor working on the list of tasks loaded from the storage, whose commands may be
+     * executed from several threads at once. In write-behind mode, the list is rolled back to the one in the data
+     * file when writing it in the background fails. The tasks are kept in columns if the bytetalker.taskStore system
+     * property is columns.
+     *
+     * @param storage Storage the list is loaded from and saved into.
+     * @param ui Utility object creating the replies.
+     * @param writerLane Single thread executor executing every command changing the list, which must also be the
+     *     executor used by the storage in write-behind mode.
+     * @throws IOException If the list cannot be loaded.
+     */
+    public CommandProcessor(Storage storage, Ui ui, ExecutorService writerLane) throws IOException {
+        this.storage = storage;
+        this.ui = ui;
+        TaskStore store = "columns".equals(System.getProperty("bytetalker.taskStore"))
+                ? TaskStore.COLUMNS
+                : TaskStore.OBJECTS;
+        this.tasks = new ConcurrentTaskList(
+                new TaskList(storage.loadTasks(), storage.getContentDictionary(), store), writerLane);
+        storage.setRollbackListener(savedTasks -> tasks.write(taskList -> {
+            taskList.restore(new TaskList(savedTasks, null, store));
+            return null;
+        }));
+    }
+
+    /**
+     * Creates the storage for the data file, configured by the bytetalker.journal, bytetalker.writeBehindMillis,
+     * bytetalker.durability, bytetalker.format and bytetalker.dedupContent system properties, and creates the file if
+     * it is missing.
+     *
+     * @param filePath Path of the data file in text format.
+     * @param executor Single thread executor executing the commands, which also runs write-behind flushes and
+     *     journal compactions, or null to run neither in the background.
+     * @return Storage ready to load the list from.
+     */
+    public static Storage createStorage(String filePath, ScheduledExecutorService executor) {
+        Storage storage = new Storage(filePath);
+        storage.setJournalEnabled(Boolean.getBoolean("bytetalker.journal"));
+        storage.setCompactionExecutor(executor);
+        long writeBehindMillis = Long.getLong("bytetalker.writeBehindMillis", 0);
+        if (writeBehindMillis > 0 && executor != null) {
+            storage.enableWriteBehind(executor, writeBehindMillis);
+        }
+        if ("file".equals(System.getProperty("bytetalker.durability"))) {
+            storage.setDurability(Durability.FILE);
+        } else if ("directory".equals(System.getProperty("bytetalker.durability"))) {
+            storage.setDurability(Durability.FILE_AND_DIRECTORY);
+        }
+        if ("binary".equals(System.getProperty("bytetalker.format"))) {
+            storage.setFormat(StorageFormat.BINARY);
+        }
+        if (Boolean.getBoolean("bytetalker.dedupContent")) {
+            storage.setContentDictionary(new ContentDictionary());
+        }
+        storage.setupDirectoryAndFile();
+        return storage;
+    }
+
+    /**
+     * Returns whether the user has asked to exit.
+     *
+     * @return True once bye has been executed successfully.
+     */
+    public boolean isExit() {
+        return this.isExit;
+    }
+
+    /**
+     * Returns the registry of the commands this processor executes, to which further commands can be registered
+     * before the processor starts executing commands.
+     *
+     * @return Registry of the commands.
+     */
+    public CommandRegistry getCommands() {
+        return this.commands;
+    }
+
+    /**
+     * Allows or forbids the run command. It must be forbidden when the commands come from clients that should not
+     * be able to read the files the application can read, as the reply of run echoes every line of the file.
+     *
+     * @param isScriptEnabled Boolean value for indicating whether run may be executed.
+     */
+    public void setScriptEnabled(boolean isScriptEnabled) {
+        this.isScriptEnabled = isScriptEnabled;
+    }
+
+    /**
+     * Writes the changes still waiting in write-behind mode.
+     *
+     * @throws IOException If the list cannot be written.
+     */
+    public void flush() throws IOException {
+        IOException failure = tasks.write(taskList -> {
+            try {
+                storage.flush();
+                return null;
+            } catch (IOException e) {
+                return e;
+            }
+        });
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Determines the response based on the user input.
+     * User input is processed and the chatbot gives a reponse as a message to indicate successful or unsuccessful
+     * execution. If saving the list in the background or compacting the journal has failed since the previous reply,
+     * a warning is added.
+     *
+     * @param input User input as a string.
+     * @return Message indicating successful or unsuccessful execution of the program.
+     */
+    public String execute(String input) {
+        String reply = executeCommand(input);
+        if (storage.takeBackgroundFailure() != null) {
+            reply += "\n" + this.ui.showBackgroundSaveFailureMessage();
+        }
+        if (storage.takeCompactionFailure() != null) {
+            reply += "\n" + this.ui.showCompactionFailureMessage();
+        }
+        return reply;
+    }
+
+    private String executeCommand(String input) {
+        String keyword = Tokenizer.word(input, 0);
+        if (input.equals(EXIT_COMMAND)) {
+            try {
+                flush();
+            } catch (IOException e) {
+                return this.ui.showStoreTaskErrorMessage();
+            }
+            isExit = true;
+            return this.ui.showBye();
+        } else if (keyword.equals(RUN_COMMAND)) {
+            if (!isScriptEnabled) {
+                return this.ui.showUnsupportedCommandMessage();
+            }
+            return runScript(Tokenizer.afterWords(input, 1));
+        }
+        Command command = commands.find(keyword);
+        if (command == null) {
+            return this.ui.showUnsupportedCommandMessage();
+        } else if (command.isReadOnly()) {
+            return tasks.read(taskList -> command.execute(taskList, input, storage, ui));
+        } else {
+            return tasks.write(taskList -> command.execute(taskList, input, storage, ui));
+        }
+    }
+
+    /**
+     * Executes the commands in a file, one per line, as a single batch.
+     *
+     * @param filePath Path of the file containing the commands.
+     * @return Result of every command, or an error message if the file cannot be read.
+     */
+    public String runScript(String filePath) {
+        if (filePath.isEmpty()) {
+            return "Wrong command format. Please use run {file}.";
+        }
+        List<String> commands;
+        try {
+            commands = Files.readAllLines(Path.of(filePath));
+        } catch (IOException e) {
+            return ui.showReadScriptErrorMessage(filePath);
+        }
+        return runBatch(commands);
+    }
+
+    /**
+     * Executes the commands one after another and writes the list once after the last one.
+     * Blank lines are skipped and bye ends the batch. If the list cannot be written, every change made by the
+     * batch is rolled back, so either all of the commands take effect or none of them do.
+     * The whole batch is executed on the writer lane, so other clients never see it half done.
+     *
+     * @param commands Commands to be executed.
+     * @return Result of every command, followed by whether the changes have been saved.
+     */
+    public String runBatch(List<String> commands) {
+        return tasks.write(taskList -> runBatch(taskList, commands));
+    }
+
+    private String runBatch(TaskList taskList, List<String> commands) {
+        TaskList snapshot = taskList.snapshot();
+        ArrayList<String> executedCommands = new ArrayList<>();
+        ArrayList<String> responses = new ArrayList<>();
+        boolean isSaved = false;
+        storage.beginBatch();
+        try {
+            for (String input : commands) {
+                if (input.isBlank()) {
+                    continue;
+                }
+                if (input.equals(EXIT_COMMAND)) {
+                    break;
+                }
+                executedCommands.add(input);
+                responses.add(executeBatchCommand(taskList, input));
+            }
+        } finally {
+            isSaved = endBatch(taskList, snapshot);
+        }
+        return ui.showBatchReport(executedCommands, responses, isSaved);
+    }
+
+    private String executeBatchCommand(TaskList taskList, String input) {
+        String keyword = Tokenizer.word(input, 0);
+        if (keyword.equals(RUN_COMMAND)) {
+            return "A script cannot run another script.";
+        }
+        Command command = commands.find(keyword);
+        if (command == null) {
+            return ui.showUnsupportedCommandMessage();
+        }
+        try {
+            return command.execute(taskList, input, storage, ui);
+        } catch (RuntimeException e) {
+            return "Something went wrong while executing the command: " + e.getMessage();
+        }
+    }
+
+    private boolean endBatch(TaskList taskList, TaskList snapshot) {
+        try {
+            storage.endBatch(taskList.getTasks());
+            return true;
+        } catch (IOException e) {
+            taskList.restore(snapshot);
+            return false;
+        }
+    }
+}
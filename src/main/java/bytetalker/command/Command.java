@@ -0,0 +1,47 @@
+package bytetalker.command;
+
+import bytetalker.storage.Storage;
+import bytetalker.task.TaskList;
+import bytetalker.ui.Ui;
+
+/**
+ * Represents a command the user can enter, looked up by the first word of the input.
+ * Commands are registered in a CommandRegistry, so new commands can be added without changing how the input is
+ * dispatched.
+ */
+public interface Command {
+    /**
+     * Returns the word the user enters to execute the command.
+     *
+     * @return Keyword of the command.
+     */
+    String getKeyword();
+
+    /**
+     * Returns the other words the user may enter instead of the keyword.
+     *
+     * @return Aliases of the command, which may be empty.
+     */
+    default String[] getAliases() {
+        return new String[0];
+    }
+
+    /**
+     * Returns whether the command only reads the list of tasks. Read-only commands are executed on the latest
+     * published copy of the list without waiting for the writer lane or taking any lock, and never save the list.
+     *
+     * @return True if the command never changes the list.
+     */
+    boolean isReadOnly();
+
+    /**
+     * Executes the command against the list of tasks.
+     *
+     * @param tasks List of tasks the command works on.
+     * @param input User input as a string, starting with the keyword or one of the aliases.
+     * @param storage Utility object to store the changed list of tasks into the hard disk.
+     * @param ui Utility object creating the reply.
+     * @return Message indicating successful or unsuccessful execution.
+     */
+    String execute(TaskList tasks, String input, Storage storage, Ui ui);
+}
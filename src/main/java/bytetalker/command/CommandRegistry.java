@@ -0,0 +1,59 @@
+package bytetalker.command;
+
+import java.util.HashMap;
+
+/**
+ * Looks up the command for the first word of the user input.
+ * Every keyword and alias is mapped to its command when the command is registered, so finding the command for an
+ * input takes a single lookup however many commands there are.
+ */
+public class CommandRegistry {
+    private final HashMap<String, Command> commands = new HashMap<>();
+
+    /**
+     * Creates a registry containing every command built into the chatbot.
+     *
+     * @return Registry of the built-in commands.
+     */
+    public static CommandRegistry createDefault() {
+        CommandRegistry registry = new CommandRegistry();
+        for (TaskCommand command : TaskCommand.values()) {
+            registry.register(command);
+        }
+        return registry;
+    }
+
+    /**
+     * Registers the command under its keyword and aliases.
+     *
+     * @param command Command to be registered.
+     * @throws IllegalArgumentException If the keyword or one of the aliases is already taken by another command.
+     */
+    public void register(Command command) {
+        String[] aliases = command.getAliases();
+        checkAvailable(command.getKeyword());
+        for (String alias : aliases) {
+            checkAvailable(alias);
+        }
+        this.commands.put(command.getKeyword(), command);
+        for (String alias : aliases) {
+            this.commands.put(alias, command);
+        }
+    }
+
+    private void checkAvailable(String word) {
+        if (this.commands.containsKey(word)) {
+            throw new IllegalArgumentException("The command " + word + " has already been registered.");
+        }
+    }
+
+    /**
+     * Returns the command entered with the word.
+     *
+     * @param word First word of the user input.
+     * @return Command whose keyword or alias is the word, or null if there is none.
+     */
+    public Command find(String word) {
+        return this.commands.get(word);
+    }
+}
@@ -0,0 +1,97 @@
+package bytetalker.command;
+
+import bytetalker.parser.Parser;
+import bytetalker.storage.Storage;
+import bytetalker.task.TaskList;
+import bytetalker.ui.Ui;
+
+/**
+ * Represents the commands working on the list of tasks that are built into the chatbot.
+ */
+public enum TaskCommand implements Command {
+    TODO("todo", false) {
+        @Override
+        public String execute(TaskList tasks, String input, Storage storage, Ui ui) {
+            return tasks.addTask(input, storage, ui);
+        }
+    },
+    DEADLINE("deadline", false) {
+        @Override
+        public String execute(TaskList tasks, String input, Storage storage, Ui ui) {
+            return tasks.addTask(input, storage, ui);
+        }
+    },
+    EVENT("event", false) {
+        @Override
+        public String execute(TaskList tasks, String input, Storage storage, Ui ui) {
+            return tasks.addTask(input, storage, ui);
+        }
+    },
+    LIST("list", true, "ls") {
+        @Override
+        public String execute(TaskList tasks, String input, Storage storage, Ui ui) {
+            return tasks.listTasks(Parser.parse(input), ui);
+        }
+    },
+    MARK("mark", false) {
+        @Override
+        public String execute(TaskList tasks, String input, Storage storage, Ui ui) {
+            return tasks.markTask(Parser.parse(input), storage, ui);
+        }
+    },
+    UNMARK("unmark", false) {
+        @Override
+        public String execute(TaskList tasks, String input, Storage storage, Ui ui) {
+            return tasks.unmarkTask(Parser.parse(input), storage, ui);
+        }
+    },
+    DELETE("delete", false, "rm") {
+        @Override
+        public String execute(TaskList tasks, String input, Storage storage, Ui ui) {
+            return tasks.deleteTask(Parser.parse(input), storage, ui);
+        }
+    },
+    FIND("find", true, "search") {
+        @Override
+        public String execute(TaskList tasks, String input, Storage storage, Ui ui) {
+            return tasks.findTask(input, ui);
+        }
+    },
+    QUERY("query", true) {
+        @Override
+        public String execute(TaskList tasks, String input, Storage storage, Ui ui) {
+            return tasks.queryTasks(Parser.parse(input), ui);
+        }
+    },
+    UPDATE("update", false, "edit") {
+        @Override
+        public String execute(TaskList tasks, String input, Storage storage, Ui ui) {
+            return tasks.editTask(input, storage, ui);
+        }
+    };
+
+    private final String keyword;
+    private final boolean isReadOnly;
+    private final String[] aliases;
+
+    TaskCommand(String keyword, boolean isReadOnly, String... aliases) {
+        this.keyword = keyword;
+        this.isReadOnly = isReadOnly;
+        this.aliases = aliases;
+    }
+
+    @Override
+    public String getKeyword() {
+        return this.keyword;
+    }
+
+    @Override
+    public String[] getAliases() {
+        return this.aliases.clone();
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return this.isReadOnly;
+    }
+}
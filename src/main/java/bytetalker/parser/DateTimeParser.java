@@ -0,0 +1,205 @@
+package bytetalker.parser;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parses the date and time strings entered by the user in the yyyy-M-d Hmm or d/M/yyyy Hmm format.
+ * The format is detected and the fields are read in a single pass over the string, so invalid input is rejected
+ * without building a formatter or throwing an exception. The results for recently parsed strings are kept in a
+ * small least recently used cache, as the same dates tend to be entered again and again.
+ * Dates are resolved like the precompiled formatters would: days past the end of the month are moved back to its
+ * last day and 2400 is midnight of the next day.
+ */
+public class DateTimeParser {
+    static final DateTimeFormatter DASH_FORMATTER = DateTimeFormatter.ofPattern("yyyy-M-d Hmm");
+    static final DateTimeFormatter SLASH_FORMATTER = DateTimeFormatter.ofPattern("d/M/yyyy Hmm");
+    static final int CACHE_CAPACITY = 256;
+
+    private static final int YEAR_DIGITS = 4;
+    private static final int MINUTE_DIGITS = 2;
+    private static final int MAX_FIELD_DIGITS = 19;
+    private static final long FIELD_VALUE_CAP = 1_000_000_000L;
+    private static final int DEFAULT_HOUR = 23;
+    private static final int DEFAULT_MINUTE = 59;
+
+    private static final Map<String, LocalDateTime> CACHE =
+            new LinkedHashMap<>(CACHE_CAPACITY * 4 / 3 + 1, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, LocalDateTime> eldest) {
+                    return size() > CACHE_CAPACITY;
+                }
+            };
+
+    private DateTimeParser() {
+    }
+
+    /**
+     * Converts a date time string into a LocalDateTime object.
+     * The time may be left out, in which case it is 2359.
+     *
+     * @param dateTimeString Date time string in one of the supported formats.
+     * @return LocalDateTime object, or null if the string is not a valid date time.
+     */
+    public static LocalDateTime parse(String dateTimeString) {
+        synchronized (CACHE) {
+            LocalDateTime cachedDateTime = CACHE.get(dateTimeString);
+            if (cachedDateTime != null) {
+                return cachedDateTime;
+            }
+        }
+        LocalDateTime dateTime = parseUncached(dateTimeString);
+        if (dateTime != null) {
+            synchronized (CACHE) {
+                CACHE.put(dateTimeString, dateTime);
+            }
+        }
+        return dateTime;
+    }
+
+    static LocalDateTime parseUncached(String dateTimeString) {
+        int length = dateTimeString.length();
+        int start = 0;
+        while (start < length && Character.isWhitespace(dateTimeString.charAt(start))) {
+            start++;
+        }
+        int end = length;
+        while (end > start && Character.isWhitespace(dateTimeString.charAt(end - 1))) {
+            end--;
+        }
+
+        // The format is the dash one when a dash is followed by anything but dashes, looking past the stripping.
+        int firstDash = -1;
+        int lastNonDash = -1;
+        int firstSpace = -1;
+        boolean hasSign = false;
+        for (int i = 0; i < length; i++) {
+            char c = dateTimeString.charAt(i);
+            if (c == '-') {
+                if (firstDash < 0) {
+                    firstDash = i;
+                }
+                continue;
+            }
+            lastNonDash = i;
+            if (i >= start && i < end) {
+                if (c == ' ' && firstSpace < 0) {
+                    firstSpace = i;
+                } else if (c == '+') {
+                    hasSign = true;
+                }
+            }
+        }
+        boolean isDashFormat = firstDash >= 0 && firstDash < lastNonDash;
+
+        if (hasSign) {
+            // Only a year above 9999 may carry a sign, which is rare enough to leave to the formatter.
+            return parseWithFormatter(dateTimeString.substring(start, end), firstSpace >= 0, isDashFormat);
+        }
+        int dateEnd = firstSpace >= 0 ? firstSpace : end;
+        LocalDate date = isDashFormat
+                ? parseDate(dateTimeString, start, dateEnd, '-', true)
+                : parseDate(dateTimeString, start, dateEnd, '/', false);
+        if (date == null) {
+            return null;
+        }
+        if (firstSpace < 0) {
+            return date.atTime(DEFAULT_HOUR, DEFAULT_MINUTE);
+        }
+        return parseTime(dateTimeString, firstSpace + 1, end, date);
+    }
+
+    private static LocalDate parseDate(String s, int start, int end, char separator, boolean isYearFirst) {
+        int firstEnd = skipDigits(s, start, end);
+        if (firstEnd == start || firstEnd >= end || s.charAt(firstEnd) != separator) {
+            return null;
+        }
+        int monthStart = firstEnd + 1;
+        int monthEnd = skipDigits(s, monthStart, end);
+        if (monthEnd == monthStart || monthEnd >= end || s.charAt(monthEnd) != separator) {
+            return null;
+        }
+        int lastStart = monthEnd + 1;
+        int lastEnd = skipDigits(s, lastStart, end);
+        if (lastEnd == lastStart || lastEnd != end) {
+            return null;
+        }
+
+        int yearStart = isYearFirst ? start : lastStart;
+        int yearEnd = isYearFirst ? firstEnd : lastEnd;
+        int dayStart = isYearFirst ? lastStart : start;
+        int dayEnd = isYearFirst ? lastEnd : firstEnd;
+        if (yearEnd - yearStart != YEAR_DIGITS || monthEnd - monthStart > MAX_FIELD_DIGITS
+                || dayEnd - dayStart > MAX_FIELD_DIGITS) {
+            return null;
+        }
+        long year = valueOf(s, yearStart, yearEnd);
+        long month = valueOf(s, monthStart, monthEnd);
+        long day = valueOf(s, dayStart, dayEnd);
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return null;
+        }
+        int lastDayOfMonth = Month.of((int) month).length(Year.isLeap(year));
+        return LocalDate.of((int) year, (int) month, (int) Math.min(day, lastDayOfMonth));
+    }
+
+    private static LocalDateTime parseTime(String s, int start, int end, LocalDate date) {
+        int digitCount = end - start;
+        if (skipDigits(s, start, end) != end || digitCount <= MINUTE_DIGITS
+                || digitCount > MAX_FIELD_DIGITS + MINUTE_DIGITS) {
+            return null;
+        }
+        long hour = valueOf(s, start, end - MINUTE_DIGITS);
+        long minute = valueOf(s, end - MINUTE_DIGITS, end);
+        if (minute > 59) {
+            return null;
+        }
+        if (hour == 24 && minute == 0) {
+            return date.plusDays(1).atStartOfDay();
+        }
+        if (hour > 23) {
+            return null;
+        }
+        return date.atTime((int) hour, (int) minute);
+    }
+
+    private static int skipDigits(String s, int start, int end) {
+        int i = start;
+        while (i < end && isDigit(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Reads the number made of the digits in the range. Values too large to be a valid field are capped, so they
+     * are still rejected without overflowing.
+     */
+    private static long valueOf(String s, int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            value = Math.min(value * 10 + (s.charAt(i) - '0'), FIELD_VALUE_CAP);
+        }
+        return value;
+    }
+
+    private static LocalDateTime parseWithFormatter(String cleanDateTimeString, boolean isTimeExist,
+            boolean isDashFormat) {
+        String text = isTimeExist ? cleanDateTimeString : cleanDateTimeString + " " + DEFAULT_HOUR + DEFAULT_MINUTE;
+        try {
+            return LocalDateTime.parse(text, isDashFormat ? DASH_FORMATTER : SLASH_FORMATTER);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package bytetalker.parser;
+
+/**
+ * Represents the reasons user input can be rejected by the parser, each with the message shown to the user.
+ */
+public enum ParseError {
+    WRONG_FORMAT("Wrong command format. Please follow the correct format."),
+    UNSUPPORTED_TASK("This is unsupported task. Please only enter the supported types of task."),
+    UNSUPPORTED_DATE_TIME("Please use the correct format of DateTime."),
+    WRONG_LIST_FORMAT("Wrong command format. Please use list [page] [--page-size size]."),
+    WRONG_QUERY_FORMAT("Wrong command format. Please use query /from {date and time} /to {date and time} "
+            + "or query /on {date}."),
+    NOT_A_NUMBER("Please enter the index."),
+    INVALID_INDEX("Please enter the valid index.");
+
+    private final String message;
+
+    ParseError(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Returns the message telling the user why the input has been rejected.
+     *
+     * @return Error message.
+     */
+    public String getMessage() {
+        return this.message;
+    }
+}
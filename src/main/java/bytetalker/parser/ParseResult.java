@@ -0,0 +1,97 @@
+package bytetalker.parser;
+
+/**
+ * Represents the outcome of parsing user input: either the parsed value or the error rejecting the input.
+ * Invalid input is expected while the user types commands, so it is reported as a plain result instead of an
+ * exception, which would capture a stack trace every time. Failures without a custom message are shared.
+ *
+ * @param <T> Type of the parsed value.
+ */
+public final class ParseResult<T> {
+    private static final ParseResult<?>[] FAILURES = new ParseResult<?>[ParseError.values().length];
+
+    static {
+        for (ParseError error : ParseError.values()) {
+            FAILURES[error.ordinal()] = new ParseResult<>(null, error, null);
+        }
+    }
+
+    private final T value;
+    private final ParseError error;
+    private final String message;
+
+    private ParseResult(T value, ParseError error, String message) {
+        this.value = value;
+        this.error = error;
+        this.message = message;
+    }
+
+    /**
+     * Creates the result of input that has been parsed successfully.
+     *
+     * @param value Parsed value.
+     * @param <T> Type of the parsed value.
+     * @return Successful result holding the value.
+     */
+    public static <T> ParseResult<T> success(T value) {
+        return new ParseResult<>(value, null, null);
+    }
+
+    /**
+     * Returns the result of input rejected for the reason.
+     *
+     * @param error Reason the input has been rejected.
+     * @param <T> Type the parsed value would have had.
+     * @return Failed result with the message of the error.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ParseResult<T> failure(ParseError error) {
+        return (ParseResult<T>) FAILURES[error.ordinal()];
+    }
+
+    /**
+     * Creates the result of input rejected for the reason, with a message more specific than that of the error.
+     *
+     * @param error Reason the input has been rejected.
+     * @param message Message shown to the user.
+     * @param <T> Type the parsed value would have had.
+     * @return Failed result with the message.
+     */
+    public static <T> ParseResult<T> failure(ParseError error, String message) {
+        return new ParseResult<>(null, error, message);
+    }
+
+    public boolean isSuccess() {
+        return this.error == null;
+    }
+
+    /**
+     * Returns the parsed value.
+     *
+     * @return Parsed value, or null if the input has been rejected.
+     */
+    public T getValue() {
+        return this.value;
+    }
+
+    /**
+     * Returns the reason the input has been rejected.
+     *
+     * @return Error, or null if the input has been parsed successfully.
+     */
+    public ParseError getError() {
+        return this.error;
+    }
+
+    /**
+     * Returns the message telling the user why the input has been rejected.
+     *
+     * @return Error message, or null if the input has been parsed successfully.
+     */
+    public String getMessage() {
+        if (this.message != null) {
+            return this.message;
+        }
+        return this.error == null ? null : this.error.getMessage();
+    }
+}
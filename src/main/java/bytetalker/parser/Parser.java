@@ -8,18 +8,26 @@ import bytetalker.exception.EventUnsupportedFormatException;
 import bytetalker.ui.Ui;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 
 
 /**
  * Represents utility class for parsing user input into arrays.
+ * The validate methods report invalid input as a ParseResult, which is cheap enough to use for every command. The
+ * parse methods throw an exception instead, for callers that treat invalid input as exceptional.
  *
  * @author Junseo Kim
  * @version 0.1
  * @since 2024-01-28
  */
 public class Parser {
+    private static final String[] TODO_MARKERS = {};
+    private static final String[] TODO_UNSUPPORTED_WORDS = {"/by", "/from", "to"};
+    private static final String[] DEADLINE_MARKERS = {"/by"};
+    private static final String[] DEADLINE_UNSUPPORTED_WORDS = {"/from", "/to"};
+    private static final String[] EVENT_MARKERS = {"/from", "/to"};
+    private static final String[] EVENT_UNSUPPORTED_WORDS = {"/by"};
+    private static final int UPDATE_VALUE_POSITION = 3;
+
     /**
      * Separates user input by single space and store them in String array.
      *
@@ -36,35 +44,49 @@ public class Parser {
      * Creates an ArrayList<String> of length 1.
      * First element is content.
      *
-     * @param splitMessages Parsed messages of user input and processed by Parser.
+     * @param input User input.
      * @return ArrayList containing content of the task.
      * @throws TodoUnsupportedFormatException
      */
-    public static String[] parseTodoAddInput(String[] splitMessages)
+    public static String[] parseTodoAddInput(String input)
             throws TodoUnsupportedFormatException {
-        String tempMessage = "";
-        for (int i = 1; i < splitMessages.length; i++) {
-            determineSupportedTodoTask(splitMessages[i]);
-            tempMessage += splitMessages[i] + " ";
+        ParseResult<String[]> result = validateTodoAddInput(input);
+        if (!result.isSuccess()) {
+            throw new TodoUnsupportedFormatException();
         }
-        String[] messageContainer = new String[1];
-        messageContainer[0] = tempMessage.strip();
-        determineTodoTaskContent(messageContainer);
-        return messageContainer;
+        return result.getValue();
     }
 
-    private static void determineSupportedTodoTask(String message)
-            throws TodoUnsupportedFormatException {
-        if (message.equals("/by") || message.equals("/from") || message.equals("to")) {
-            throw new TodoUnsupportedFormatException();
+    /**
+     * Creates an array of length 1 containing the content of the todo, without throwing if the input is invalid.
+     *
+     * @param input User input.
+     * @return Array containing content of the task, or WRONG_FORMAT if the content is missing or the input contains
+     *     the fields of another type of task.
+     */
+    public static ParseResult<String[]> validateTodoAddInput(String input) {
+        String[] messageContainer = Tokenizer.splitFields(input, TODO_MARKERS, TODO_UNSUPPORTED_WORDS);
+        if (messageContainer == null || isEmpty(messageContainer[0])) {
+            return ParseResult.failure(ParseError.WRONG_FORMAT);
         }
+        return ParseResult.success(messageContainer);
     }
 
-    private static void determineTodoTaskContent(String[] parsedTodoInputs)
+    /**
+     * Creates an ArrayList<String> of length 1.
+     * First element is content.
+     *
+     * @param splitMessages Parsed messages of user input and processed by Parser.
+     * @return ArrayList containing content of the task.
+     * @throws TodoUnsupportedFormatException
+     */
+    public static String[] parseTodoAddInput(String[] splitMessages)
             throws TodoUnsupportedFormatException {
-        if (parsedTodoInputs[0] == null || parsedTodoInputs[0].isEmpty()) {
-            throw new TodoUnsupportedFormatException();
-        }
+        return parseTodoAddInput(String.join(" ", splitMessages));
+    }
+
+    private static boolean isEmpty(String field) {
+        return field == null || field.isEmpty();
     }
 
     /**
@@ -72,42 +94,47 @@ public class Parser {
      * First element is content of the task.
      * Second element is the deadline of the task.
      *
-     * @param splitMessages Parsed messages of user input and processed by Parser.
+     * @param input User input.
      * @return ArrayList containing content and deadline of the task.
      * @throws DeadlineUnsupportedFormatException
      */
-    public static String[] parseDeadlineAddInput(String[] splitMessages)
+    public static String[] parseDeadlineAddInput(String input)
             throws DeadlineUnsupportedFormatException {
-        String[] messageContainer = new String[2];
-        String tempMessage = "";
-        for (int i = 1; i < splitMessages.length; i++) {
-            determineSupportedDeadlineTask(splitMessages[i]);
-            boolean isContentFilled = splitMessages[i].equals("/by");
-            if (isContentFilled) {
-                messageContainer[0] = tempMessage.strip();
-                tempMessage = "";
-            } else {
-                tempMessage += splitMessages[i] + " ";
-            }
+        ParseResult<String[]> result = validateDeadlineAddInput(input);
+        if (!result.isSuccess()) {
+            throw new DeadlineUnsupportedFormatException();
         }
-        messageContainer[1] = tempMessage;
-        determineDeadlineTaskContent(messageContainer);
-        return messageContainer;
+        return result.getValue();
     }
 
-    private static void determineSupportedDeadlineTask(String message)
-            throws DeadlineUnsupportedFormatException {
-        if (message.equals("/from") || message.equals("/to")) {
-            throw new DeadlineUnsupportedFormatException();
+    /**
+     * Creates an array of length 2 containing the content and the deadline of the task, without throwing if the
+     * input is invalid.
+     *
+     * @param input User input.
+     * @return Array containing content and deadline of the task, or WRONG_FORMAT if a field is missing or the input
+     *     contains the fields of another type of task.
+     */
+    public static ParseResult<String[]> validateDeadlineAddInput(String input) {
+        String[] messageContainer = Tokenizer.splitFields(input, DEADLINE_MARKERS, DEADLINE_UNSUPPORTED_WORDS);
+        if (messageContainer == null || isEmpty(messageContainer[0]) || isEmpty(messageContainer[1])) {
+            return ParseResult.failure(ParseError.WRONG_FORMAT);
         }
+        return ParseResult.success(messageContainer);
     }
 
-    private static void determineDeadlineTaskContent(String[] parsedDeadlineInputs)
+    /**
+     * Creates an ArrayList<String> of length 2.
+     * First element is content of the task.
+     * Second element is the deadline of the task.
+     *
+     * @param splitMessages Parsed messages of user input and processed by Parser.
+     * @return ArrayList containing content and deadline of the task.
+     * @throws DeadlineUnsupportedFormatException
+     */
+    public static String[] parseDeadlineAddInput(String[] splitMessages)
             throws DeadlineUnsupportedFormatException {
-        if (parsedDeadlineInputs[0] == null || parsedDeadlineInputs[0].isEmpty()
-                || parsedDeadlineInputs[1] == null || parsedDeadlineInputs[1].isEmpty()) {
-            throw new DeadlineUnsupportedFormatException();
-        }
+        return parseDeadlineAddInput(String.join(" ", splitMessages));
     }
 
     /**
@@ -116,48 +143,49 @@ public class Parser {
      * Second element is the from of the task.
      * Third element is the to of the task.
      *
-     * @param splitMessages Parsed messages of user input and processed by Parser.
+     * @param input User input.
      * @return ArrayList containing content, from and to of the task.
      * @throws EventUnsupportedFormatException
      */
-    public static String[] parseEventAddInput(String[] splitMessages)
+    public static String[] parseEventAddInput(String input)
             throws EventUnsupportedFormatException {
-        String[] messageContainer = new String[3];
-        String tempMessage = "";
-        for (int i = 1; i < splitMessages.length; i++) {
-            determineSupportedEventTask(splitMessages[i]);
-            boolean isContentFilled = splitMessages[i].equals("/from");
-            boolean isFromFilled = splitMessages[i].equals("/to");
-            if (isContentFilled) {
-                messageContainer[0] = tempMessage.strip();
-                tempMessage = "";
-            } else if (isFromFilled) {
-                messageContainer[1] = tempMessage.strip();
-                tempMessage = "";
-            } else {
-                tempMessage += splitMessages[i] + " ";
-            }
+        ParseResult<String[]> result = validateEventAddInput(input);
+        if (!result.isSuccess()) {
+            throw new EventUnsupportedFormatException();
         }
-        messageContainer[2] = tempMessage.strip();
-        System.out.println(messageContainer);
-        determineEventTaskContentAndTime(messageContainer);
-        return messageContainer;
+        return result.getValue();
     }
 
-    private static void determineSupportedEventTask(String message)
-            throws EventUnsupportedFormatException {
-        if (message.equals("/by")) {
-            throw new EventUnsupportedFormatException();
+    /**
+     * Creates an array of length 3 containing the content, the from and the to of the event, without throwing if
+     * the input is invalid.
+     *
+     * @param input User input.
+     * @return Array containing content, from and to of the task, or WRONG_FORMAT if a field is missing or the input
+     *     contains the fields of another type of task.
+     */
+    public static ParseResult<String[]> validateEventAddInput(String input) {
+        String[] messageContainer = Tokenizer.splitFields(input, EVENT_MARKERS, EVENT_UNSUPPORTED_WORDS);
+        if (messageContainer == null || isEmpty(messageContainer[0]) || isEmpty(messageContainer[1])
+                || isEmpty(messageContainer[2])) {
+            return ParseResult.failure(ParseError.WRONG_FORMAT);
         }
+        return ParseResult.success(messageContainer);
     }
 
-    private static void determineEventTaskContentAndTime(String[] parsedEventInputs)
+    /**
+     * Creates an ArrayList<String> of length 3.
+     * First element is content of the task.
+     * Second element is the from of the task.
+     * Third element is the to of the task.
+     *
+     * @param splitMessages Parsed messages of user input and processed by Parser.
+     * @return ArrayList containing content, from and to of the task.
+     * @throws EventUnsupportedFormatException
+     */
+    public static String[] parseEventAddInput(String[] splitMessages)
             throws EventUnsupportedFormatException {
-        if (parsedEventInputs[0] == null || parsedEventInputs[0].isEmpty()
-                || parsedEventInputs[1] == null || parsedEventInputs[1].isEmpty()
-                || parsedEventInputs[2] == null || parsedEventInputs[2].isEmpty()) {
-            throw new EventUnsupportedFormatException();
-        }
+        return parseEventAddInput(String.join(" ", splitMessages));
     }
 
     /**
@@ -165,35 +193,24 @@ public class Parser {
      * Allows two different forms of input: yyyy-M-d Hmm and d/M/yyyy Hmm.
      *
      * @param dateTimeString User date time string input.
-     * @return LocalDateTime object based on input by user.
+     * @return LocalDateTime object based on input by user, or null if the input cannot be parsed.
      */
     public static LocalDateTime parseDateTime(String dateTimeString) {
-        String cleanDateTimeString = dateTimeString.strip();
-        boolean isTimeExist = cleanDateTimeString.split(" ").length > 1;
-        boolean isInputFirstFormat = dateTimeString.split("-").length > 1;
-
-        if (!isTimeExist) {
-            cleanDateTimeString += " 2359";
-        }
-
-        DateTimeFormatter inputFormatter = determineDateInputFormat(isInputFirstFormat);
-
-        LocalDateTime dateTime = null;
-        try {
-            dateTime = LocalDateTime.parse(cleanDateTimeString, inputFormatter);
-            return dateTime;
-        } catch (DateTimeParseException e) {
-            Ui.showDateTimeParseErrorMsg(e);
-            return dateTime;
+        LocalDateTime dateTime = DateTimeParser.parse(dateTimeString);
+        if (dateTime == null) {
+            Ui.showDateTimeParseErrorMsg(dateTimeString);
         }
+        return dateTime;
     }
 
-    private static DateTimeFormatter determineDateInputFormat(boolean isInputFirstFormat) {
-        if (isInputFirstFormat) {
-            return DateTimeFormatter.ofPattern("yyyy-M-d Hmm");
-        } else {
-            return DateTimeFormatter.ofPattern("d/M/yyyy Hmm");
-        }
+    /**
+     * Extracts new value to replace from user input.
+     *
+     * @param input User input.
+     * @return New value to replace.
+     */
+    public static String parseContentUpdateInput(String input) {
+        return Tokenizer.afterWords(input, UPDATE_VALUE_POSITION);
     }
 
     /**
@@ -203,11 +220,17 @@ public class Parser {
      * @return New value to replace.
      */
     public static String parseContentUpdateInput(String[] splitMessages) {
-        String content = "";
-        for (int i = 3; i < splitMessages.length; i++) {
-            content += splitMessages[i] + " ";
-        }
-        return content.strip();
+        return parseContentUpdateInput(String.join(" ", splitMessages));
+    }
+
+    /**
+     * Extracts new date time value to replace from user input.
+     *
+     * @param input User input.
+     * @return New LocalDateTime object based on user input.
+     */
+    public static LocalDateTime parseDateTimeUpdateInput(String input) {
+        return parseDateTime(Tokenizer.afterWords(input, UPDATE_VALUE_POSITION));
     }
 
     /**
@@ -217,11 +240,31 @@ public class Parser {
      * @return New LocalDateTime object based on user input.
      */
     public static LocalDateTime parseDateTimeUpdateInput(String[] splitMessages) {
-        String time = "";
-        for (int i = 3; i < splitMessages.length; i++) {
-            time += splitMessages[i] + " ";
-        }
-        return parseDateTime(time.strip());
+        return parseDateTimeUpdateInput(String.join(" ", splitMessages));
+    }
+
+    /**
+     * Extracts new date time value to replace from user input, without returning null if it cannot be parsed.
+     *
+     * @param input User input.
+     * @return New date and time, or UNSUPPORTED_DATE_TIME if the value is missing or cannot be parsed.
+     */
+    public static ParseResult<LocalDateTime> validateDateTimeUpdateInput(String input) {
+        String value = Tokenizer.afterWords(input, UPDATE_VALUE_POSITION);
+        LocalDateTime dateTime = value.isEmpty() ? null : parseDateTime(value);
+        return dateTime == null
+                ? ParseResult.failure(ParseError.UNSUPPORTED_DATE_TIME)
+                : ParseResult.success(dateTime);
+    }
+
+    /**
+     * Extracts words of contents that user wants to find.
+     *
+     * @param input User input.
+     * @return Words of contents that user wants to find.
+     */
+    public static String parseFindInput(String input) {
+        return Tokenizer.afterWords(input, 1);
     }
 
     /**
@@ -231,17 +274,177 @@ public class Parser {
      * @return Words of contents that user wants to find.
      */
     public static String parseFindInput(String[] splitMessages) {
-        String temp = "";
+        return parseFindInput(String.join(" ", splitMessages));
+    }
+
+    /**
+     * Extracts the page to list from user input of the form "list [page] [--page-size size]".
+     *
+     * @param splitMessages Parsed messages of user input and processed by Parser.
+     * @param defaultPageSize Page size used when --page-size is not given.
+     * @return Array of length 2 containing the page, starting from 1, and the page size.
+     * @throws CommandWrongFormatExcpetion If the page or the page size is not a positive number.
+     */
+    public static int[] parseListInput(String[] splitMessages, int defaultPageSize)
+            throws CommandWrongFormatExcpetion {
+        return valueOrThrow(validateListInput(splitMessages, defaultPageSize));
+    }
+
+    /**
+     * Extracts the page to list from user input of the form "list [page] [--page-size size]", without throwing if
+     * the input is invalid.
+     *
+     * @param splitMessages Parsed messages of user input and processed by Parser.
+     * @param defaultPageSize Page size used when --page-size is not given.
+     * @return Array of length 2 containing the page, starting from 1, and the page size, or WRONG_LIST_FORMAT if
+     *     the page or the page size is not a positive number.
+     */
+    public static ParseResult<int[]> validateListInput(String[] splitMessages, int defaultPageSize) {
+        int[] pageAndPageSize = {1, defaultPageSize};
+        for (int i = 1; i < splitMessages.length; i++) {
+            int field;
+            ParseResult<Long> number;
+            if (splitMessages[i].equals("--page-size") && i + 1 < splitMessages.length) {
+                field = 1;
+                number = parseNumber(splitMessages[++i], Integer.MAX_VALUE);
+            } else if (!splitMessages[i].isEmpty()) {
+                field = 0;
+                number = parseNumber(splitMessages[i], Integer.MAX_VALUE);
+            } else {
+                continue;
+            }
+            if (!number.isSuccess()) {
+                return ParseResult.failure(ParseError.WRONG_LIST_FORMAT);
+            }
+            pageAndPageSize[field] = number.getValue().intValue();
+        }
+        if (pageAndPageSize[0] < 1 || pageAndPageSize[1] < 1) {
+            return ParseResult.failure(ParseError.WRONG_LIST_FORMAT);
+        }
+        return ParseResult.success(pageAndPageSize);
+    }
+
+    /**
+     * Extracts the period to query from user input.
+     * The period is given either as /from {date and time} /to {date and time} or as /on {date}, which covers the
+     * whole day.
+     *
+     * @param splitMessages Parsed messages of user input and processed by Parser.
+     * @return Array of length 2 containing the start and the end of the period.
+     * @throws CommandWrongFormatExcpetion If the period is missing or cannot be parsed.
+     */
+    public static LocalDateTime[] parseQueryInput(String[] splitMessages) throws CommandWrongFormatExcpetion {
+        return valueOrThrow(validateQueryInput(splitMessages));
+    }
+
+    /**
+     * Extracts the period to query from user input, without throwing if the input is invalid.
+     *
+     * @param splitMessages Parsed messages of user input and processed by Parser.
+     * @return Array of length 2 containing the start and the end of the period, or WRONG_QUERY_FORMAT if the period
+     *     is missing, cannot be parsed or ends before it starts.
+     */
+    public static ParseResult<LocalDateTime[]> validateQueryInput(String[] splitMessages) {
+        String[] messageContainer = new String[3];
+        int field = -1;
+        StringBuilder tempMessage = new StringBuilder();
         for (int i = 1; i < splitMessages.length; i++) {
-            temp += splitMessages[i] + " ";
+            int nextField = splitMessages[i].equals("/from") ? 0
+                    : splitMessages[i].equals("/to") ? 1
+                    : splitMessages[i].equals("/on") ? 2
+                    : -1;
+            if (nextField >= 0) {
+                if (field >= 0) {
+                    messageContainer[field] = tempMessage.toString().strip();
+                }
+                field = nextField;
+                tempMessage.setLength(0);
+            } else {
+                tempMessage.append(splitMessages[i]).append(' ');
+            }
+        }
+        if (field >= 0) {
+            messageContainer[field] = tempMessage.toString().strip();
+        }
+
+        LocalDateTime[] period = new LocalDateTime[2];
+        if (messageContainer[2] != null && messageContainer[0] == null && messageContainer[1] == null) {
+            LocalDateTime day = messageContainer[2].isEmpty() ? null : parseDateTime(messageContainer[2]);
+            if (day != null) {
+                period[0] = day.toLocalDate().atStartOfDay();
+                period[1] = day.toLocalDate().atTime(23, 59);
+            }
+        } else if (messageContainer[0] != null && messageContainer[1] != null && messageContainer[2] == null
+                && !messageContainer[0].isEmpty() && !messageContainer[1].isEmpty()) {
+            period[0] = parseDateTime(messageContainer[0]);
+            period[1] = parseDateTime(messageContainer[1]);
+        }
+        if (period[0] == null || period[1] == null || period[0].isAfter(period[1])) {
+            return ParseResult.failure(ParseError.WRONG_QUERY_FORMAT);
+        }
+        return ParseResult.success(period);
+    }
+
+    /**
+     * Checks that the user input has at least one word after the command.
+     *
+     * @param input User input.
+     * @throws CommandWrongFormatExcpetion If the input only has the command.
+     */
+    public static void checkCommand(String input) throws CommandWrongFormatExcpetion {
+        if (!hasArguments(input)) {
+            throw new CommandWrongFormatExcpetion(ParseError.WRONG_FORMAT.getMessage());
         }
-        return temp.strip();
     }
 
     public static void checkCommand(String[] splitMessages) throws CommandWrongFormatExcpetion {
-        if (splitMessages.length <= 1) {
-            throw new CommandWrongFormatExcpetion(
-                    "Wrong command format. Please follow the correct format.");
+        if (!hasArguments(splitMessages)) {
+            throw new CommandWrongFormatExcpetion(ParseError.WRONG_FORMAT.getMessage());
+        }
+    }
+
+    /**
+     * Returns whether the user input has at least one word after the command.
+     *
+     * @param input User input.
+     * @return False if the input only has the command.
+     */
+    public static boolean hasArguments(String input) {
+        return Tokenizer.word(input, 1) != null;
+    }
+
+    public static boolean hasArguments(String[] splitMessages) {
+        return splitMessages.length > 1;
+    }
+
+    /**
+     * Reads a whole number, optionally preceded by a sign, without throwing if the text is not a number.
+     *
+     * @param text Text entered by the user.
+     * @param maxValue Largest value accepted, in either direction.
+     * @return Number, or NOT_A_NUMBER if the text is not a number or its value exceeds the largest value.
+     */
+    public static ParseResult<Long> parseNumber(String text, long maxValue) {
+        int length = text.length();
+        int start = length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+') ? 1 : 0;
+        if (start == length) {
+            return ParseResult.failure(ParseError.NOT_A_NUMBER);
+        }
+        long value = 0;
+        for (int i = start; i < length; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value > (maxValue - digit) / 10) {
+                return ParseResult.failure(ParseError.NOT_A_NUMBER);
+            }
+            value = value * 10 + digit;
+        }
+        return ParseResult.success(text.charAt(0) == '-' ? -value : value);
+    }
+
+    private static <T> T valueOrThrow(ParseResult<T> result) throws CommandWrongFormatExcpetion {
+        if (!result.isSuccess()) {
+            throw new CommandWrongFormatExcpetion(result.getMessage());
         }
+        return result.getValue();
     }
 }
@@ -0,0 +1,105 @@
+package bytetalker.parser;
+
+/**
+ * Represents utility class for reading words and fields directly from the raw user input.
+ * Words are separated by single spaces, exactly as Parser.parse splits them, but they are located by scanning the
+ * input once and returned as substrings of it, so long inputs are not split and joined back together. Runs of
+ * spaces inside a field are kept as they were entered.
+ */
+public class Tokenizer {
+    private static final char WORD_SEPARATOR = ' ';
+
+    private Tokenizer() {
+    }
+
+    /**
+     * Returns a word of the user input.
+     *
+     * @param input User input.
+     * @param index Position of the word, starting from 0 for the command.
+     * @return Word at the position, or null if the input has fewer words.
+     */
+    public static String word(String input, int index) {
+        String text = input.strip();
+        int start = skipWords(text, index);
+        if (start > text.length()) {
+            return null;
+        }
+        int end = text.indexOf(WORD_SEPARATOR, start);
+        return text.substring(start, end < 0 ? text.length() : end);
+    }
+
+    /**
+     * Returns the part of the user input following the first words, without surrounding whitespace.
+     *
+     * @param input User input.
+     * @param count Number of words to skip, including the command.
+     * @return Rest of the input, or an empty string if the input has no more words.
+     */
+    public static String afterWords(String input, int count) {
+        String text = input.strip();
+        int start = skipWords(text, count);
+        return start >= text.length() ? "" : text.substring(start).strip();
+    }
+
+    /**
+     * Splits the arguments of the user input into the fields introduced by the marker words.
+     * The field before the n-th marker is stored at position n and the text after the last marker is stored at the
+     * last position, so "deadline read book /by 5/2/2019" split on /by gives "read book" and "5/2/2019". When a
+     * marker appears more than once, the field before its last appearance is kept.
+     *
+     * @param input User input.
+     * @param markers Words introducing the fields.
+     * @param unsupportedWords Words that may not appear in the arguments.
+     * @return Fields of the input without surrounding whitespace, with null for markers that do not appear, or
+     *     null if an unsupported word appears.
+     */
+    static String[] splitFields(String input, String[] markers, String[] unsupportedWords) {
+        String text = input.strip();
+        String[] fields = new String[markers.length + 1];
+        int segmentStart = skipWords(text, 1);
+        int wordStart = segmentStart;
+        while (wordStart <= text.length()) {
+            int wordEnd = text.indexOf(WORD_SEPARATOR, wordStart);
+            if (wordEnd < 0) {
+                wordEnd = text.length();
+            }
+            if (indexOfWord(text, wordStart, wordEnd, unsupportedWords) >= 0) {
+                return null;
+            }
+            int marker = indexOfWord(text, wordStart, wordEnd, markers);
+            if (marker >= 0) {
+                fields[marker] = text.substring(segmentStart, wordStart).strip();
+                segmentStart = wordEnd + 1;
+            }
+            wordStart = wordEnd + 1;
+        }
+        fields[markers.length] = segmentStart >= text.length() ? "" : text.substring(segmentStart).strip();
+        return fields;
+    }
+
+    /**
+     * Returns the offset of the word following the first words, which is past the end of the text if the text has
+     * no more words.
+     */
+    private static int skipWords(String text, int count) {
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int separator = text.indexOf(WORD_SEPARATOR, start);
+            if (separator < 0) {
+                return text.length() + 1;
+            }
+            start = separator + 1;
+        }
+        return start;
+    }
+
+    private static int indexOfWord(String text, int start, int end, String[] words) {
+        for (int i = 0; i < words.length; i++) {
+            if (words[i].length() == end - start && text.startsWith(words[i], start)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,185 @@
+package bytetalker.server;
+
+import bytetalker.CommandProcessor;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves the commands of ByteTalker over a local TCP or Unix domain socket, without any user interface.
+ * Clients send one command per line. Each reply is sent as its lines followed by a line holding a single dot, and
+ * reply lines starting with a dot get an extra dot in front, as in SMTP. Every connection is handled by its own
+ * thread. The commands changing the list are executed one at a time on the command executor, so the list is never
+ * changed by two commands at once, while list, find and query are answered on the connection's own thread from the
+ * latest published copy of the list, without waiting for the commands queued on the executor or for the command
+ * being executed. Sending bye closes the connection. The run command is not served, so clients cannot read the files
+ * the server can read.
+ */
+public class CommandServer implements Closeable {
+    public static final String END_OF_REPLY = ".";
+
+    private static final String EXIT_COMMAND = "bye";
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final CommandProcessor commandProcessor;
+    private final ScheduledExecutorService commandExecutor;
+    private final ServerSocketChannel serverChannel;
+    private final Path socketPath;
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final ExecutorService connectionExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "bytetalker-connection-" + connectionCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates a server listening on the address. The run command of the command processor is disabled.
+     *
+     * @param commandProcessor Command processor executing the commands, created with the command executor as its
+     *     writer lane.
+     * @param commandExecutor Single thread executor executing every command changing the list, also used by the
+     *     storage in write-behind mode.
+     * @param address Local TCP address, or Unix domain socket address, to listen on.
+     * @throws IOException If the address cannot be bound.
+     */
+    public CommandServer(CommandProcessor commandProcessor, ScheduledExecutorService commandExecutor,
+            SocketAddress address) throws IOException {
+        this.commandProcessor = commandProcessor;
+        this.commandProcessor.setScriptEnabled(false);
+        this.commandExecutor = commandExecutor;
+        if (address instanceof UnixDomainSocketAddress) {
+            this.socketPath = ((UnixDomainSocketAddress) address).getPath();
+            Files.deleteIfExists(socketPath);
+            this.serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        } else {
+            this.socketPath = null;
+            this.serverChannel = ServerSocketChannel.open();
+        }
+        this.serverChannel.bind(address);
+    }
+
+    /**
+     * Returns the address the server is listening on, which tells the port chosen when port 0 was asked for.
+     *
+     * @return Local address of the server.
+     * @throws IOException If the server has been closed.
+     */
+    public SocketAddress getLocalAddress() throws IOException {
+        return serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Accepts connections until the server is closed.
+     *
+     * @throws IOException If accepting a connection fails for another reason than the server being closed.
+     */
+    public void serve() throws IOException {
+        while (serverChannel.isOpen()) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            }
+            connectionExecutor.execute(() -> handleConnection(channel));
+        }
+    }
+
+    private void handleConnection(SocketChannel channel) {
+        try (channel;
+                BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+                BufferedWriter writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8))) {
+            String input;
+            while ((input = reader.readLine()) != null) {
+                writeReply(writer, execute(input));
+                if (input.equals(EXIT_COMMAND)) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // The client has gone away; its commands have already been executed.
+        }
+    }
+
+    private String execute(String input) {
+        try {
+            return commandProcessor.execute(input);
+        } catch (RejectedExecutionException e) {
+            return "The server is shutting down.";
+        } catch (RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                return "The server is shutting down.";
+            }
+            return "Something went wrong while executing the command: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Writes a reply followed by the end of reply line, adding a dot in front of the lines starting with a dot.
+     */
+    static void writeReply(Writer writer, String reply) throws IOException {
+        int start = 0;
+        while (start <= reply.length()) {
+            int end = reply.indexOf('\n', start);
+            if (end < 0) {
+                end = reply.length();
+            }
+            if (reply.startsWith(END_OF_REPLY, start)) {
+                writer.write(END_OF_REPLY);
+            }
+            writer.write(reply, start, end - start);
+            writer.write('\n');
+            start = end + 1;
+        }
+        writer.write(END_OF_REPLY);
+        writer.write('\n');
+        writer.flush();
+    }
+
+    /**
+     * Stops accepting connections, lets the commands already submitted finish and writes the changes still
+     * waiting in write-behind mode.
+     *
+     * @throws IOException If the socket cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        connectionExecutor.shutdownNow();
+        try {
+            commandProcessor.flush();
+        } catch (IOException e) {
+            System.out.println("Failed to save the task list before exiting");
+        } catch (RejectedExecutionException e) {
+            // The executor has already been shut down, so there is nothing left to flush.
+        }
+        commandExecutor.shutdown();
+        try {
+            commandExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (socketPath != null) {
+            Files.deleteIfExists(socketPath);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package bytetalker.storage;
+
+import bytetalker.task.Deadline;
+import bytetalker.task.Event;
+import bytetalker.task.Task;
+import bytetalker.task.TaskType;
+import bytetalker.task.Todo;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes the list of tasks in the binary format.
+ * The file starts with a magic number, a version byte and the number of tasks. Each task is then stored as its
+ * type icon byte, a done byte, its id as a long, one or two date times as minutes since the epoch for deadlines and
+ * events, and its content as length-prefixed UTF-8. Files of version 1, which have no ids, can still be read.
+ */
+class BinaryTaskCodec {
+    private static final int MAGIC = 0x4254414B;
+    private static final byte VERSION = 2;
+    private static final byte VERSION_WITHOUT_IDS = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final byte TODO = (byte) TaskType.TODO.getIcon().charAt(0);
+    private static final byte DEADLINE = (byte) TaskType.DEADLINE.getIcon().charAt(0);
+    private static final byte EVENT = (byte) TaskType.EVENT.getIcon().charAt(0);
+
+    private BinaryTaskCodec() {
+    }
+
+    /**
+     * Writes the list of tasks into the file in binary format.
+     *
+     * @param filePath File to be written.
+     * @param tasks List of tasks to be written.
+     * @throws IOException If the file cannot be written.
+     */
+    static void write(Path filePath, List<Task> tasks) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(filePath), BUFFER_SIZE))) {
+            output.writeInt(MAGIC);
+            output.writeByte(VERSION);
+            output.writeInt(tasks.size());
+            for (Task task : tasks) {
+                writeTask(output, task);
+            }
+        }
+    }
+
+    private static void writeTask(DataOutputStream output, Task task) throws IOException {
+        TaskType taskType = task.getTaskType();
+        output.writeByte(taskType.getIcon().charAt(0));
+        output.writeBoolean(task.getStatus());
+        output.writeLong(task.getId());
+        if (taskType == TaskType.DEADLINE) {
+            output.writeLong(toEpochMinute(((Deadline) task).getDeadline()));
+        } else if (taskType == TaskType.EVENT) {
+            output.writeLong(toEpochMinute(((Event) task).getFrom()));
+            output.writeLong(toEpochMinute(((Event) task).getTo()));
+        }
+        byte[] content = task.getTask().getBytes(StandardCharsets.UTF_8);
+        output.writeInt(content.length);
+        output.write(content);
+    }
+
+    /**
+     * Reads the list of tasks from a file in binary format.
+     * An empty file is read as an empty list.
+     *
+     * @param filePath File to be read.
+     * @return List of tasks stored in the file.
+     * @throws IOException If the file cannot be read or is not in a supported binary format.
+     */
+    static ArrayList<Task> read(Path filePath) throws IOException {
+        if (Files.size(filePath) == 0) {
+            return new ArrayList<>();
+        }
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(filePath), BUFFER_SIZE))) {
+            if (input.readInt() != MAGIC) {
+                throw new IOException("Not a ByteTalker binary file");
+            }
+            byte version = input.readByte();
+            if (version != VERSION && version != VERSION_WITHOUT_IDS) {
+                throw new IOException("Unsupported binary format version " + version);
+            }
+            int numberOfTasks = input.readInt();
+            ArrayList<Task> tasks = new ArrayList<>(numberOfTasks);
+            byte[] content = new byte[256];
+            for (int i = 0; i < numberOfTasks; i++) {
+                byte icon = input.readByte();
+                boolean isDone = input.readBoolean();
+                long id = version == VERSION_WITHOUT_IDS ? 0 : input.readLong();
+                LocalDateTime first = icon == TODO ? null : toLocalDateTime(input.readLong());
+                LocalDateTime second = icon == EVENT ? toLocalDateTime(input.readLong()) : null;
+                int length = input.readInt();
+                if (content.length < length) {
+                    content = new byte[Math.max(length, content.length * 2)];
+                }
+                input.readFully(content, 0, length);
+                String text = new String(content, 0, length, StandardCharsets.UTF_8);
+                Task task = createTask(icon, text, first, second, isDone);
+                task.setId(id);
+                tasks.add(task);
+            }
+            return tasks;
+        }
+    }
+
+    private static Task createTask(byte icon, String content, LocalDateTime first, LocalDateTime second,
+            boolean isDone) throws IOException {
+        if (icon == TODO) {
+            return new Todo(content, isDone);
+        } else if (icon == DEADLINE) {
+            return new Deadline(content, first, isDone);
+        } else if (icon == EVENT) {
+            return new Event(content, first, second, isDone);
+        }
+        throw new IOException("Unknown task type " + (char) icon);
+    }
+
+    private static long toEpochMinute(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,16 @@
+package bytetalker.storage;
+
+/**
+ * Represents how hard Storage tries to make sure a written list survives a crash of the machine.
+ * Every level writes the list into a temporary file and renames it over the data file, so the data file is never
+ * left half written. The levels differ in what is forced onto the disk before the write counts as done.
+ * Records appended to the journal are forced the same way as the temporary file.
+ */
+public enum Durability {
+    /** Leaves flushing to the operating system. Fastest, but the last writes may be lost on power failure. */
+    NONE,
+    /** Forces the temporary file onto the disk before it is renamed. */
+    FILE,
+    /** Forces the temporary file, and the directory after the rename or after creating the journal, onto the disk. */
+    FILE_AND_DIRECTORY
+}
@@ -0,0 +1,250 @@
+package bytetalker.storage;
+
+import bytetalker.parser.Parser;
+import bytetalker.task.Deadline;
+import bytetalker.task.Event;
+import bytetalker.task.Task;
+import bytetalker.task.Todo;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+
+/**
+ * Loads the data file written by Storage by memory-mapping it and scanning the bytes directly.
+ * Lines are never turned into Strings as a whole: the separators are located on the mapped buffer, only the
+ * content of each task is decoded, and the stored d/M/yyyy Hmm date times are parsed digit by digit.
+ */
+class MappedTaskLoader {
+    private static final long MAX_WINDOW_SIZE = 1L << 30;
+    private static final int PREFIX_LENGTH = 8;
+    private static final int MAX_ID_DIGITS = 18;
+    private static final int INVALID = -1;
+
+    private MappedByteBuffer buffer;
+    private byte[] contentBytes = new byte[256];
+
+    /**
+     * Loads every task stored in the file.
+     * Files larger than the size of a single mapping are mapped window by window, where each window ends at the
+     * last complete line inside it.
+     *
+     * @param filePath Path of the data file.
+     * @return List of tasks stored in the file.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    ArrayList<Task> load(Path filePath) throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long windowStart = 0;
+            while (windowStart < fileSize) {
+                long windowSize = Math.min(MAX_WINDOW_SIZE, fileSize - windowStart);
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+                boolean isLastWindow = windowStart + windowSize == fileSize;
+                int consumed = loadLines(tasks, (int) windowSize, isLastWindow);
+                if (consumed == 0) {
+                    throw new IOException("Line longer than " + MAX_WINDOW_SIZE + " bytes");
+                }
+                windowStart += consumed;
+            }
+        } finally {
+            buffer = null;
+        }
+        return tasks;
+    }
+
+    /**
+     * Loads the lines of the current window.
+     *
+     * @return Number of bytes consumed, which excludes a trailing partial line unless it is the end of the file.
+     */
+    private int loadLines(ArrayList<Task> tasks, int limit, boolean isLastWindow) {
+        int lineStart = 0;
+        for (int i = 0; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                loadLine(tasks, lineStart, i);
+                lineStart = i + 1;
+            }
+        }
+        if (isLastWindow && lineStart < limit) {
+            loadLine(tasks, lineStart, limit);
+            lineStart = limit;
+        }
+        return lineStart;
+    }
+
+    private void loadLine(ArrayList<Task> tasks, int start, int end) {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        if (end == start) {
+            return;
+        }
+        Task task = changeBytesToTask(start, end);
+        if (task == null) {
+            task = Storage.changeStringToTask(decode(start, end));
+        }
+        tasks.add(task);
+    }
+
+    /**
+     * Converts a line of the form "[id / ]icon / done / content[ / date time[ / date time]]" into a task.
+     * The id is missing from lines saved before ids existed.
+     *
+     * @return Task of the line, or null if the line does not have the expected shape.
+     */
+    private Task changeBytesToTask(int start, int end) {
+        if (!isDigit(buffer.get(start))) {
+            return changeFieldsToTask(start, end);
+        }
+        int idEnd = scanDigits(start, end, 1, MAX_ID_DIGITS);
+        if (idEnd == INVALID || idEnd + 3 > end || !isSeparator(idEnd)) {
+            return null;
+        }
+        Task task = changeFieldsToTask(idEnd + 3, end);
+        if (task != null) {
+            task.setId(readLong(start, idEnd));
+        }
+        return task;
+    }
+
+    /**
+     * Converts the fields after the id, "icon / done / content[ / date time[ / date time]]", into a task.
+     * The content may contain " / " itself, so the date times are located from the end of the line.
+     *
+     * @return Task of the fields, or null if they do not have the expected shape.
+     */
+    private Task changeFieldsToTask(int start, int end) {
+        if (end - start < PREFIX_LENGTH || !isSeparator(start + 1) || !isSeparator(start + 5)) {
+            return null;
+        }
+        byte icon = buffer.get(start);
+        boolean isDone = buffer.get(start + 4) == '1';
+        int contentStart = start + PREFIX_LENGTH;
+        if (icon == 'T') {
+            return new Todo(decode(contentStart, end), isDone);
+        }
+        int lastSeparator = findLastSeparator(contentStart, end);
+        if (lastSeparator == INVALID) {
+            return null;
+        }
+        LocalDateTime last = parseDateTime(lastSeparator + 3, end);
+        if (icon == 'D') {
+            return new Deadline(decode(contentStart, lastSeparator), last, isDone);
+        } else if (icon != 'E') {
+            return null;
+        }
+        int fromSeparator = findLastSeparator(contentStart, lastSeparator);
+        if (fromSeparator == INVALID) {
+            return null;
+        }
+        LocalDateTime from = parseDateTime(fromSeparator + 3, lastSeparator);
+        return new Event(decode(contentStart, fromSeparator), from, last, isDone);
+    }
+
+    private boolean isSeparator(int index) {
+        return buffer.get(index) == ' ' && buffer.get(index + 1) == '/' && buffer.get(index + 2) == ' ';
+    }
+
+    private int findLastSeparator(int start, int end) {
+        for (int i = end - 3; i >= start; i--) {
+            if (isSeparator(i)) {
+                return i;
+            }
+        }
+        return INVALID;
+    }
+
+    /**
+     * Parses a date time stored in d/M/yyyy Hmm format without creating any intermediate String.
+     * Days beyond the end of the month are clamped to the last day, as the formatter used by Parser does.
+     * Anything that does not match the stored format is handed over to Parser.parseDateTime.
+     */
+    private LocalDateTime parseDateTime(int start, int end) {
+        int index = start;
+        int dayEnd = scanDigits(index, end, 1, 2);
+        if (dayEnd == INVALID || dayEnd >= end || buffer.get(dayEnd) != '/') {
+            return parseDateTimeSlowly(start, end);
+        }
+        int day = readNumber(index, dayEnd);
+        index = dayEnd + 1;
+        int monthEnd = scanDigits(index, end, 1, 2);
+        if (monthEnd == INVALID || monthEnd >= end || buffer.get(monthEnd) != '/') {
+            return parseDateTimeSlowly(start, end);
+        }
+        int month = readNumber(index, monthEnd);
+        index = monthEnd + 1;
+        int yearEnd = scanDigits(index, end, 4, 4);
+        if (yearEnd == INVALID || yearEnd >= end || buffer.get(yearEnd) != ' ') {
+            return parseDateTimeSlowly(start, end);
+        }
+        int year = readNumber(index, yearEnd);
+        index = yearEnd + 1;
+        int timeEnd = scanDigits(index, end, 3, 4);
+        if (timeEnd != end) {
+            return parseDateTimeSlowly(start, end);
+        }
+        int time = readNumber(index, timeEnd);
+        int hour = time / 100;
+        int minute = time % 100;
+        if (month < 1 || month > 12 || day < 1 || day > 31 || hour > 23 || minute > 59) {
+            return parseDateTimeSlowly(start, end);
+        }
+        int lastDayOfMonth = YearMonth.of(year, month).lengthOfMonth();
+        return LocalDateTime.of(year, month, Math.min(day, lastDayOfMonth), hour, minute);
+    }
+
+    private LocalDateTime parseDateTimeSlowly(int start, int end) {
+        return Parser.parseDateTime(decode(start, end));
+    }
+
+    /**
+     * Returns the index right after a run of minDigits to maxDigits digits starting at start.
+     */
+    private int scanDigits(int start, int end, int minDigits, int maxDigits) {
+        int index = start;
+        while (index < end && index - start < maxDigits && isDigit(buffer.get(index))) {
+            index++;
+        }
+        if (index - start < minDigits || (index < end && isDigit(buffer.get(index)))) {
+            return INVALID;
+        }
+        return index;
+    }
+
+    private boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private int readNumber(int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (buffer.get(i) - '0');
+        }
+        return value;
+    }
+
+    private long readLong(int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (buffer.get(i) - '0');
+        }
+        return value;
+    }
+
+    private String decode(int start, int end) {
+        int length = end - start;
+        if (contentBytes.length < length) {
+            contentBytes = new byte[Math.max(length, contentBytes.length * 2)];
+        }
+        buffer.get(start, contentBytes, 0, length);
+        return new String(contentBytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -2,21 +2,33 @@ package bytetalker.storage;
 
 import bytetalker.parser.Parser;
 import bytetalker.task.Task;
+import bytetalker.task.TaskList;
 import bytetalker.task.Todo;
 import bytetalker.task.Deadline;
 import bytetalker.task.Event;
 import bytetalker.task.TaskType;
+import bytetalker.task.ContentDictionary;
 
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
-import java.io.File;
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.FileNotFoundException;
 
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * Represents utility class for storing and loading information from a file on the hard disk.
@@ -26,10 +38,213 @@ import java.util.Scanner;
  * @since 2024-01-28
  */
 public class Storage {
-    private static Path filePath;
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final String COMPACTION_SUFFIX = ".compacted";
+    private static final String ADD_RECORD = "+";
+    private static final String SET_RECORD = "=";
+    private static final String DELETE_RECORD = "-";
+    private static final int MIN_JOURNAL_RECORDS_BEFORE_COMPACTION = 1000;
+    private static final int COMPACTION_FAILURES_BEFORE_REPORT = 3;
+    private static final int TAIL_BUFFER_SIZE = 4096;
+
+    private static final DateTimeFormatter STORED_DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("d/M/yyyy Hmm");
+
+    private final Path textFilePath;
+    private Path filePath;
+    private Path journalPath;
+    private Path temporaryPath;
+    private Path compactionPath;
+    private Durability durability = Durability.NONE;
+    private StorageFormat format = StorageFormat.TEXT;
+    private boolean isJournalEnabled = false;
+    private int journalRecordCount = 0;
+    private List<Task> latestTasks = List.of();
+    private Executor compactionExecutor;
+    private boolean isCompactionPending = false;
+    private int compactionFailureCount = 0;
+    private final AtomicReference<IOException> unreportedCompactionFailure = new AtomicReference<>();
+    private WriteBehindScheduler writeBehindScheduler;
+    private Consumer<List<Task>> rollbackListener;
+    private boolean isBatchActive = false;
+    private boolean hasBatchChanges = false;
+    private ContentDictionary contentDictionary;
 
     public Storage(String filePath) {
+        this.textFilePath = Path.of(filePath);
+        setFilePath(filePath);
+    }
+
+    private void setFilePath(String filePath) {
         this.filePath = Path.of(filePath);
+        this.journalPath = Path.of(filePath + JOURNAL_SUFFIX);
+        this.temporaryPath = Path.of(filePath + TEMPORARY_SUFFIX);
+        this.compactionPath = Path.of(filePath + COMPACTION_SUFFIX);
+    }
+
+    /**
+     * Chooses what is forced onto the disk when the whole list is written or a change is appended to the journal.
+     *
+     * @param durability Durability level of the writes.
+     */
+    public void setDurability(Durability durability) {
+        this.durability = durability;
+    }
+
+    /**
+     * Turns on write-behind mode, where changes to the list only mark it as dirty and the whole list is written
+     * at most once per interval. Journal mode has no effect while write-behind mode is on.
+     * A change has already been reported as done when the list is written, so if the write fails, every change
+     * made since the previous write is rolled back afterwards through the rollback listener and the failure is
+     * given by takeBackgroundFailure.
+     *
+     * @param executor Single thread executor that executes every command changing the list.
+     * @param intervalMillis Interval between writes in milliseconds.
+     */
+    public void enableWriteBehind(ScheduledExecutorService executor, long intervalMillis) {
+        this.writeBehindScheduler = new WriteBehindScheduler(this, executor, intervalMillis);
+        this.writeBehindScheduler.setRollbackListener(rollbackListener);
+    }
+
+    /**
+     * Chooses what rolls the list back when a write made in the background in write-behind mode fails.
+     * The listener is called on the executor given to enableWriteBehind with the list as it is in the data file,
+     * which is the list last loaded or written.
+     *
+     * @param rollbackListener Listener replacing the list of tasks with the given one.
+     */
+    public void setRollbackListener(Consumer<List<Task>> rollbackListener) {
+        this.rollbackListener = rollbackListener;
+        if (writeBehindScheduler != null) {
+            writeBehindScheduler.setRollbackListener(rollbackListener);
+        }
+    }
+
+    /**
+     * Writes the changes still waiting in write-behind mode. Does nothing in the other modes, where every change
+     * has already been written.
+     *
+     * @throws IOException If there is no file or directory.
+     */
+    public void flush() throws IOException {
+        if (writeBehindScheduler != null) {
+            writeBehindScheduler.flush();
+        }
+    }
+
+    /**
+     * Returns the failure of a write made in the background in write-behind mode that has not been reported yet,
+     * and forgets it so it is reported once.
+     *
+     * @return Failure of the latest background write, or null if there is none to report.
+     */
+    public IOException takeBackgroundFailure() {
+        return writeBehindScheduler == null ? null : writeBehindScheduler.takeUnreportedFailure();
+    }
+
+    /**
+     * Starts deferring every write until endBatch is called, so a batch of changes is written to the disk once.
+     */
+    public void beginBatch() {
+        this.isBatchActive = true;
+        this.hasBatchChanges = false;
+    }
+
+    /**
+     * Stops deferring writes and writes the whole list if it has been changed since beginBatch was called.
+     * The list is written atomically, so if the write fails the data file still holds the list from before the
+     * batch. The only exception is a journal compaction failing after its compacted file is in place, which is
+     * then completed on the next load.
+     *
+     * @param tasks List of tasks after the batch.
+     * @throws IOException If there is no file or directory.
+     */
+    public void endBatch(List<Task> tasks) throws IOException {
+        this.isBatchActive = false;
+        if (hasBatchChanges) {
+            hasBatchChanges = false;
+            storeTasksNow(tasks);
+        }
+    }
+
+    /**
+     * Chooses the format the list of tasks is saved in.
+     * The binary format is saved next to the text file with the same name and a .bin extension instead.
+     *
+     * @param format Format of the data file.
+     */
+    public void setFormat(StorageFormat format) {
+        this.format = format;
+        if (format == StorageFormat.TEXT) {
+            setFilePath(textFilePath.toString());
+            return;
+        }
+        String textFileName = textFilePath.toString();
+        String baseName = textFileName.endsWith(StorageFormat.TEXT.getExtension())
+                ? textFileName.substring(0, textFileName.length() - StorageFormat.TEXT.getExtension().length())
+                : textFileName;
+        setFilePath(baseName + format.getExtension());
+    }
+
+    /**
+     * Converts a data file in text format, together with its journal, into a data file in binary format.
+     *
+     * @param textFilePath Path of the existing text data file.
+     * @param binaryFilePath Path of the binary data file to be written.
+     * @throws IOException If either file cannot be read or written.
+     */
+    public static void convertTextToBinary(String textFilePath, String binaryFilePath) throws IOException {
+        ArrayList<Task> tasks = new Storage(textFilePath).loadTasks();
+        BinaryTaskCodec.write(Path.of(binaryFilePath), tasks);
+    }
+
+    /**
+     * Makes loaded tasks share equal contents through the dictionary.
+     *
+     * @param contentDictionary Dictionary sharing equal contents, or null if contents are not shared.
+     */
+    public void setContentDictionary(ContentDictionary contentDictionary) {
+        this.contentDictionary = contentDictionary;
+    }
+
+    public ContentDictionary getContentDictionary() {
+        return this.contentDictionary;
+    }
+
+    /**
+     * Turns journal mode on or off.
+     * In journal mode every change to the list is appended to a journal file next to the data file
+     * instead of rewriting the whole data file. The journal is compacted into the data file once it
+     * grows as large as the list itself.
+     * The journal is always a text file, also when the data file is in binary format, as its records are single
+     * lines in the format of the text data file.
+     *
+     * @param isJournalEnabled Boolean value for indicating whether changes should be journaled.
+     */
+    public void setJournalEnabled(boolean isJournalEnabled) {
+        this.isJournalEnabled = isJournalEnabled;
+    }
+
+    /**
+     * Compacts the journal on the executor instead of during the change that makes it large enough, so that change
+     * is answered without waiting for the whole list to be written. The executor has to be the single thread that
+     * executes the commands changing the list, so the list is never changed while it is compacted.
+     *
+     * @param compactionExecutor Executor compacting the journal, or null to compact it during the change.
+     */
+    public void setCompactionExecutor(Executor compactionExecutor) {
+        this.compactionExecutor = compactionExecutor;
+    }
+
+    /**
+     * Returns the failure of compacting the journal if compaction has failed several times in a row and the failure
+     * has not been reported yet, and forgets it so it is reported once. The changes are still in the journal, so
+     * none of them are lost, but the journal keeps growing until compaction succeeds.
+     *
+     * @return Failure of the latest compaction, or null if there is none to report.
+     */
+    public IOException takeCompactionFailure() {
+        return unreportedCompactionFailure.getAndSet(null);
     }
 
     /**
@@ -70,12 +285,16 @@ public class Storage {
 
     /**
      * Creates a file if there is no 'ByteTalker.txt' file in data folder.
+     * If the binary format is used and only the text file exists, the text file is converted instead.
      *
      * @param hasFile Boolean value for indicating the file already exists or not.
      * @throws IOException Error while creating the file.
      */
     private void createFile(boolean hasFile) throws IOException {
-        if (!hasFile) {
+        if (!hasFile && format == StorageFormat.BINARY && Files.exists(textFilePath)) {
+            convertTextToBinary(textFilePath.toString(), filePath.toString());
+            System.out.println("Converted " + textFilePath + " into " + filePath);
+        } else if (!hasFile) {
             Files.createFile(filePath);
             System.out.println("File does not exist; hence, created");
         } else {
@@ -85,19 +304,254 @@ public class Storage {
 
     /**
      * Stores the list of tasks into the hard disk.
+     * In write-behind mode the list is only marked as dirty and written with the next flush, and during a batch
+     * it is written when the batch ends.
      *
      * @param tasks List of tasks to be stored.
      * @throws IOException If there is no file or directory.
      */
-    public void storeTasks(ArrayList<Task> tasks) throws IOException {
+    public void storeTasks(List<Task> tasks) throws IOException {
         assert filePath != null;
         assert tasks != null;
 
-        ArrayList<String> tempTasks = new ArrayList<>();
-        for (int i = 0; i < tasks.size(); i++) {
-            tempTasks.add(convertIndividualTaskToString(tasks.get(i)));
+        if (isBatchActive) {
+            hasBatchChanges = true;
+            return;
+        }
+        if (writeBehindScheduler != null) {
+            writeBehindScheduler.markDirty(tasks);
+            return;
+        }
+        storeTasksNow(tasks);
+    }
+
+    /**
+     * Writes the whole list into the data file right away, regardless of write-behind mode.
+     *
+     * @param tasks List of tasks to be stored.
+     * @throws IOException If there is no file or directory.
+     */
+    void storeTasksNow(List<Task> tasks) throws IOException {
+        if (Files.exists(journalPath)) {
+            compactJournal(tasks);
+        } else {
+            writeTemporaryFile(tasks);
+            replaceFile(temporaryPath, filePath);
+        }
+        if (writeBehindScheduler != null) {
+            writeBehindScheduler.markSaved(tasks);
+        }
+    }
+
+    /**
+     * Writes the list into the temporary file and forces it onto the disk if the durability level asks for it.
+     *
+     * @param tasks List of tasks to be written.
+     * @throws IOException If there is no file or directory.
+     */
+    private void writeTemporaryFile(List<Task> tasks) throws IOException {
+        writeTasks(temporaryPath, tasks);
+        if (durability != Durability.NONE) {
+            try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+        }
+    }
+
+    /**
+     * Atomically renames a completely written file over the target and forces the directory entry onto the disk
+     * if the durability level asks for it.
+     *
+     * @param source Completely written file.
+     * @param target File to be replaced.
+     * @throws IOException If the file cannot be renamed.
+     */
+    private void replaceFile(Path source, Path target) throws IOException {
+        Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (durability == Durability.FILE_AND_DIRECTORY) {
+            forceDirectory(target.toAbsolutePath().getParent());
+        }
+    }
+
+    private void forceDirectory(Path directoryPath) {
+        try (FileChannel channel = FileChannel.open(directoryPath, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Some platforms, such as Windows, cannot open a directory; the rename itself has still been done.
+        }
+    }
+
+    private void writeTasks(Path targetPath, List<Task> tasks) throws IOException {
+        if (format == StorageFormat.BINARY) {
+            BinaryTaskCodec.write(targetPath, tasks);
+            return;
+        }
+        ArrayList<String> tempTasks = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            tempTasks.add(convertIndividualTaskToString(task));
+        }
+        Files.write(targetPath, tempTasks);
+    }
+
+    /**
+     * Stores a task that has just been appended to the end of the list.
+     *
+     * @param tasks List of tasks after the task has been added.
+     * @param task Task that has been added.
+     * @throws IOException If there is no file or directory.
+     */
+    public void storeAddedTask(List<Task> tasks, Task task) throws IOException {
+        if (!isJournalEnabled || writeBehindScheduler != null || isBatchActive) {
+            storeTasks(tasks);
+            return;
+        }
+        appendJournalRecord(ADD_RECORD + " / " + convertIndividualTaskToString(task), tasks);
+    }
+
+    /**
+     * Stores a task of the list that has been changed in place.
+     *
+     * @param tasks List of tasks after the task has been changed.
+     * @param index Index of the changed task in the list.
+     * @throws IOException If there is no file or directory.
+     */
+    public void storeChangedTask(List<Task> tasks, int index) throws IOException {
+        if (!isJournalEnabled || writeBehindScheduler != null || isBatchActive) {
+            storeTasks(tasks);
+            return;
+        }
+        appendJournalRecord(SET_RECORD + " / " + index + " / "
+                + convertIndividualTaskToString(tasks.get(index)), tasks);
+    }
+
+    /**
+     * Stores the removal of a task from the list.
+     *
+     * @param tasks List of tasks after the task has been removed.
+     * @param index Index the removed task used to have in the list.
+     * @throws IOException If there is no file or directory.
+     */
+    public void storeDeletedTask(List<Task> tasks, int index) throws IOException {
+        if (!isJournalEnabled || writeBehindScheduler != null || isBatchActive) {
+            storeTasks(tasks);
+            return;
+        }
+        appendJournalRecord(DELETE_RECORD + " / " + index, tasks);
+    }
+
+    /**
+     * Appends a single record to the journal and compacts the journal into the data file when the journal has
+     * grown as large as the list, so each change costs the same regardless of the size of the list.
+     * Given a compaction executor, the compaction is queued on it instead of being done right away. The list is
+     * immutable, so the queued compaction writes the latest list passed in by then rather than this one.
+     *
+     * @param record Record to be appended.
+     * @param tasks Current list of tasks used when the journal is compacted.
+     * @throws IOException If there is no file or directory.
+     */
+    private void appendJournalRecord(String record, List<Task> tasks) throws IOException {
+        writeJournalRecord(record);
+        journalRecordCount++;
+        latestTasks = tasks;
+        if (!isCompactionDue(tasks) || isCompactionPending) {
+            return;
+        }
+        if (compactionExecutor == null) {
+            compactJournalIfDue(tasks);
+            return;
+        }
+        try {
+            isCompactionPending = true;
+            compactionExecutor.execute(() -> {
+                isCompactionPending = false;
+                compactJournalIfDue(latestTasks);
+            });
+        } catch (RejectedExecutionException e) {
+            isCompactionPending = false;
+            compactJournalIfDue(tasks);
+        }
+    }
+
+    /**
+     * Appends the record with its line separator to the journal and forces it onto the disk if the durability level
+     * asks for it, so a change reported as saved survives a crash of the machine just like a written list does.
+     *
+     * @param record Record to be appended.
+     * @throws IOException If there is no file or directory.
+     */
+    private void writeJournalRecord(String record) throws IOException {
+        boolean isNewJournal = Files.notExists(journalPath);
+        ByteBuffer buffer = ByteBuffer.wrap((record + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (durability != Durability.NONE) {
+                channel.force(false);
+            }
+        }
+        if (isNewJournal && durability == Durability.FILE_AND_DIRECTORY) {
+            forceDirectory(journalPath.toAbsolutePath().getParent());
+        }
+    }
+
+    private boolean isCompactionDue(List<Task> tasks) {
+        return Files.exists(journalPath)
+                && journalRecordCount >= Math.max(MIN_JOURNAL_RECORDS_BEFORE_COMPACTION, tasks.size());
+    }
+
+    /**
+     * Compacts the journal if it is still large enough, as the list may have been written in full since the
+     * compaction was queued. A failure is kept to be reported once compaction has failed several times in a row.
+     *
+     * @param tasks Current list of tasks.
+     */
+    private void compactJournalIfDue(List<Task> tasks) {
+        if (!isCompactionDue(tasks)) {
+            return;
+        }
+        try {
+            storeTasksNow(tasks);
+            compactionFailureCount = 0;
+        } catch (IOException e) {
+            // The records are still in the journal, so no change is lost and compaction is retried with the next one.
+            compactionFailureCount++;
+            if (compactionFailureCount >= COMPACTION_FAILURES_BEFORE_REPORT) {
+                unreportedCompactionFailure.set(e);
+            }
+        }
+    }
+
+    /**
+     * Writes the full list into the data file and discards the journal.
+     * The list is written into a temporary file, which is renamed into the compacted file once it is complete.
+     * A crash at any point leaves either the old data file with its journal, or a compacted file holding every
+     * change, which is put in place by recoverInterruptedWrite.
+     *
+     * @param tasks List of tasks to be written.
+     * @throws IOException If there is no file or directory.
+     */
+    private void compactJournal(List<Task> tasks) throws IOException {
+        writeTemporaryFile(tasks);
+        replaceFile(temporaryPath, compactionPath);
+        Files.deleteIfExists(journalPath);
+        replaceFile(compactionPath, filePath);
+        journalRecordCount = 0;
+    }
+
+    /**
+     * Drops the temporary file of a write that was interrupted, and finishes a compaction that was interrupted
+     * after the compacted file had been completed.
+     *
+     * @throws IOException If there is no file or directory.
+     */
+    private void recoverInterruptedWrite() throws IOException {
+        Files.deleteIfExists(temporaryPath);
+        if (Files.exists(compactionPath)) {
+            Files.deleteIfExists(journalPath);
+            replaceFile(compactionPath, filePath);
         }
-        Files.write(filePath, tempTasks);
     }
 
     private String convertIndividualTaskToString(Task task) {
@@ -106,9 +560,10 @@ public class Storage {
         boolean isDeadline = currentTask.getTaskType() == TaskType.DEADLINE;
         boolean isEvent = currentTask.getTaskType() == TaskType.EVENT;
         String done = currentTask.getStatus() ? "1" : "0";
-        String temp = currentTask.getTaskType().getIcon()
+        String id = currentTask.getId() > 0 ? currentTask.getId() + " / " : "";
+        String temp = id + currentTask.getTaskType().getIcon()
                 + " / " + done + " / " + currentTask.getTask();
-        DateTimeFormatter outputFormatter = DateTimeFormatter.ofPattern("d/M/yyyy Hmm");
+        DateTimeFormatter outputFormatter = STORED_DATE_TIME_FORMATTER;
         if (isDeadline) {
             Deadline deadlineTask = (Deadline) currentTask;
             temp += " / " + deadlineTask.getDeadline().format(outputFormatter);
@@ -123,23 +578,29 @@ public class Storage {
     /**
      * Loads the list of tasks from the hard disk.
      *
+     * Changes recorded in the journal are applied on top of the tasks stored in the data file. Tasks saved before
+     * ids existed are given their ids before the journal is applied, so they get the same ids on every load.
+     *
      * @return list of tasks stored in the hard disk.
-     * @throws FileNotFoundException If there is no file or directory.
+     * @throws IOException If there is no file or directory.
      */
-    public ArrayList<Task> loadTasks() throws FileNotFoundException {
+    public ArrayList<Task> loadTasks() throws IOException {
         assert filePath != null;
 
-        ArrayList<Task> tasks = new ArrayList<>();
-        File file = new File(filePath.toString());
-        assert file != null;
-        Scanner sc = new Scanner(file);
-        int numberOfTasks = 0;
+        recoverInterruptedWrite();
         System.out.println("Loading saved tasks");
-        while (sc.hasNextLine()) {
-            numberOfTasks++;
-            tasks.add(changeStringToTask(sc));
+        ArrayList<Task> tasks = format == StorageFormat.BINARY
+                ? BinaryTaskCodec.read(filePath)
+                : new MappedTaskLoader().load(filePath);
+        TaskList.assignIds(tasks);
+        replayJournal(tasks);
+        if (contentDictionary != null) {
+            contentDictionary.internAll(tasks);
+        }
+        if (writeBehindScheduler != null) {
+            writeBehindScheduler.markSaved(List.copyOf(tasks));
         }
-        if (numberOfTasks == 0) {
+        if (tasks.isEmpty()) {
             System.out.println("No Tasks Saved");
         } else {
             System.out.println("Loaded saved tasks");
@@ -148,20 +609,117 @@ public class Storage {
         return tasks;
     }
 
-    private Task changeStringToTask(Scanner sc) {
-        String[] splitMessage = sc.nextLine().split(" / ");
-        boolean isTodo = splitMessage.length == 3;
-        boolean isDeadline = splitMessage.length == 4;
-        boolean isEvent = splitMessage.length == 5;
-        boolean isDone = splitMessage[1].equals("1");
-        if (isTodo) {
-            return new Todo(splitMessage[2], isDone);
-        } else if (isDeadline) {
-            return new Deadline(splitMessage[2],
-                    Parser.parseDateTime(splitMessage[3]),
-                    isDone);
-        }
-        return new Event(splitMessage[2], Parser.parseDateTime(splitMessage[3]),
-                    Parser.parseDateTime(splitMessage[4]), isDone);
+    /**
+     * Applies the records in the journal, if there is one, on top of the tasks loaded from the data file.
+     *
+     * A last record cut short by a crash is dropped, while any other record that cannot be applied fails the load
+     * instead of applying the records after it to the wrong tasks.
+     *
+     * @param tasks List of tasks loaded from the data file.
+     * @throws IOException If the journal cannot be read or holds a record that cannot be applied.
+     */
+    private void replayJournal(ArrayList<Task> tasks) throws IOException {
+        journalRecordCount = 0;
+        if (!Files.exists(journalPath)) {
+            return;
+        }
+        truncateIncompleteRecord();
+        try (BufferedReader reader = Files.newBufferedReader(journalPath)) {
+            String record;
+            while ((record = reader.readLine()) != null) {
+                try {
+                    applyJournalRecord(record, tasks);
+                } catch (RuntimeException e) {
+                    throw new IOException("Journal record " + (journalRecordCount + 1) + " cannot be applied: "
+                            + record, e);
+                }
+                journalRecordCount++;
+            }
+        }
+    }
+
+    /**
+     * Cuts off the last record of the journal if the program stopped while it was being appended.
+     * Every record is appended together with its line separator, so a journal that does not end with one ends in
+     * such a record, which has never been reported as saved. Cutting it off also keeps the next record from being
+     * appended onto it.
+     *
+     * @throws IOException If the journal cannot be read or truncated.
+     */
+    private void truncateIncompleteRecord() throws IOException {
+        try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long completeLength = 0;
+            ByteBuffer buffer = ByteBuffer.allocate(TAIL_BUFFER_SIZE);
+            long position = size;
+            while (position > 0 && completeLength == 0) {
+                int length = (int) Math.min(buffer.capacity(), position);
+                position -= length;
+                buffer.clear().limit(length);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, position + buffer.position()) < 0) {
+                        throw new IOException("Journal shrank while being read: " + journalPath);
+                    }
+                }
+                for (int i = length - 1; i >= 0 && completeLength == 0; i--) {
+                    if (buffer.get(i) == '\n') {
+                        completeLength = position + i + 1;
+                    }
+                }
+            }
+            if (completeLength < size) {
+                channel.truncate(completeLength);
+            }
+        }
+    }
+
+    private void applyJournalRecord(String record, ArrayList<Task> tasks) {
+        String[] splitRecord = record.split(" / ", 3);
+        if (splitRecord[0].equals(ADD_RECORD)) {
+            tasks.add(changeStringToTask(record.substring(ADD_RECORD.length() + 3)));
+        } else if (splitRecord[0].equals(SET_RECORD)) {
+            int index = Integer.parseInt(splitRecord[1]);
+            Task task = changeStringToTask(splitRecord[2]);
+            if (task.getId() == 0) {
+                task.setId(tasks.get(index).getId());
+            }
+            tasks.set(index, task);
+        } else if (splitRecord[0].equals(DELETE_RECORD)) {
+            tasks.remove(Integer.parseInt(splitRecord[1]));
+        }
+    }
+
+    /**
+     * Converts a stored line back into a task.
+     * Lines start with the id of the task, except for lines saved before ids existed, which start with the icon.
+     * The date times are located from the end of the line, so content containing " / " is read back intact.
+     *
+     * @param line Line in the form written by convertIndividualTaskToString.
+     * @return Task stored in the line.
+     */
+    static Task changeStringToTask(String line) {
+        if (!Character.isDigit(line.charAt(0))) {
+            return changeFieldsToTask(line);
+        }
+        int idSeparator = line.indexOf(" / ");
+        Task task = changeFieldsToTask(line.substring(idSeparator + 3));
+        task.setId(Long.parseLong(line.substring(0, idSeparator)));
+        return task;
+    }
+
+    private static Task changeFieldsToTask(String line) {
+        boolean isDone = line.charAt(4) == '1';
+        String fields = line.substring(8);
+        if (line.startsWith(TaskType.TODO.getIcon())) {
+            return new Todo(fields, isDone);
+        }
+        int lastSeparator = fields.lastIndexOf(" / ");
+        LocalDateTime last = Parser.parseDateTime(fields.substring(lastSeparator + 3));
+        if (line.startsWith(TaskType.DEADLINE.getIcon())) {
+            return new Deadline(fields.substring(0, lastSeparator), last, isDone);
+        }
+        int fromSeparator = fields.lastIndexOf(" / ", lastSeparator - 1);
+        return new Event(fields.substring(0, fromSeparator),
+                Parser.parseDateTime(fields.substring(fromSeparator + 3, lastSeparator)), last, isDone);
     }
 }
@@ -0,0 +1,24 @@
+package bytetalker.storage;
+
+/**
+ * Represents the formats the list of tasks can be saved in.
+ */
+public enum StorageFormat {
+    TEXT(".txt"),
+    BINARY(".bin");
+
+    private final String extension;
+
+    StorageFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Returns the file extension of the data file saved in this format.
+     *
+     * @return File extension including the leading dot.
+     */
+    public String getExtension() {
+        return this.extension;
+    }
+}
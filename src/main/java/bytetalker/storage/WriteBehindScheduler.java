@@ -0,0 +1,107 @@
+package bytetalker.storage;
+
+import bytetalker.task.Task;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces the changes to the list into one write per interval.
+ * Changes only mark the list as dirty, and a flush scheduled on the executor writes the whole list once for all the
+ * changes made since the previous write. The executor has to be the single thread that executes the commands, so
+ * flushes never run while the list is being changed.
+ * The list last written is kept, so a failed background flush rolls the changes it was writing back: the rollback
+ * listener is given the list as it is in the data file, and the failure is kept until it is taken to be reported.
+ * The lists given to the scheduler must not be changed afterwards.
+ */
+class WriteBehindScheduler {
+    private final Storage storage;
+    private final ScheduledExecutorService executor;
+    private final long intervalMillis;
+    private List<Task> savedTasks = List.of();
+    private List<Task> dirtyTasks;
+    private ScheduledFuture<?> scheduledFlush;
+    private Consumer<List<Task>> rollbackListener;
+    private final AtomicReference<IOException> unreportedFailure = new AtomicReference<>();
+
+    WriteBehindScheduler(Storage storage, ScheduledExecutorService executor, long intervalMillis) {
+        this.storage = storage;
+        this.executor = executor;
+        this.intervalMillis = intervalMillis;
+    }
+
+    void setRollbackListener(Consumer<List<Task>> rollbackListener) {
+        this.rollbackListener = rollbackListener;
+    }
+
+    /**
+     * Records the list as the one in the data file, which a failed flush rolls back to.
+     *
+     * @param tasks List of tasks that has been loaded or written.
+     */
+    void markSaved(List<Task> tasks) {
+        savedTasks = tasks;
+    }
+
+    /**
+     * Marks the list as changed and schedules a flush if none is pending.
+     *
+     * @param tasks List of tasks after the change.
+     */
+    void markDirty(List<Task> tasks) {
+        dirtyTasks = tasks;
+        if (scheduledFlush == null) {
+            scheduledFlush = executor.schedule(this::flushInBackground, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes the list if it has been changed since the last write.
+     *
+     * @throws IOException If the list cannot be written. The list stays dirty so the caller can try again.
+     */
+    void flush() throws IOException {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        if (dirtyTasks == null) {
+            return;
+        }
+        storage.storeTasksNow(dirtyTasks);
+        dirtyTasks = null;
+        unreportedFailure.set(null);
+    }
+
+    /**
+     * Returns the failure of a background flush that has not been reported yet, and forgets it.
+     * Failures of a flush called directly are thrown to the caller instead.
+     *
+     * @return Failure of the latest background flush, or null if it has been reported or the flush succeeded.
+     */
+    IOException takeUnreportedFailure() {
+        return unreportedFailure.getAndSet(null);
+    }
+
+    /**
+     * Flushes the list and rolls the unsaved changes back if the flush fails, as the data file still holds the
+     * list from before them.
+     */
+    private void flushInBackground() {
+        scheduledFlush = null;
+        try {
+            flush();
+        } catch (IOException e) {
+            dirtyTasks = null;
+            if (rollbackListener != null) {
+                rollbackListener.accept(savedTasks);
+            }
+            unreportedFailure.set(e);
+        }
+    }
+}
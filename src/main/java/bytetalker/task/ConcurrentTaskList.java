@@ -0,0 +1,93 @@
+package bytetalker.task;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Represents a list of tasks that can be used from several threads at once.
+ * Every change is made by a single writer, the writer lane, which publishes a copy of the list once the change,
+ * including its save, is done. Readers work on the latest published copy on their own thread without taking any
+ * lock, so they never wait for a change and never see one half done, and a read started after a write has returned
+ * always sees it. The tasks and indexes of the list are immutable and shared by every copy, so publishing a copy
+ * costs O(1).
+ */
+public class ConcurrentTaskList {
+    private final TaskList tasks;
+    private final ExecutorService writerLane;
+    private volatile TaskList publishedTasks;
+    private volatile Thread writerThread;
+
+    /**
+     * Creates a concurrent list around the list of tasks, which must not be used directly afterwards.
+     *
+     * @param tasks List of tasks to be shared.
+     * @param writerLane Single thread executor making every change, or null to make the changes on the calling
+     *     thread when the caller already makes sure they are never made by two threads at once.
+     */
+    public ConcurrentTaskList(TaskList tasks, ExecutorService writerLane) {
+        this.tasks = tasks;
+        this.writerLane = writerLane;
+        this.publishedTasks = tasks.snapshot();
+    }
+
+    /**
+     * Runs a read-only operation on the latest published copy of the list on the calling thread.
+     * The operation may not change the list or its tasks.
+     *
+     * @param reader Operation reading the list.
+     * @param <T> Type of the result.
+     * @return Result of the operation.
+     */
+    public <T> T read(Function<TaskList, T> reader) {
+        return reader.apply(publishedTasks);
+    }
+
+    /**
+     * Returns the tasks of the latest published copy of the list, which are not affected by later changes.
+     *
+     * @return Unmodifiable list of the tasks.
+     */
+    public List<Task> getSnapshot() {
+        return publishedTasks.getTasks();
+    }
+
+    /**
+     * Runs an operation changing the list on the writer lane and returns once the change is visible to readers.
+     * When called from the writer lane itself, the operation is run right away.
+     *
+     * @param writer Operation changing the list.
+     * @param <T> Type of the result.
+     * @return Result of the operation.
+     */
+    public <T> T write(Function<TaskList, T> writer) {
+        if (writerLane == null || Thread.currentThread() == writerThread) {
+            return writeNow(writer);
+        }
+        Future<T> result = writerLane.submit(() -> {
+            writerThread = Thread.currentThread();
+            return writeNow(writer);
+        });
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the change to the list", e);
+        }
+    }
+
+    private <T> T writeNow(Function<TaskList, T> writer) {
+        try {
+            return writer.apply(tasks);
+        } finally {
+            publishedTasks = tasks.snapshot();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package bytetalker.task;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Represents a dictionary of task contents, through which equal contents are shared by one string.
+ * Lists made of recurring tasks such as a weekly sync hold the same content many times, each in its own string,
+ * so sharing them makes the memory taken by the contents proportional to the number of distinct contents.
+ * Every content counts the tasks holding it and is removed once the last of them is deleted or edited, so the
+ * dictionary never holds more than the contents of the list.
+ * The dictionary is not thread-safe. It is only used by the thread loading the list and afterwards by the writer
+ * of the list, as read-only commands never intern or release contents.
+ */
+public class ContentDictionary {
+    private final HashMap<String, Entry> contents = new HashMap<>();
+    private long referenceCount;
+
+    /**
+     * Returns the string in the dictionary equal to the content, adding the content if there is none yet.
+     * The caller holds a reference to the content until it is released.
+     *
+     * @param content Content of a task.
+     * @return Shared string equal to the content.
+     */
+    public String intern(String content) {
+        Entry entry = this.contents.computeIfAbsent(content, Entry::new);
+        entry.references++;
+        this.referenceCount++;
+        return entry.content;
+    }
+
+    /**
+     * Releases a reference to the content taken by intern, removing the content once no task holds it.
+     *
+     * @param content Content of a task that has been deleted or given another content.
+     */
+    public void release(String content) {
+        Entry entry = this.contents.get(content);
+        if (entry == null) {
+            return;
+        }
+        this.referenceCount--;
+        if (--entry.references == 0) {
+            this.contents.remove(content);
+        }
+    }
+
+    /**
+     * Makes every task in the list hold the shared string equal to its content.
+     *
+     * @param tasks List of tasks.
+     */
+    public void internAll(List<Task> tasks) {
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            task.shareContent(intern(task.getTask()));
+        }
+    }
+
+    /**
+     * Forgets every content and counts the contents of the list instead, as after the list has been replaced by a
+     * copy taken earlier. The tasks are left as they are, since their contents were shared when they were added and
+     * other copies of the list may be read at the same time.
+     *
+     * @param tasks List of tasks.
+     */
+    public void reset(List<Task> tasks) {
+        this.contents.clear();
+        this.referenceCount = 0;
+        for (Task task : tasks) {
+            intern(task.getTask());
+        }
+    }
+
+    public int size() {
+        return this.contents.size();
+    }
+
+    public long getReferenceCount() {
+        return this.referenceCount;
+    }
+
+    /**
+     * Returns the share of the task contents that use the string of another task instead of their own.
+     *
+     * @return Ratio between 0 and 1, which is 0 if no task holds a content.
+     */
+    public double getDedupRatio() {
+        return this.referenceCount == 0 ? 0 : 1 - (double) this.contents.size() / this.referenceCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ENGLISH, "%d task contents in %d strings (%.1f%% deduplicated)",
+                this.referenceCount, this.contents.size(), getDedupRatio() * 100);
+    }
+
+    private static class Entry {
+        private final String content;
+        private int references;
+
+        Entry(String content) {
+            this.content = content;
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package bytetalker.task;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Locale;
 
 /**
  * Represents the Deadline task that the user wants to store. It contains deadline variable to store deadline time.
@@ -26,8 +24,9 @@ public class Deadline extends Task {
      * @return String that contains information about deadline.
      */
     @Override
-    public String toString() {
-        return "[" + getTaskType().getIcon() + "]" + "[" + getStatusIcon() + "] " + getTask() + " (by: " + convertDeadlineToString() + ")";
+    protected String render() {
+        return "[" + getTaskType().getIcon() + "]" + "[" + getStatusIcon() + "] " + getTask() + " (by: "
+                + convertDeadlineToString() + ")";
     }
 
     /**
@@ -37,9 +36,12 @@ public class Deadline extends Task {
      * @return String of deadline variable.
      */
     public String convertDeadlineToString() {
-        DateTimeFormatter outputFormatter = DateTimeFormatter.ofPattern("MMM dd yyyy h:mma", Locale.ENGLISH);
-        String formattedDateTime = this.deadline.format(outputFormatter);
-        return formattedDateTime;
+        return this.deadline.format(OUTPUT_FORMATTER);
+    }
+
+    @Override
+    public Deadline copy() {
+        return initCopy(new Deadline(getTask(), this.deadline, getStatus()));
     }
 
     public LocalDateTime getDeadline() {
@@ -53,5 +55,6 @@ public class Deadline extends Task {
      */
     public void updateDeadline(LocalDateTime deadline) {
         this.deadline = deadline;
+        invalidateRendering();
     }
 }
@@ -1,8 +1,6 @@
 package bytetalker.task;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Locale;
 
 /**
  * Represents the Event task that the user wants to store. It contains to and from variables to store time.
@@ -29,8 +27,14 @@ public class Event extends Task {
      * @return String that contains information about task.
      */
     @Override
-    public String toString() {
-        return "[" + getTaskType().getIcon() + "]" + "[" + getStatusIcon() + "] " + getTask() + " (from: " + convertFromToString() + " to: " + convertToToString() + ")";
+    protected String render() {
+        return "[" + getTaskType().getIcon() + "]" + "[" + getStatusIcon() + "] " + getTask() + " (from: "
+                + convertFromToString() + " to: " + convertToToString() + ")";
+    }
+
+    @Override
+    public Event copy() {
+        return initCopy(new Event(getTask(), this.from, this.to, getStatus()));
     }
 
     public LocalDateTime getFrom() {
@@ -48,9 +52,7 @@ public class Event extends Task {
      * @return String of from variable.
      */
     public String convertFromToString() {
-        DateTimeFormatter outputFormatter = DateTimeFormatter.ofPattern("MMM dd yyyy h:mma", Locale.ENGLISH);
-        String formattedDateTime = this.from.format(outputFormatter);
-        return formattedDateTime;
+        return this.from.format(OUTPUT_FORMATTER);
     }
 
     /**
@@ -60,9 +62,7 @@ public class Event extends Task {
      * @return String of to variable.
      */
     public String convertToToString() {
-        DateTimeFormatter outputFormatter = DateTimeFormatter.ofPattern("MMM dd yyyy h:mma", Locale.ENGLISH);
-        String formattedDateTime = this.to.format(outputFormatter);
-        return formattedDateTime;
+        return this.to.format(OUTPUT_FORMATTER);
     }
 
     /**
@@ -72,6 +72,7 @@ public class Event extends Task {
      */
     public void updateFrom(LocalDateTime from) {
         this.from = from;
+        invalidateRendering();
     }
 
     /**
@@ -81,5 +82,6 @@ public class Event extends Task {
      */
     public void updateTo(LocalDateTime to) {
         this.to = to;
+        invalidateRendering();
     }
 }
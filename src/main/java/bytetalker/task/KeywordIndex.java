@@ -0,0 +1,348 @@
+package bytetalker.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Represents an immutable inverted index from the words of task contents to the ids of the tasks containing them.
+ * Words are the runs of characters between single spaces. A search string made of words in the index is answered
+ * from their postings alone, which are kept in the order of the ids and therefore of the list, and only a search
+ * string with a word that no task contains is looked for as a substring by scanning the list.
+ * Changing the index returns a new index that shares all but the changed postings with the old one, so a copy of
+ * the list keeps the index it was taken with.
+ */
+public class KeywordIndex {
+    private static final char WORD_SEPARATOR = ' ';
+
+    private final WordMap postings;
+
+    /**
+     * Creates the index of the tasks.
+     * The postings of all the tasks are gathered first and every posting and node of the index is built once.
+     *
+     * @param tasks Tasks with their ids assigned.
+     */
+    public KeywordIndex(List<Task> tasks) {
+        HashMap<String, Integer> wordIndexes = new HashMap<>();
+        ArrayList<String> words = new ArrayList<>();
+        int[] occurrenceWords = new int[Math.max(16, tasks.size() * 4)];
+        long[] occurrenceIds = new long[occurrenceWords.length];
+        int occurrenceCount = 0;
+        for (Task task : tasks) {
+            String content = task.getTask();
+            int start = 0;
+            while (start <= content.length()) {
+                int end = nextSeparator(content, start);
+                if (end > start) {
+                    if (occurrenceCount == occurrenceWords.length) {
+                        occurrenceWords = Arrays.copyOf(occurrenceWords, occurrenceCount * 2);
+                        occurrenceIds = Arrays.copyOf(occurrenceIds, occurrenceCount * 2);
+                    }
+                    String word = content.substring(start, end);
+                    Integer wordIndex = wordIndexes.putIfAbsent(word, words.size());
+                    if (wordIndex == null) {
+                        wordIndex = words.size();
+                        words.add(word);
+                    }
+                    occurrenceWords[occurrenceCount] = wordIndex;
+                    occurrenceIds[occurrenceCount++] = task.getId();
+                }
+                start = end + 1;
+            }
+        }
+        this.postings = buildPostings(words, occurrenceWords, occurrenceIds, occurrenceCount);
+    }
+
+    private KeywordIndex(WordMap postings) {
+        this.postings = postings;
+    }
+
+    /**
+     * Groups the occurrences by word with a counting sort and builds the posting of every word from its ids.
+     */
+    private static WordMap buildPostings(ArrayList<String> words, int[] occurrenceWords, long[] occurrenceIds,
+            int occurrenceCount) {
+        int[] starts = new int[words.size() + 1];
+        for (int i = 0; i < occurrenceCount; i++) {
+            starts[occurrenceWords[i] + 1]++;
+        }
+        for (int i = 0; i < words.size(); i++) {
+            starts[i + 1] += starts[i];
+        }
+        long[] ids = new long[occurrenceCount];
+        int[] next = Arrays.copyOf(starts, words.size());
+        for (int i = 0; i < occurrenceCount; i++) {
+            ids[next[occurrenceWords[i]]++] = occurrenceIds[i];
+        }
+        LongTree[] wordPostings = new LongTree[words.size()];
+        for (int i = 0; i < words.size(); i++) {
+            int end = sortDistinct(ids, starts[i], starts[i + 1]);
+            wordPostings[i] = LongTree.of(ids, starts[i], end);
+        }
+        return WordMap.of(words.toArray(new String[0]), wordPostings, words.size());
+    }
+
+    /**
+     * Sorts the ids in the range and moves the distinct ones to its start. Ids of tasks in the order of the list
+     * are normally increasing already, in which case only a word repeated in a task is dropped.
+     *
+     * @return End of the distinct ids.
+     */
+    private static int sortDistinct(long[] ids, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            if (ids[i - 1] > ids[i]) {
+                Arrays.sort(ids, from, to);
+                break;
+            }
+        }
+        int end = Math.min(to, from + 1);
+        for (int i = from + 1; i < to; i++) {
+            if (ids[i] != ids[end - 1]) {
+                ids[end++] = ids[i];
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Returns an index with the task added.
+     *
+     * @param task Task with its id assigned.
+     * @return New index.
+     */
+    public KeywordIndex add(Task task) {
+        return new KeywordIndex(addWords(postings, task.getId(), task.getTask()));
+    }
+
+    /**
+     * Returns an index without the task.
+     *
+     * @param task Task to be removed.
+     * @return New index.
+     */
+    public KeywordIndex remove(Task task) {
+        return new KeywordIndex(removeWords(postings, task.getId(), task.getTask()));
+    }
+
+    /**
+     * Returns an index with a task re-indexed after its content has been changed.
+     *
+     * @param task Task with the new content.
+     * @param oldContent Content of the task before it was changed.
+     * @return New index.
+     */
+    public KeywordIndex update(Task task, String oldContent) {
+        return new KeywordIndex(addWords(removeWords(postings, task.getId(), oldContent), task.getId(),
+                task.getTask()));
+    }
+
+    /**
+     * Finds the tasks whose content contains the search string as whole words.
+     * If a word of the search string is not a word of any task, or the search string has leading, trailing or
+     * repeated spaces, the tasks containing the search string anywhere are found instead, exactly as String.contains
+     * would.
+     *
+     * @param tasks List of tasks the index was built for.
+     * @param content Search string.
+     * @return Tasks containing the search string, in the order of the list.
+     */
+    public ArrayList<Task> find(TaskSequence tasks, String content) {
+        String[] words = content.split(String.valueOf(WORD_SEPARATOR), -1);
+        LongTree[] wordPostings = new LongTree[words.length];
+        for (int i = 0; i < words.length; i++) {
+            wordPostings[i] = words[i].isEmpty() ? null : postings.get(words[i]);
+            if (wordPostings[i] == null) {
+                return tasks.findContaining(content);
+            }
+        }
+        long[] ids = intersect(wordPostings);
+        ArrayList<Task> foundTasks = tasks.findByIds(ids, ids.length);
+        if (words.length > 1) {
+            foundTasks.removeIf(task -> !containsPhrase(task.getTask(), content));
+        }
+        return foundTasks;
+    }
+
+    /**
+     * Finds the tasks whose content contains every one of the search terms.
+     * A term that is a word of some task matches that word only, and any other term matches the words containing it.
+     *
+     * @param tasks List of tasks the index was built for.
+     * @param terms Search terms without spaces.
+     * @return Tasks containing all of the search terms, in the order of the list.
+     */
+    public ArrayList<Task> findAll(TaskSequence tasks, List<String> terms) {
+        long[] ids = null;
+        for (String term : terms) {
+            long[] termIds = idsMatching(term);
+            ids = ids == null ? termIds : intersect(ids, termIds);
+        }
+        return ids == null ? new ArrayList<>() : tasks.findByIds(ids, ids.length);
+    }
+
+    /**
+     * Finds the tasks whose content contains at least one of the search terms.
+     * A term that is a word of some task matches that word only, and any other term matches the words containing it.
+     *
+     * @param tasks List of tasks the index was built for.
+     * @param terms Search terms without spaces.
+     * @return Tasks containing any of the search terms, in the order of the list.
+     */
+    public ArrayList<Task> findAny(TaskSequence tasks, List<String> terms) {
+        long[] ids = new long[0];
+        for (String term : terms) {
+            ids = union(ids, idsMatching(term));
+        }
+        return tasks.findByIds(ids, ids.length);
+    }
+
+    private static WordMap addWords(WordMap postings, long id, String content) {
+        int start = 0;
+        while (start <= content.length()) {
+            int end = nextSeparator(content, start);
+            if (end > start) {
+                String word = content.substring(start, end);
+                LongTree posting = postings.get(word);
+                postings = postings.with(word, posting == null ? LongTree.of(id) : posting.with(id));
+            }
+            start = end + 1;
+        }
+        return postings;
+    }
+
+    private static WordMap removeWords(WordMap postings, long id, String content) {
+        int start = 0;
+        while (start <= content.length()) {
+            int end = nextSeparator(content, start);
+            if (end > start) {
+                String word = content.substring(start, end);
+                LongTree posting = postings.get(word);
+                if (posting != null) {
+                    LongTree newPosting = posting.without(id);
+                    postings = newPosting == null ? postings.without(word) : postings.with(word, newPosting);
+                }
+            }
+            start = end + 1;
+        }
+        return postings;
+    }
+
+    private static int nextSeparator(String content, int start) {
+        int end = content.indexOf(WORD_SEPARATOR, start);
+        return end < 0 ? content.length() : end;
+    }
+
+    /**
+     * Returns whether the phrase appears in the content with a space or either end of the content on both sides.
+     */
+    private static boolean containsPhrase(String content, String phrase) {
+        for (int start = content.indexOf(phrase); start >= 0; start = content.indexOf(phrase, start + 1)) {
+            int end = start + phrase.length();
+            if ((start == 0 || content.charAt(start - 1) == WORD_SEPARATOR)
+                    && (end == content.length() || content.charAt(end) == WORD_SEPARATOR)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the ids in every posting, testing the ids of the smallest posting against the others.
+     */
+    private static long[] intersect(LongTree[] wordPostings) {
+        LongTree smallest = wordPostings[0];
+        for (LongTree posting : wordPostings) {
+            if (posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+        long[] ids = new long[smallest.size()];
+        smallest.copyInto(ids, 0);
+        int count = 0;
+        for (long id : ids) {
+            boolean isInAll = true;
+            for (int i = 0; i < wordPostings.length && isInAll; i++) {
+                isInAll = wordPostings[i] == smallest || wordPostings[i].contains(id);
+            }
+            if (isInAll) {
+                ids[count++] = id;
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * Returns the ids of the tasks with the term as a word, or with a word containing the term if there is no such
+     * word, in increasing order.
+     */
+    private long[] idsMatching(String term) {
+        LongTree posting = postings.get(term);
+        if (posting != null) {
+            long[] ids = new long[posting.size()];
+            posting.copyInto(ids, 0);
+            return ids;
+        }
+        ArrayList<LongTree> matchingPostings = new ArrayList<>();
+        int[] total = {0};
+        postings.forEach((word, wordPosting) -> {
+            if (word.contains(term)) {
+                matchingPostings.add(wordPosting);
+                total[0] += wordPosting.size();
+            }
+        });
+        long[] ids = new long[total[0]];
+        int count = 0;
+        for (LongTree matchingPosting : matchingPostings) {
+            count = matchingPosting.copyInto(ids, count);
+        }
+        Arrays.sort(ids);
+        return distinct(ids);
+    }
+
+    private static long[] distinct(long[] sortedIds) {
+        int count = 0;
+        for (int i = 0; i < sortedIds.length; i++) {
+            if (count == 0 || sortedIds[count - 1] != sortedIds[i]) {
+                sortedIds[count++] = sortedIds[i];
+            }
+        }
+        return count == sortedIds.length ? sortedIds : Arrays.copyOf(sortedIds, count);
+    }
+
+    private static long[] intersect(long[] first, long[] second) {
+        long[] ids = new long[Math.min(first.length, second.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < first.length && j < second.length; ) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                ids[count++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    private static long[] union(long[] first, long[] second) {
+        long[] ids = new long[first.length + second.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.length || j < second.length) {
+            if (j == second.length || (i < first.length && first[i] < second[j])) {
+                ids[count++] = first[i++];
+            } else if (i == first.length || second[j] < first[i]) {
+                ids[count++] = second[j++];
+            } else {
+                ids[count++] = first[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+}
@@ -0,0 +1,310 @@
+package bytetalker.task;
+
+import java.util.Arrays;
+
+/**
+ * Represents an immutable set of longs in increasing order, kept in the leaves of a B+ tree.
+ * Adding or removing a value copies only the nodes on the path to it, so an older set stays valid and shares every
+ * other node with the new one. A set of up to LEAF_CAPACITY values is a single leaf, which keeps the many small
+ * sets of a keyword index down to one array each.
+ */
+abstract class LongTree {
+    private static final int LEAF_CAPACITY = 64;
+    private static final int BRANCH_CAPACITY = 32;
+    private static final int MIN_FILL_DIVISOR = 4;
+
+    final int size;
+
+    private LongTree(int size) {
+        this.size = size;
+    }
+
+    static LongTree of(long value) {
+        return new Leaf(new long[] {value});
+    }
+
+    /**
+     * Creates a set of the values with every node filled, in O(n).
+     *
+     * @param values Distinct values in increasing order.
+     * @param from Index of the first value in the array.
+     * @param to Index after the last value in the array.
+     * @return Set of the values, or null if there are none.
+     */
+    static LongTree of(long[] values, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        LongTree[] nodes = new LongTree[(to - from + LEAF_CAPACITY - 1) / LEAF_CAPACITY];
+        for (int i = 0; i < nodes.length; i++) {
+            int start = from + i * LEAF_CAPACITY;
+            nodes[i] = new Leaf(Arrays.copyOfRange(values, start, Math.min(to, start + LEAF_CAPACITY)));
+        }
+        while (nodes.length > 1) {
+            LongTree[] parents = new LongTree[(nodes.length + BRANCH_CAPACITY - 1) / BRANCH_CAPACITY];
+            for (int i = 0; i < parents.length; i++) {
+                int start = i * BRANCH_CAPACITY;
+                int end = Math.min(nodes.length, start + BRANCH_CAPACITY);
+                parents[i] = new Branch(Arrays.copyOfRange(nodes, start, end));
+            }
+            nodes = parents;
+        }
+        return nodes[0];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the set with the value added, or this set if it already holds the value.
+     *
+     * @param value Value to be added.
+     * @return New set.
+     */
+    LongTree with(long value) {
+        LongTree[] nodes = insert(value);
+        return nodes.length == 1 ? nodes[0] : new Branch(nodes);
+    }
+
+    /**
+     * Returns the set without the value, or this set if it does not hold the value.
+     *
+     * @param value Value to be removed.
+     * @return New set, or null if no value is left.
+     */
+    LongTree without(long value) {
+        LongTree node = remove(value);
+        while (node instanceof Branch && ((Branch) node).children.length == 1) {
+            node = ((Branch) node).children[0];
+        }
+        return node;
+    }
+
+    abstract boolean contains(long value);
+
+    abstract long first();
+
+    /**
+     * Copies the values in increasing order into the array.
+     *
+     * @param target Array with room for every value from the offset.
+     * @param offset Index in the array the first value is copied to.
+     * @return Index after the last value copied.
+     */
+    abstract int copyInto(long[] target, int offset);
+
+    /**
+     * Returns the node with the value added, followed by a new sibling if the node had to be split.
+     */
+    abstract LongTree[] insert(long value);
+
+    /**
+     * Returns the node without the value, or null if no value is left.
+     */
+    abstract LongTree remove(long value);
+
+    abstract boolean isUnderfilled();
+
+    private static final class Leaf extends LongTree {
+        final long[] values;
+
+        Leaf(long[] values) {
+            super(values.length);
+            this.values = values;
+        }
+
+        @Override
+        boolean contains(long value) {
+            return Arrays.binarySearch(values, value) >= 0;
+        }
+
+        @Override
+        long first() {
+            return values[0];
+        }
+
+        @Override
+        int copyInto(long[] target, int offset) {
+            System.arraycopy(values, 0, target, offset, size);
+            return offset + size;
+        }
+
+        @Override
+        LongTree[] insert(long value) {
+            int position = Arrays.binarySearch(values, value);
+            if (position >= 0) {
+                return new LongTree[] {this};
+            }
+            position = -position - 1;
+            long[] newValues = new long[size + 1];
+            System.arraycopy(values, 0, newValues, 0, position);
+            newValues[position] = value;
+            System.arraycopy(values, position, newValues, position + 1, size - position);
+            if (newValues.length <= LEAF_CAPACITY) {
+                return new LongTree[] {new Leaf(newValues)};
+            }
+            int half = newValues.length / 2;
+            return new LongTree[] {new Leaf(Arrays.copyOfRange(newValues, 0, half)),
+                new Leaf(Arrays.copyOfRange(newValues, half, newValues.length))};
+        }
+
+        @Override
+        LongTree remove(long value) {
+            int position = Arrays.binarySearch(values, value);
+            if (position < 0) {
+                return this;
+            }
+            if (size == 1) {
+                return null;
+            }
+            long[] newValues = new long[size - 1];
+            System.arraycopy(values, 0, newValues, 0, position);
+            System.arraycopy(values, position + 1, newValues, position, size - position - 1);
+            return new Leaf(newValues);
+        }
+
+        @Override
+        boolean isUnderfilled() {
+            return size < LEAF_CAPACITY / MIN_FILL_DIVISOR;
+        }
+    }
+
+    private static final class Branch extends LongTree {
+        final LongTree[] children;
+        final long[] firsts;
+
+        Branch(LongTree[] children) {
+            super(sizeOf(children));
+            this.children = children;
+            this.firsts = new long[children.length];
+            for (int i = 0; i < children.length; i++) {
+                firsts[i] = children[i].first();
+            }
+        }
+
+        private static int sizeOf(LongTree[] children) {
+            int size = 0;
+            for (LongTree child : children) {
+                size += child.size;
+            }
+            return size;
+        }
+
+        /**
+         * Returns the last child whose first value is not larger than the value, or the first child.
+         */
+        private int childIndex(long value) {
+            int position = Arrays.binarySearch(firsts, value);
+            return position >= 0 ? position : Math.max(0, -position - 2);
+        }
+
+        @Override
+        boolean contains(long value) {
+            return children[childIndex(value)].contains(value);
+        }
+
+        @Override
+        long first() {
+            return firsts[0];
+        }
+
+        @Override
+        int copyInto(long[] target, int offset) {
+            for (LongTree child : children) {
+                offset = child.copyInto(target, offset);
+            }
+            return offset;
+        }
+
+        @Override
+        LongTree[] insert(long value) {
+            int index = childIndex(value);
+            LongTree[] inserted = children[index].insert(value);
+            if (inserted.length == 1) {
+                if (inserted[0] == children[index]) {
+                    return new LongTree[] {this};
+                }
+                LongTree[] newChildren = children.clone();
+                newChildren[index] = inserted[0];
+                return new LongTree[] {new Branch(newChildren)};
+            }
+            LongTree[] newChildren = new LongTree[children.length + 1];
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newChildren[index] = inserted[0];
+            newChildren[index + 1] = inserted[1];
+            System.arraycopy(children, index + 1, newChildren, index + 2, children.length - index - 1);
+            if (newChildren.length <= BRANCH_CAPACITY) {
+                return new LongTree[] {new Branch(newChildren)};
+            }
+            int half = newChildren.length / 2;
+            return new LongTree[] {new Branch(Arrays.copyOfRange(newChildren, 0, half)),
+                new Branch(Arrays.copyOfRange(newChildren, half, newChildren.length))};
+        }
+
+        @Override
+        LongTree remove(long value) {
+            int index = childIndex(value);
+            LongTree child = children[index].remove(value);
+            if (child == children[index]) {
+                return this;
+            }
+            if (child == null) {
+                if (children.length == 1) {
+                    return null;
+                }
+                LongTree[] newChildren = new LongTree[children.length - 1];
+                System.arraycopy(children, 0, newChildren, 0, index);
+                System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+                return new Branch(newChildren);
+            }
+            LongTree[] newChildren = children.clone();
+            newChildren[index] = child;
+            if (child.isUnderfilled() && children.length > 1) {
+                newChildren = mergeWithNeighbour(newChildren, index);
+            }
+            return new Branch(newChildren);
+        }
+
+        /**
+         * Merges the underfilled child with a neighbour if both fit into one node, so a set that has shrunk a lot
+         * is not left with many nearly empty nodes.
+         */
+        private static LongTree[] mergeWithNeighbour(LongTree[] children, int index) {
+            int first = index == children.length - 1 ? index - 1 : index;
+            LongTree merged = merge(children[first], children[first + 1]);
+            if (merged == null) {
+                return children;
+            }
+            LongTree[] newChildren = new LongTree[children.length - 1];
+            System.arraycopy(children, 0, newChildren, 0, first);
+            newChildren[first] = merged;
+            System.arraycopy(children, first + 2, newChildren, first + 1, children.length - first - 2);
+            return newChildren;
+        }
+
+        private static LongTree merge(LongTree first, LongTree second) {
+            if (first instanceof Leaf) {
+                if (first.size + second.size > LEAF_CAPACITY) {
+                    return null;
+                }
+                long[] values = Arrays.copyOf(((Leaf) first).values, first.size + second.size);
+                System.arraycopy(((Leaf) second).values, 0, values, first.size, second.size);
+                return new Leaf(values);
+            }
+            LongTree[] firstChildren = ((Branch) first).children;
+            LongTree[] secondChildren = ((Branch) second).children;
+            if (firstChildren.length + secondChildren.length > BRANCH_CAPACITY) {
+                return null;
+            }
+            LongTree[] children = Arrays.copyOf(firstChildren, firstChildren.length + secondChildren.length);
+            System.arraycopy(secondChildren, 0, children, firstChildren.length, secondChildren.length);
+            return new Branch(children);
+        }
+
+        @Override
+        boolean isUnderfilled() {
+            return children.length < BRANCH_CAPACITY / MIN_FILL_DIVISOR;
+        }
+    }
+}
@@ -1,17 +1,28 @@
 package bytetalker.task;
 
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
 /**
  * Represents the task that user can type in to store in the list. It is the parent class of all types of tasks
  * supprted by the chatbot.
+ * The string shown for the task is rendered once and kept until the task changes, so listing an unchanged list
+ * does not format the same tasks and dates again.
  *
  * @author Junseo Kim
  * @version 1.0
  * @since 2024-02-06
  */
 public abstract class Task {
+    static final DateTimeFormatter OUTPUT_FORMATTER =
+            DateTimeFormatter.ofPattern("MMM dd yyyy h:mma", Locale.ENGLISH);
+
+    private long id;
     private String task;
     private boolean isDone;
     private TaskType taskType;
+    private String rendering;
+
     public Task(TaskType taskType, String task) {
         this.taskType = taskType;
         this.isDone = false;
@@ -28,7 +39,69 @@ public abstract class Task {
         return this.task;
     }
 
-    public abstract String toString();
+    /**
+     * Returns the id of the task, which stays the same while other tasks are added or deleted.
+     *
+     * @return Id of the task, or 0 if none has been assigned yet.
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Returns the string shown for the task, rendering it first if the task has changed since it was last shown.
+     * Several threads may render the same task at once, which only costs the duplicated work, as the rendering
+     * is an immutable string that is the same for all of them.
+     *
+     * @return String that contains information about the task.
+     */
+    @Override
+    public final String toString() {
+        String rendering = this.rendering;
+        if (rendering == null) {
+            rendering = render();
+            this.rendering = rendering;
+        }
+        return rendering;
+    }
+
+    /**
+     * Creates the string shown for the task.
+     *
+     * @return String that contains information about the task.
+     */
+    protected abstract String render();
+
+    /**
+     * Discards the string rendered for the task, which must be called whenever a field shown in it changes.
+     */
+    protected void invalidateRendering() {
+        this.rendering = null;
+    }
+
+    /**
+     * Gives the copy of the task the same id and rendered string as the task.
+     *
+     * @param copy Copy of the task with the same fields.
+     * @param <T> Type of the task.
+     * @return The copy.
+     */
+    protected <T extends Task> T initCopy(T copy) {
+        copy.setId(getId());
+        ((Task) copy).rendering = this.rendering;
+        return copy;
+    }
+
+    /**
+     * Creates an independent copy of the task with the same id, so changes to either one do not affect the other.
+     *
+     * @return Copy of the task.
+     */
+    public abstract Task copy();
 
     /**
      * Returns the status icon of X or empty space depending on the status of the task.
@@ -47,6 +120,7 @@ public abstract class Task {
      */
     public void setStatus(boolean status) {
         this.isDone = status;
+        invalidateRendering();
     }
 
     /**
@@ -69,5 +143,16 @@ public abstract class Task {
 
     public void updateTask(String content) {
         this.task = content;
+        invalidateRendering();
+    }
+
+    /**
+     * Replaces the content with an equal string shared with other tasks, which keeps the rendering valid.
+     *
+     * @param content String equal to the content of the task.
+     */
+    void shareContent(String content) {
+        assert content.equals(this.task);
+        this.task = content;
     }
 }
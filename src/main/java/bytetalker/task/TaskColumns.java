@@ -0,0 +1,309 @@
+package bytetalker.task;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Represents an immutable block of up to 64 tasks stored column by column in parallel primitive arrays instead of
+ * one object per task, which a TaskSequence storing its tasks in columns keeps in each leaf.
+ * The type of a task takes a byte, its status a bit, its times a long each, as seconds since the epoch, and its
+ * content is packed with the other contents of the block into one array of bytes, one byte per character unless the
+ * content has characters beyond Latin-1. The ids are kept by the leaf. Without the task, string and date time
+ * objects a task takes several times less memory than as objects.
+ * Tasks are created on demand as views of a position, so changing them does not change the block. Changing the
+ * block copies it, which costs no more than copying the leaf of a sequence of objects.
+ */
+final class TaskColumns {
+    static final int CAPACITY = Long.SIZE;
+    static final TaskColumns EMPTY = new Builder(0, 0).build();
+
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final int LATIN1_MAX = 0xFF;
+    private static final byte TODO_TYPE = 0;
+    private static final byte DEADLINE_TYPE = 1;
+    private static final byte EVENT_TYPE = 2;
+
+    private final byte[] types;
+    private final long doneFlags;
+    private final long wideContentFlags;
+    private final long[] firstTimes;
+    private final long[] secondTimes;
+    private final int[] contentEnds;
+    private final byte[] contentPool;
+
+    private TaskColumns(Builder builder) {
+        assert builder.size == builder.types.length;
+        this.types = builder.types;
+        this.doneFlags = builder.doneFlags;
+        this.wideContentFlags = builder.wideContentFlags;
+        this.firstTimes = builder.firstTimes;
+        this.secondTimes = builder.secondTimes;
+        this.contentEnds = builder.contentEnds;
+        this.contentPool = builder.poolSize == builder.contentPool.length
+                ? builder.contentPool
+                : Arrays.copyOf(builder.contentPool, builder.poolSize);
+    }
+
+    /**
+     * Creates the block of the tasks.
+     *
+     * @param tasks At most CAPACITY tasks.
+     * @return Block holding the fields of the tasks.
+     */
+    static TaskColumns of(Task[] tasks) {
+        Builder builder = new Builder(tasks.length, contentLengthOf(tasks));
+        for (Task task : tasks) {
+            builder.add(task);
+        }
+        return builder.build();
+    }
+
+    int size() {
+        return this.types.length;
+    }
+
+    /**
+     * Creates a task holding the fields stored at the position. The task is independent of the block.
+     *
+     * @param index Position of the task in the block.
+     * @param id Id of the task.
+     * @return Task at the position.
+     */
+    Task get(int index, long id) {
+        String content = getContent(index);
+        boolean isDone = isSet(this.doneFlags, index);
+        Task task;
+        if (this.types[index] == DEADLINE_TYPE) {
+            task = new Deadline(content, toLocalDateTime(this.firstTimes[index]), isDone);
+        } else if (this.types[index] == EVENT_TYPE) {
+            task = new Event(content, toLocalDateTime(this.firstTimes[index]),
+                    toLocalDateTime(this.secondTimes[index]), isDone);
+        } else {
+            task = new Todo(content, isDone);
+        }
+        task.setId(id);
+        return task;
+    }
+
+    /**
+     * Returns the content of the task at the position.
+     *
+     * @param index Position of the task in the block.
+     * @return Content of the task.
+     */
+    String getContent(int index) {
+        int start = contentStart(index);
+        int length = this.contentEnds[index] - start;
+        return new String(this.contentPool, start, length,
+                isSet(this.wideContentFlags, index) ? StandardCharsets.UTF_16BE : StandardCharsets.ISO_8859_1);
+    }
+
+    boolean isDone(int index) {
+        return isSet(this.doneFlags, index);
+    }
+
+    /**
+     * Returns whether the content of the task at the position contains the search string, exactly as
+     * String.contains would, by comparing it with the bytes of the content without creating a string.
+     *
+     * @param index Position of the task in the block.
+     * @param target Search string.
+     * @return True if the content contains the search string.
+     */
+    boolean contains(int index, String target) {
+        int start = contentStart(index);
+        if (isSet(this.wideContentFlags, index)) {
+            return containsWide(start, (this.contentEnds[index] - start) / 2, target);
+        }
+        if (target.isEmpty()) {
+            return true;
+        }
+        int lastStart = this.contentEnds[index] - target.length();
+        char first = target.charAt(0);
+        for (int i = start; i <= lastStart; i++) {
+            if ((this.contentPool[i] & 0xFF) != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < target.length() && (this.contentPool[i + j] & 0xFF) == target.charAt(j)) {
+                j++;
+            }
+            if (j == target.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean containsWide(int start, int length, String target) {
+        for (int offset = 0; offset <= length - target.length(); offset++) {
+            int j = 0;
+            while (j < target.length() && wideCharAt(start, offset + j) == target.charAt(j)) {
+                j++;
+            }
+            if (j == target.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private char wideCharAt(int start, int offset) {
+        int position = start + offset * 2;
+        return (char) ((this.contentPool[position] & 0xFF) << 8 | (this.contentPool[position + 1] & 0xFF));
+    }
+
+    /**
+     * Returns a block with the task at the position replaced.
+     */
+    TaskColumns with(int index, Task task) {
+        Builder builder = new Builder(size(), this.contentPool.length + task.getTask().length() * 2);
+        builder.addAll(this, 0, index);
+        builder.add(task);
+        builder.addAll(this, index + 1, size());
+        return builder.build();
+    }
+
+    /**
+     * Returns a block without the task at the position.
+     */
+    TaskColumns without(int index) {
+        Builder builder = new Builder(size() - 1, this.contentPool.length);
+        builder.addAll(this, 0, index);
+        builder.addAll(this, index + 1, size());
+        return builder.build();
+    }
+
+    /**
+     * Returns a block with the task appended, which must have room for it.
+     */
+    TaskColumns append(Task task) {
+        Builder builder = new Builder(size() + 1, this.contentPool.length + task.getTask().length() * 2);
+        builder.addAll(this, 0, size());
+        builder.add(task);
+        return builder.build();
+    }
+
+    /**
+     * Returns a block with the tasks of both blocks, which must fit into one.
+     */
+    TaskColumns concat(TaskColumns next) {
+        Builder builder = new Builder(size() + next.size(), this.contentPool.length + next.contentPool.length);
+        builder.addAll(this, 0, size());
+        builder.addAll(next, 0, next.size());
+        return builder.build();
+    }
+
+    private int contentStart(int index) {
+        return index == 0 ? 0 : this.contentEnds[index - 1];
+    }
+
+    private static int contentLengthOf(Task[] tasks) {
+        int length = 0;
+        for (Task task : tasks) {
+            length += task.getTask().length();
+        }
+        return length;
+    }
+
+    private static boolean isSet(long bits, int index) {
+        return (bits & (1L << index)) != 0;
+    }
+
+    private static byte typeOf(Task task) {
+        if (task.getTaskType() == TaskType.DEADLINE) {
+            return DEADLINE_TYPE;
+        } else if (task.getTaskType() == TaskType.EVENT) {
+            return EVENT_TYPE;
+        }
+        return TODO_TYPE;
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime == null ? NO_TIME : dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochSecond) {
+        return epochSecond == NO_TIME ? null : LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Collects the columns of a new block, from tasks or from positions of other blocks, until it is full.
+     */
+    private static final class Builder {
+        private final byte[] types;
+        private final long[] firstTimes;
+        private final long[] secondTimes;
+        private final int[] contentEnds;
+        private byte[] contentPool;
+        private long doneFlags;
+        private long wideContentFlags;
+        private int size;
+        private int poolSize;
+
+        Builder(int capacity, int poolCapacity) {
+            assert capacity <= CAPACITY;
+            this.types = new byte[capacity];
+            this.firstTimes = new long[capacity];
+            this.secondTimes = new long[capacity];
+            this.contentEnds = new int[capacity];
+            this.contentPool = new byte[poolCapacity];
+        }
+
+        void add(Task task) {
+            this.types[this.size] = typeOf(task);
+            this.firstTimes[this.size] = NO_TIME;
+            this.secondTimes[this.size] = NO_TIME;
+            if (task instanceof Deadline) {
+                this.firstTimes[this.size] = toEpochSecond(((Deadline) task).getDeadline());
+            } else if (task instanceof Event) {
+                this.firstTimes[this.size] = toEpochSecond(((Event) task).getFrom());
+                this.secondTimes[this.size] = toEpochSecond(((Event) task).getTo());
+            }
+            String content = task.getTask();
+            boolean isWide = false;
+            for (int i = 0; i < content.length() && !isWide; i++) {
+                isWide = content.charAt(i) > LATIN1_MAX;
+            }
+            byte[] bytes = content.getBytes(isWide ? StandardCharsets.UTF_16BE : StandardCharsets.ISO_8859_1);
+            addContent(bytes, 0, bytes.length);
+            finishTask(task.getStatus(), isWide);
+        }
+
+        void addAll(TaskColumns columns, int from, int to) {
+            for (int i = from; i < to; i++) {
+                this.types[this.size] = columns.types[i];
+                this.firstTimes[this.size] = columns.firstTimes[i];
+                this.secondTimes[this.size] = columns.secondTimes[i];
+                int start = columns.contentStart(i);
+                addContent(columns.contentPool, start, columns.contentEnds[i] - start);
+                finishTask(isSet(columns.doneFlags, i), isSet(columns.wideContentFlags, i));
+            }
+        }
+
+        private void addContent(byte[] bytes, int from, int length) {
+            if (this.poolSize + length > this.contentPool.length) {
+                this.contentPool = Arrays.copyOf(this.contentPool, Math.max(this.poolSize + length,
+                        this.contentPool.length * 2));
+            }
+            System.arraycopy(bytes, from, this.contentPool, this.poolSize, length);
+            this.poolSize += length;
+        }
+
+        private void finishTask(boolean isDone, boolean isWide) {
+            if (isDone) {
+                this.doneFlags |= 1L << this.size;
+            }
+            if (isWide) {
+                this.wideContentFlags |= 1L << this.size;
+            }
+            this.contentEnds[this.size++] = this.poolSize;
+        }
+
+        TaskColumns build() {
+            return new TaskColumns(this);
+        }
+    }
+}
@@ -1,36 +1,217 @@
 package bytetalker.task;
 
-import bytetalker.exception.UnsupportedCommandException;
-import bytetalker.exception.CommandWrongFormatExcpetion;
-import bytetalker.exception.TodoUnsupportedFormatException;
-import bytetalker.exception.DeadlineUnsupportedFormatException;
-import bytetalker.exception.EventUnsupportedFormatException;
 import bytetalker.exception.UnsupportedDateTimeFormatException;
 
+import bytetalker.parser.ParseError;
+import bytetalker.parser.ParseResult;
 import bytetalker.parser.Parser;
+import bytetalker.parser.Tokenizer;
 import bytetalker.storage.Storage;
 import bytetalker.ui.Ui;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Represents a list of task and operations to process the task.
+ * Tasks can be referred to by their position in the list, or by # followed by their id, which stays the same while
+ * other tasks are added or deleted. Mark, unmark and delete also take a selection of several tasks, which is
+ * applied in one pass and saved once.
+ * Invalid input is rejected through the ParseResult returned by the parser rather than through exceptions, as
+ * scripts may contain many malformed lines.
  */
 public class TaskList {
-    private ArrayList<Task> tasks;
+    private static final String FIND_ALL_FLAG = "--all";
+    private static final String FIND_ANY_FLAG = "--any";
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final String ID_PREFIX = "#";
+    private static final String LIST_SEPARATOR = ",";
+    private static final char RANGE_SEPARATOR = '-';
+    private static final String DONE_SELECTION = "done";
+    private static final String UNDONE_SELECTION = "undone";
+    private static final String ALL_SELECTION = "all";
+    private static final String MATCHING_WORD = "matching";
 
-    public TaskList(ArrayList<Task> tasks) {
+    private TaskSequence tasks;
+    private KeywordIndex keywordIndex;
+    private TimeIndex timeIndex;
+    private long nextId;
+    private ContentDictionary contentDictionary;
+
+    public TaskList(List<Task> tasks) {
+        this(tasks, null);
+    }
+
+    /**
+     * Creates a list of the tasks whose added and updated contents are shared through the dictionary.
+     * The contents of the given tasks are expected to be shared already, as they are when loaded by a storage
+     * using the same dictionary.
+     *
+     * @param tasks List of tasks.
+     * @param contentDictionary Dictionary sharing equal contents, or null if contents are not shared.
+     */
+    public TaskList(List<Task> tasks, ContentDictionary contentDictionary) {
+        this(tasks, contentDictionary, TaskStore.OBJECTS);
+    }
+
+    /**
+     * Creates a list of the tasks kept in memory the given way, whose added and updated contents are shared through
+     * the dictionary. Tasks kept in columns are created whenever they are read, so their contents are not shared.
+     *
+     * @param tasks List of tasks.
+     * @param contentDictionary Dictionary sharing equal contents, or null if contents are not shared.
+     * @param store Way the tasks are kept in memory.
+     */
+    public TaskList(List<Task> tasks, ContentDictionary contentDictionary, TaskStore store) {
+        this.nextId = assignIds(tasks);
+        this.tasks = TaskSequence.of(tasks, store);
+        this.contentDictionary = contentDictionary;
+        this.keywordIndex = new KeywordIndex(this.tasks);
+        this.timeIndex = new TimeIndex(this.tasks);
+    }
+
+    private TaskList(TaskSequence tasks, KeywordIndex keywordIndex, TimeIndex timeIndex, long nextId) {
         this.tasks = tasks;
+        this.keywordIndex = keywordIndex;
+        this.timeIndex = timeIndex;
+        this.nextId = nextId;
     }
 
-    public ArrayList<Task> getTasks() {
+    /**
+     * Gives the tasks without an id the next free ids in the order they appear in the list, so a list saved before
+     * ids existed gets the same ids every time it is loaded.
+     *
+     * @param tasks List of tasks.
+     * @return Next free id after every id in the list.
+     */
+    public static long assignIds(List<Task> tasks) {
+        long maxId = 0;
+        for (Task task : tasks) {
+            maxId = Math.max(maxId, task.getId());
+        }
+        for (Task task : tasks) {
+            if (task.getId() == 0) {
+                task.setId(++maxId);
+            }
+        }
+        return maxId + 1;
+    }
+
+    /**
+     * Returns the tasks in the list as an unmodifiable list, which is not affected by later changes to the list.
+     *
+     * @return Tasks in the list.
+     */
+    public List<Task> getTasks() {
         return this.tasks;
     }
 
+    /**
+     * Returns the task with the id.
+     *
+     * @param id Id of the task.
+     * @return Task with the id, or null if there is no such task in the list.
+     */
+    public Task getTaskById(long id) {
+        int position = this.tasks.positionOf(id);
+        return position < 0 ? null : this.tasks.get(position);
+    }
+
+    /**
+     * Returns the index of the task referred to by the user, either by its position in the list or by # followed
+     * by its id.
+     *
+     * @param reference Position of the task, or # followed by its id.
+     * @return Index of the task in the list, which is -1 if there is no task with the id, or NOT_A_NUMBER if the
+     *     reference is not a number.
+     */
+    private ParseResult<Integer> findIndex(String reference) {
+        if (!reference.startsWith(ID_PREFIX)) {
+            return findPosition(reference);
+        }
+        ParseResult<Long> id = Parser.parseNumber(reference.substring(ID_PREFIX.length()), Long.MAX_VALUE);
+        if (!id.isSuccess()) {
+            return ParseResult.failure(ParseError.NOT_A_NUMBER);
+        }
+        return ParseResult.success(this.tasks.positionOf(id.getValue()));
+    }
+
+    private static ParseResult<Integer> findPosition(String position) {
+        ParseResult<Long> number = Parser.parseNumber(position, Integer.MAX_VALUE);
+        return number.isSuccess()
+                ? ParseResult.success(number.getValue().intValue() - 1)
+                : ParseResult.failure(ParseError.NOT_A_NUMBER);
+    }
+
+    /**
+     * Returns the message shown to the user for input rejected by the parser.
+     */
+    private static String showParseError(ParseResult<?> result, Ui ui) {
+        if (result.getError() == ParseError.NOT_A_NUMBER) {
+            return ui.showMissingIndexMessage();
+        } else if (result.getError() == ParseError.INVALID_INDEX) {
+            return ui.showInvalidIndexMessage();
+        }
+        return result.getMessage();
+    }
+
+    /**
+     * Returns a copy of the list, which is not affected by later changes to the list.
+     * The tasks and the indexes are immutable and a changed task is replaced by a changed copy, so the copy shares
+     * them with the list and is taken in O(1).
+     *
+     * @return Copy of the list.
+     */
+    public TaskList snapshot() {
+        TaskList snapshot = new TaskList(this.tasks, this.keywordIndex, this.timeIndex, this.nextId);
+        snapshot.contentDictionary = this.contentDictionary;
+        return snapshot;
+    }
+
+    /**
+     * Replaces the content of the list with a copy taken earlier. Ids given out since then are not given out again.
+     *
+     * @param snapshot Copy of the list taken with snapshot.
+     */
+    public void restore(TaskList snapshot) {
+        this.tasks = snapshot.tasks;
+        this.keywordIndex = snapshot.keywordIndex;
+        this.timeIndex = snapshot.timeIndex;
+        this.nextId = Math.max(this.nextId, snapshot.nextId);
+        if (this.contentDictionary != null) {
+            this.contentDictionary.reset(this.tasks);
+        }
+    }
+
+    /**
+     * Lists the tasks in the list. Without any parameter every task is listed, otherwise only the requested page.
+     *
+     * @param splitMessages Parsed messages of user input and processed by Parser.
+     * @param ui Utility object to print out the message to user to inform the result of the method.
+     * @return Message containing the listed tasks.
+     */
+    public String listTasks(String[] splitMessages, Ui ui) {
+        assert tasks != null;
+        assert splitMessages != null;
+        assert ui != null;
+
+        if (splitMessages.length <= 1) {
+            return ui.returnList(this.tasks);
+        }
+        ParseResult<int[]> pageAndPageSize = Parser.validateListInput(splitMessages, DEFAULT_PAGE_SIZE);
+        if (!pageAndPageSize.isSuccess()) {
+            return pageAndPageSize.getMessage();
+        }
+        return ui.returnListPage(this.tasks, pageAndPageSize.getValue()[0], pageAndPageSize.getValue()[1]);
+    }
+
     /**
      * Changes the status of the specified task as done.
+     * Several tasks can be selected at once with done, undone, all matching {keyword}, or a comma separated list
+     * of positions, #ids and ranges of positions such as 1-200.
      *
      * @param splitMessages Parsed messages of user input and processed by Parser.
      * @param storage Utility object to store the changed list of tasks into the hard disk.
@@ -42,28 +223,37 @@ public class TaskList {
         assert splitMessages != null;
         assert ui != null;
 
-        int index = 0;
+        if (isSelection(splitMessages)) {
+            return markTasks(String.join(" ", splitMessages), true, storage, ui);
+        }
+        if (!Parser.hasArguments(splitMessages)) {
+            return ParseError.WRONG_FORMAT.getMessage();
+        }
+        ParseResult<Integer> reference = findIndex(splitMessages[1]);
+        if (!reference.isSuccess()) {
+            return showParseError(reference, ui);
+        }
+        int index = reference.getValue();
+        if (index < 0 || index >= this.tasks.size()) {
+            return ui.showInvalidIndexMessage();
+        }
+        TaskSequence originalTasks = this.tasks;
         try {
-            Parser.checkCommand(splitMessages);
-            index = Integer.parseInt(splitMessages[1]) - 1;
-            if (index < 0 || index >= this.tasks.size()) {
-                return ui.showInvalidIndexMessage();
-            }
-            this.tasks.get(index).setStatus(true);
-            storage.storeTasks(this.tasks);
-            return ui.showMarkTaskMsg(this.tasks.get(index));
-        } catch (NumberFormatException e) {
-            return ui.showMissingIndexMessage();
-        } catch (CommandWrongFormatExcpetion e) {
-            return e.getMessage();
+            Task task = this.tasks.get(index).copy();
+            task.setStatus(true);
+            this.tasks = this.tasks.with(index, task);
+            storage.storeChangedTask(this.tasks, index);
+            return ui.showMarkTaskMsg(task);
         } catch (IOException e) {
-            this.tasks.get(index).setStatus(false);
+            this.tasks = originalTasks;
             return ui.showStoreTaskErrorMessage();
         }
     }
 
     /**
      * Changes the status of the specified task as undone
+     * Several tasks can be selected at once with done, undone, all matching {keyword}, or a comma separated list
+     * of positions, #ids and ranges of positions such as 1-200.
      *
      * @param splitMessages Parsed messages of user input and processed by Parser.
      * @param storage Utility object to store the changed list of tasks into the hard disk.
@@ -76,24 +266,183 @@ public class TaskList {
         assert ui != null;
         assert storage != null;
 
-        int index = 0;
+        if (isSelection(splitMessages)) {
+            return markTasks(String.join(" ", splitMessages), false, storage, ui);
+        }
+        if (!Parser.hasArguments(splitMessages)) {
+            return ParseError.WRONG_FORMAT.getMessage();
+        }
+        ParseResult<Integer> reference = findIndex(splitMessages[1]);
+        if (!reference.isSuccess()) {
+            return showParseError(reference, ui);
+        }
+        int index = reference.getValue();
+        if (index < 0 || index >= this.tasks.size()) {
+            return ui.showInvalidIndexMessage();
+        }
+        TaskSequence originalTasks = this.tasks;
+        try {
+            Task task = this.tasks.get(index).copy();
+            task.setStatus(false);
+            this.tasks = this.tasks.with(index, task);
+            storage.storeChangedTask(this.tasks, index);
+            return ui.showUnmarkTaskMsg(task);
+        } catch (IOException e) {
+            this.tasks = originalTasks;
+            return ui.showStoreTaskErrorMessage();
+        }
+    }
+
+    private static boolean isSelection(String[] splitMessages) {
+        if (splitMessages.length <= 1) {
+            return false;
+        }
+        String reference = splitMessages[1];
+        return reference.equals(DONE_SELECTION) || reference.equals(UNDONE_SELECTION)
+                || reference.equals(ALL_SELECTION) || reference.contains(LIST_SEPARATOR)
+                || reference.indexOf(RANGE_SEPARATOR, 1) > 0;
+    }
+
+    /**
+     * Selects the tasks a bulk command applies to. The selection is either done, undone, all matching {keyword}
+     * with the keyword found as by find, or a comma separated list of positions, #ids and ranges of positions such
+     * as 1-200.
+     *
+     * @param input User input.
+     * @return Whether each task of the list is selected, or INVALID_INDEX if a position or id does not exist,
+     *     NOT_A_NUMBER if a position or id is not a number, or WRONG_FORMAT if all is not followed by matching and a
+     *     keyword.
+     */
+    private ParseResult<boolean[]> selectTasks(String input) {
+        String selection = Tokenizer.afterWords(input, 1);
+        if (selection.equals(DONE_SELECTION) || selection.equals(UNDONE_SELECTION)) {
+            return ParseResult.success(this.tasks.selectByStatus(selection.equals(DONE_SELECTION)));
+        }
+        boolean[] isSelected = new boolean[this.tasks.size()];
+        if (Tokenizer.word(input, 1).equals(ALL_SELECTION)) {
+            String keyword = Tokenizer.afterWords(input, 3);
+            if (!MATCHING_WORD.equals(Tokenizer.word(input, 2)) || keyword.isEmpty()) {
+                return ParseResult.failure(ParseError.WRONG_FORMAT,
+                        "Wrong command format. Please use " + Tokenizer.word(input, 0) + " all matching {keyword}.");
+            }
+            for (Task task : this.keywordIndex.find(this.tasks, keyword)) {
+                isSelected[this.tasks.positionOf(task.getId())] = true;
+            }
+            return ParseResult.success(isSelected);
+        }
+        for (String item : selection.split(LIST_SEPARATOR)) {
+            String reference = item.strip();
+            int rangeSeparator = reference.indexOf(RANGE_SEPARATOR, 1);
+            ParseResult<Integer> first;
+            ParseResult<Integer> last;
+            if (rangeSeparator > 0 && !reference.startsWith(ID_PREFIX)) {
+                first = findPosition(reference.substring(0, rangeSeparator).strip());
+                last = findPosition(reference.substring(rangeSeparator + 1).strip());
+            } else {
+                first = findIndex(reference);
+                last = first;
+            }
+            if (!first.isSuccess() || !last.isSuccess()) {
+                return ParseResult.failure(ParseError.NOT_A_NUMBER);
+            }
+            int firstIndex = first.getValue();
+            int lastIndex = last.getValue();
+            if (firstIndex < 0 || lastIndex >= this.tasks.size() || firstIndex > lastIndex) {
+                return ParseResult.failure(ParseError.INVALID_INDEX);
+            }
+            Arrays.fill(isSelected, firstIndex, lastIndex + 1, true);
+        }
+        return ParseResult.success(isSelected);
+    }
+
+    /**
+     * Changes the status of every selected task and saves the list once.
+     *
+     * @param input User input.
+     * @param isDone Status the tasks are changed to.
+     * @param storage Utility object to store the changed list of tasks into the hard disk.
+     * @param ui Utility object to print out the message to user to inform the result of the method.
+     * @return Message for successful or unsuccessful execution
+     */
+    private String markTasks(String input, boolean isDone, Storage storage, Ui ui) {
+        ParseResult<boolean[]> selection = selectTasks(input);
+        if (!selection.isSuccess()) {
+            return showParseError(selection, ui);
+        }
+        boolean[] isSelected = selection.getValue();
+
+        TaskSequence originalTasks = this.tasks;
+        ArrayList<Task> newTasks = new ArrayList<>(originalTasks.size());
+        ArrayList<Task> selectedTasks = new ArrayList<>();
+        boolean isChanged = false;
+        int position = 0;
+        for (Task task : originalTasks) {
+            if (isSelected[position++] && task.getStatus() != isDone) {
+                task = task.copy();
+                task.setStatus(isDone);
+                isChanged = true;
+            }
+            if (isSelected[position - 1]) {
+                selectedTasks.add(task);
+            }
+            newTasks.add(task);
+        }
+        if (!isChanged) {
+            return ui.showMarkTasksMsg(selectedTasks, isDone);
+        }
+        this.tasks = TaskSequence.of(newTasks, originalTasks.getStore());
         try {
-            Parser.checkCommand(splitMessages);
-            index = Integer.parseInt(splitMessages[1]) - 1;
-            if (index < 0 || index >= this.tasks.size()) {
-                return ui.showInvalidIndexMessage();
+            storage.storeTasks(this.tasks);
+            return ui.showMarkTasksMsg(selectedTasks, isDone);
+        } catch (IOException e) {
+            this.tasks = originalTasks;
+            return ui.showStoreTaskErrorMessage();
+        }
+    }
+
+    /**
+     * Deletes every selected task by rebuilding the list from the kept tasks in a single pass and saves the list
+     * once.
+     *
+     * @param input User input.
+     * @param storage Utility object to store the changed list of tasks into hard disk.
+     * @param ui Utility object to print out the message to user to result the process of the method.
+     * @return Message for successful or unsuccessful execution
+     */
+    private String deleteTasks(String input, Storage storage, Ui ui) {
+        ParseResult<boolean[]> selection = selectTasks(input);
+        if (!selection.isSuccess()) {
+            return showParseError(selection, ui);
+        }
+        boolean[] isSelected = selection.getValue();
+
+        TaskSequence originalTasks = this.tasks;
+        ArrayList<Task> keptTasks = new ArrayList<>(originalTasks.size());
+        ArrayList<Task> deletedTasks = new ArrayList<>();
+        int position = 0;
+        for (Task task : originalTasks) {
+            if (isSelected[position++]) {
+                deletedTasks.add(task);
+            } else {
+                keptTasks.add(task);
             }
-            this.tasks.get(index).setStatus(false);
+        }
+        if (deletedTasks.isEmpty()) {
+            return ui.showDeleteTasksMsg(deletedTasks, this.tasks.size());
+        }
+        this.tasks = TaskSequence.of(keptTasks, originalTasks.getStore());
+        try {
             storage.storeTasks(this.tasks);
-            return ui.showUnmarkTaskMsg(this.tasks.get(index));
-        } catch (NumberFormatException e) {
-            return ui.showMissingIndexMessage();
-        } catch (CommandWrongFormatExcpetion e) {
-            return e.getMessage();
         } catch (IOException e) {
-            this.tasks.get(index).setStatus(true);
+            this.tasks = originalTasks;
             return ui.showStoreTaskErrorMessage();
         }
+        for (Task task : deletedTasks) {
+            this.keywordIndex = this.keywordIndex.remove(task);
+            this.timeIndex = this.timeIndex.remove(task);
+            releaseContent(task.getTask());
+        }
+        return ui.showDeleteTasksMsg(deletedTasks, this.tasks.size());
     }
 
     /**
@@ -101,61 +450,122 @@ public class TaskList {
      * It is a general method that calls individual methods to add todo, deadline and event
      * to the list.
      *
-     * @param messageContainer Parsed messages of user input and processed by Parser.
+     * @param input User input.
      * @param storage Utility object to store the changed list of tasks into the hard disk.
      * @param ui Utility object to print out the message to user to inform the result of the method.
      * @return Message for successful or unsuccessful execution
      */
-
-    public String addTask(String[] messageContainer, Storage storage, Ui ui) {
+    public String addTask(String input, Storage storage, Ui ui) {
+        ParseResult<Task> result = parseTask(input);
+        if (!result.isSuccess()) {
+            return result.getMessage();
+        }
+        Task task = result.getValue();
+        task.shareContent(shareContent(task.getTask()));
+        TaskSequence originalTasks = this.tasks;
         try {
-            Task task = determineTaskToBeAdded(messageContainer);
-            if (task == null) {
-                throw new CommandWrongFormatExcpetion(
-                        "Wrong command format. Please follow the correct format.");
-            }
-            this.tasks.add(task);
-            storage.storeTasks(this.tasks);
+            task.setId(this.nextId++);
+            this.tasks = this.tasks.append(task);
+            storage.storeAddedTask(this.tasks, task);
+            this.keywordIndex = this.keywordIndex.add(task);
+            this.timeIndex = this.timeIndex.add(task);
             return ui.showAddTaskMsg(task, this.tasks.size());
         } catch (IOException e) {
-            this.tasks.remove(this.tasks.size() - 1);
+            this.tasks = originalTasks;
+            releaseContent(task.getTask());
             return ui.showStoreTaskErrorMessage();
-        } catch (UnsupportedCommandException ex) {
-            String errorUnsupportedMessage = ex.getMessage()
-                    + ". Please only enter the supported types of task.";
-            return errorUnsupportedMessage;
-        } catch (UnsupportedDateTimeFormatException ex) {
-            String errorUnsupportedDateTimeMessage = ex.getMessage() + ".";
-            return errorUnsupportedDateTimeMessage;
-        } catch (CommandWrongFormatExcpetion e) {
-            return e.getMessage();
         }
     }
 
     /**
-     * Determines the type of the task and call the respective
-     * methods of that type of task to add the task into the
-     * list.
+     * Adds a task to the list.
+     * It is a general method that calls individual methods to add todo, deadline and event
+     * to the list.
      *
      * @param messageContainer Parsed messages of user input and processed by Parser.
-     * @return Task object ready to be added to the list.
-     * @throws UnsupportedCommandException
-     */
-    private Task determineTaskToBeAdded(String[] messageContainer)
-            throws UnsupportedCommandException,
-            UnsupportedDateTimeFormatException{
-        boolean isTodo = messageContainer[0].equals("todo");
-        boolean isDeadline = messageContainer[0].equals("deadline");
-        boolean isEvent = messageContainer[0].equals("event");
-        if (isTodo) {
-            return addTodo(messageContainer);
-        } else if (isDeadline) {
-            return addDeadline(messageContainer);
-        } else if (isEvent) {
-            return addEvent(messageContainer);
+     * @param storage Utility object to store the changed list of tasks into the hard disk.
+     * @param ui Utility object to print out the message to user to inform the result of the method.
+     * @return Message for successful or unsuccessful execution
+     */
+    public String addTask(String[] messageContainer, Storage storage, Ui ui) {
+        return addTask(String.join(" ", messageContainer), storage, ui);
+    }
+
+    /**
+     * Determines the type of the task and calls the respective
+     * methods of that type of task to create the task to be added
+     * into the list.
+     *
+     * @param input User input.
+     * @return Task object ready to be added to the list, or the reason the input has been rejected.
+     */
+    private ParseResult<Task> parseTask(String input) {
+        String command = Tokenizer.word(input, 0);
+        if (command.equals("todo")) {
+            return parseTodo(input);
+        } else if (command.equals("deadline")) {
+            return parseDeadline(input);
+        } else if (command.equals("event")) {
+            return parseEvent(input);
         } else {
-            throw new UnsupportedCommandException("This is unsupported task");
+            return ParseResult.failure(ParseError.UNSUPPORTED_TASK);
+        }
+    }
+
+    private static ParseResult<Task> parseTodo(String input) {
+        ParseResult<String[]> parsedTodoInputs = Parser.validateTodoAddInput(input);
+        if (!parsedTodoInputs.isSuccess()) {
+            return ParseResult.failure(parsedTodoInputs.getError());
         }
+        return ParseResult.success(new Todo(parsedTodoInputs.getValue()[0]));
+    }
+
+    private static ParseResult<Task> parseDeadline(String input) {
+        ParseResult<String[]> parsedDeadlineInput = Parser.validateDeadlineAddInput(input);
+        if (!parsedDeadlineInput.isSuccess()) {
+            return ParseResult.failure(parsedDeadlineInput.getError());
+        }
+        LocalDateTime deadline = Parser.parseDateTime(parsedDeadlineInput.getValue()[1]);
+        if (deadline == null) {
+            return ParseResult.failure(ParseError.UNSUPPORTED_DATE_TIME);
+        }
+        return ParseResult.success(new Deadline(parsedDeadlineInput.getValue()[0], deadline));
+    }
+
+    private static ParseResult<Task> parseEvent(String input) {
+        ParseResult<String[]> parsedEventInput = Parser.validateEventAddInput(input);
+        if (!parsedEventInput.isSuccess()) {
+            return ParseResult.failure(parsedEventInput.getError());
+        }
+        LocalDateTime from = Parser.parseDateTime(parsedEventInput.getValue()[1]);
+        LocalDateTime to = Parser.parseDateTime(parsedEventInput.getValue()[2]);
+        if (from == null || to == null) {
+            return ParseResult.failure(ParseError.UNSUPPORTED_DATE_TIME);
+        }
+        return ParseResult.success(new Event(parsedEventInput.getValue()[0], from, to));
+    }
+
+    private String shareContent(String content) {
+        return this.contentDictionary == null ? content : this.contentDictionary.intern(content);
+    }
+
+    private void releaseContent(String content) {
+        if (this.contentDictionary != null) {
+            this.contentDictionary.release(content);
+        }
+    }
+
+    /**
+     * Creates a Todo object based on the user input.
+     *
+     * @param input User input.
+     * @return Todo object that contains the task content specified by user.
+     */
+    public Todo addTodo(String input) {
+        assert tasks != null;
+        assert input != null;
+
+        return (Todo) parseTodo(input).getValue();
     }
 
     /**
@@ -165,17 +575,21 @@ public class TaskList {
      * @return Todo object that contains the task content specified by user.
      */
     public Todo addTodo(String[] splitMessages) {
+        return addTodo(String.join(" ", splitMessages));
+    }
+
+    /**
+     * Creates a Deadline object based on the user input.
+     *
+     * @param input User input.
+     * @return Deadline object that contains the task content and deadline of the task specified by the user.
+     */
+    public Deadline addDeadline(String input)
+            throws UnsupportedDateTimeFormatException {
         assert tasks != null;
-        assert splitMessages != null;
+        assert input != null;
 
-        Todo task = null;
-        try {
-            String[] parsedTodoInputs = Parser.parseTodoAddInput(splitMessages);
-            task = new Todo(parsedTodoInputs[0]);
-            return task;
-        } catch (TodoUnsupportedFormatException e) {
-            return null;
-        }
+        return (Deadline) valueOrThrow(parseDeadline(input));
     }
 
     /**
@@ -186,22 +600,20 @@ public class TaskList {
      */
     public Deadline addDeadline(String[] splitMessages)
             throws UnsupportedDateTimeFormatException {
+        return addDeadline(String.join(" ", splitMessages));
+    }
+
+    /**
+     * Creates an Event object based on the user input.
+     *
+     * @param input User input.
+     * @return Event object that contains the event information, from when and until when specified by the user.
+     */
+    public Event addEvent(String input) throws UnsupportedDateTimeFormatException {
         assert tasks != null;
-        assert splitMessages != null;
+        assert input != null;
 
-        Deadline task = null;
-        try {
-            String[] parsedDeadlineInput = Parser.parseDeadlineAddInput(splitMessages);
-            if (Parser.parseDateTime(parsedDeadlineInput[1]) == null) {
-                throw new UnsupportedDateTimeFormatException(
-                        "Please use the correct format of DateTime");
-            }
-            task = new Deadline(parsedDeadlineInput[0],
-                    Parser.parseDateTime(parsedDeadlineInput[1]));
-            return task;
-        } catch (DeadlineUnsupportedFormatException e) {
-            return null;
-        }
+        return (Event) valueOrThrow(parseEvent(input));
     }
 
     /**
@@ -211,26 +623,25 @@ public class TaskList {
      * @return Event object that contains the event information, from when and until when specified by the user.
      */
     public Event addEvent(String[] splitMessages) throws UnsupportedDateTimeFormatException {
-        assert tasks != null;
-        assert splitMessages != null;
+        return addEvent(String.join(" ", splitMessages));
+    }
 
-        Event task = null;
-        try {
-            String[] parsedEventInput = Parser.parseEventAddInput(splitMessages);
-            if (Parser.parseDateTime(parsedEventInput[1]) == null
-                    || Parser.parseDateTime(parsedEventInput[2]) == null) {
-                throw new UnsupportedDateTimeFormatException("Please use the correct format of DateTime");
-            }
-            task = new Event(parsedEventInput[0], Parser.parseDateTime(parsedEventInput[1]),
-                    Parser.parseDateTime(parsedEventInput[2]));
-            return task;
-        } catch (EventUnsupportedFormatException e) {
-            return null;
+    /**
+     * Returns the task, null if the format is wrong, or throws if the date and time cannot be parsed.
+     */
+    private static Task valueOrThrow(ParseResult<Task> result) throws UnsupportedDateTimeFormatException {
+        if (result.getError() == ParseError.UNSUPPORTED_DATE_TIME) {
+            throw new UnsupportedDateTimeFormatException("Please use the correct format of DateTime");
         }
+        return result.getValue();
     }
 
     /**
      * Deletes the specified task from the list
+     * Several tasks can be selected at once with done, undone, all matching {keyword}, or a comma separated list
+     * of positions, #ids and ranges of positions such as 1-200.
+     * A task referred to by #id is found and removed in O(log n), as neither finding it nor removing it from the
+     * tree holding the list moves the tasks after it.
      *
      * @param splitMessages Parsed messages of user input and processed by Parser.
      * @param storage Utility object to store the changed list of tasks into hard disk.
@@ -241,161 +652,249 @@ public class TaskList {
         assert tasks != null;
         assert ui != null;
         assert storage != null;
-        int position = 0;
-        try {
-            Parser.checkCommand(splitMessages);
-            position = Integer.parseInt(splitMessages[1]);
-            if (position - 1 < 0 || position - 1 >= this.tasks.size()) {
-                return ui.showInvalidIndexMessage();
-            }
-        } catch (NumberFormatException e) {
-            return ui.showMissingIndexMessage();
-        } catch (CommandWrongFormatExcpetion e) {
-            return e.getMessage();
+
+        if (isSelection(splitMessages)) {
+            return deleteTasks(String.join(" ", splitMessages), storage, ui);
+        }
+        if (!Parser.hasArguments(splitMessages)) {
+            return ParseError.WRONG_FORMAT.getMessage();
+        }
+        ParseResult<Integer> reference = findIndex(splitMessages[1]);
+        if (!reference.isSuccess()) {
+            return showParseError(reference, ui);
+        }
+        int position = reference.getValue() + 1;
+        if (position - 1 < 0 || position - 1 >= this.tasks.size()) {
+            return ui.showInvalidIndexMessage();
         }
 
+        TaskSequence originalTasks = this.tasks;
         Task task = this.tasks.get(position - 1);
         try {
-            this.tasks.remove(position - 1);
-            storage.storeTasks(this.tasks);
+            this.tasks = this.tasks.without(position - 1);
+            storage.storeDeletedTask(this.tasks, position - 1);
+            this.keywordIndex = this.keywordIndex.remove(task);
+            this.timeIndex = this.timeIndex.remove(task);
+            releaseContent(task.getTask());
             return ui.showDeleteTaskMsg(task, this.tasks.size());
         } catch (IOException e) {
-            this.tasks.add(position - 1, task);
+            this.tasks = originalTasks;
             return ui.showStoreTaskErrorMessage();
         }
     }
 
     /**
-     * Finds all the tasks with content that contains the user input.
+     * Finds all the tasks with content that contains the user input as whole words, or anywhere in the content if
+     * no task has one of its words.
+     * With --all or --any as the first word, finds the tasks containing all or any of the following words instead.
      *
-     * @param splitMessages Parsed messages of user input and processed by Parser.
+     * @param input User input.
      * @param ui Utility object to print out the message to user to inform the result of the method.
      * @return Message for successful or unsuccessful execution
      */
-    public String findTask(String[] splitMessages, Ui ui) {
+    public String findTask(String input, Ui ui) {
         assert tasks != null;
-        assert splitMessages != null;
+        assert input != null;
         assert ui != null;
 
-        try {
-            Parser.checkCommand(splitMessages);
-        } catch (CommandWrongFormatExcpetion e) {
-            return e.getMessage();
+        if (!Parser.hasArguments(input)) {
+            return ParseError.WRONG_FORMAT.getMessage();
         }
 
-        String content = Parser.parseFindInput(splitMessages);
-        ArrayList<Task> foundTasks = new ArrayList<>();
-        for (int i = 0; i < this.tasks.size(); i++) {
-            Task currentTask = this.tasks.get(i);
-            if (currentTask.getTask().contains(content)) {
-                foundTasks.add(currentTask);
+        String flag = Tokenizer.word(input, 1);
+        if (flag.equals(FIND_ALL_FLAG) || flag.equals(FIND_ANY_FLAG)) {
+            String[] splitMessages = Parser.parse(input);
+            ArrayList<String> terms = new ArrayList<>();
+            for (int i = 2; i < splitMessages.length; i++) {
+                if (!splitMessages[i].isEmpty()) {
+                    terms.add(splitMessages[i]);
+                }
             }
+            if (terms.isEmpty()) {
+                return ParseError.WRONG_FORMAT.getMessage();
+            }
+            return ui.displayFoundTasks(flag.equals(FIND_ALL_FLAG)
+                    ? this.keywordIndex.findAll(this.tasks, terms)
+                    : this.keywordIndex.findAny(this.tasks, terms));
         }
-        return ui.displayFoundTasks(foundTasks);
+
+        String content = Parser.parseFindInput(input);
+        return ui.displayFoundTasks(this.keywordIndex.find(this.tasks, content));
     }
 
     /**
-     * Updates a parameter of the task based on user input.
+     * Finds all the tasks with content that contains the user input as whole words, or anywhere in the content if
+     * no task has one of its words.
+     * With --all or --any as the first word, finds the tasks containing all or any of the following words instead.
      *
      * @param splitMessages Parsed messages of user input and processed by Parser.
+     * @param ui Utility object to print out the message to user to inform the result of the method.
+     * @return Message for successful or unsuccessful execution
+     */
+    public String findTask(String[] splitMessages, Ui ui) {
+        return findTask(String.join(" ", splitMessages), ui);
+    }
+
+    /**
+     * Finds the deadlines due and the events happening within the period given by the user.
+     *
+     * @param splitMessages Parsed messages of user input and processed by Parser.
+     * @param ui Utility object to print out the message to user to inform the result of the method.
+     * @return Message for successful or unsuccessful execution
+     */
+    public String queryTasks(String[] splitMessages, Ui ui) {
+        assert splitMessages != null;
+        assert ui != null;
+
+        ParseResult<LocalDateTime[]> period = Parser.validateQueryInput(splitMessages);
+        if (!period.isSuccess()) {
+            return period.getMessage();
+        }
+        LocalDateTime[] bounds = period.getValue();
+        return ui.displayScheduledTasks(this.timeIndex.findBetween(this.tasks, bounds[0], bounds[1]));
+    }
+
+    /**
+     * Updates a parameter of the task based on user input.
+     *
+     * @param input User input.
      * @param storage Utility object to store the changed list of tasks into hard disk.
      * @param ui Utility object to print out the message to user to inform the result of the method.
      * @return Message for successful or unsuccessful execution
      */
-    public String editTask(String[] splitMessages, Storage storage, Ui ui) {
-        int index = 0;
+    public String editTask(String input, Storage storage, Ui ui) {
+        if (!Parser.hasArguments(input)) {
+            return ParseError.WRONG_FORMAT.getMessage();
+        }
+        ParseResult<Integer> reference = findIndex(Tokenizer.word(input, 1));
+        if (!reference.isSuccess()) {
+            return showParseError(reference, ui);
+        }
+        int index = reference.getValue();
+        if (index < 0 || index >= this.tasks.size()) {
+            return ui.showInvalidIndexMessage();
+        }
         try {
-            Parser.checkCommand(splitMessages);
-            index = Integer.parseInt(splitMessages[1]) - 1;
-            if (index < 0 || index >= this.tasks.size()) {
-                return ui.showInvalidIndexMessage();
-            }
-            Task task = this.tasks.get(index);
+            Task oldTask = this.tasks.get(index);
+            Task task = oldTask.copy();
+            String field = Tokenizer.word(input, 2);
             String message = "";
-            if (splitMessages[2].equals("/content")) {
-                message = editContent(splitMessages, task, ui);
-            } else if (splitMessages[2].equals("/by")) {
-                message = editDeadline(splitMessages, task, ui);
-            } else if (splitMessages[2].equals("/from")) {
-                message = editFrom(splitMessages, task, ui);
-            } else if (splitMessages[2].equals("/to")) {
-                message = editTo(splitMessages, task, ui);
+            if ("/content".equals(field)) {
+                message = editContent(input, task, ui);
+            } else if ("/by".equals(field)) {
+                message = editDeadline(input, task, ui);
+            } else if ("/from".equals(field)) {
+                message = editFrom(input, task, ui);
+            } else if ("/to".equals(field)) {
+                message = editTo(input, task, ui);
             } else {
                 message = "Unsupported Task";
             }
-            storage.storeTasks(this.tasks);
+            replaceTask(index, oldTask, task);
+            storage.storeChangedTask(this.tasks, index);
             return message;
-        } catch (NumberFormatException e) {
-            return ui.showMissingIndexMessage();
-        } catch (CommandWrongFormatExcpetion e) {
-            return e.getMessage();
         } catch (IOException e) {
             return "Failed saving changes into the file. Please restart the program";
         }
     }
 
     /**
-     * Updates content parameter of the task.
+     * Puts the changed copy of a task in place of the task and re-indexes it.
+     */
+    private void replaceTask(int index, Task oldTask, Task newTask) {
+        this.tasks = this.tasks.with(index, newTask);
+        if (!newTask.getTask().equals(oldTask.getTask())) {
+            this.keywordIndex = this.keywordIndex.update(newTask, oldTask.getTask());
+        }
+        this.timeIndex = this.timeIndex.update(oldTask, newTask);
+    }
+
+    /**
+     * Updates a parameter of the task based on user input.
      *
      * @param splitMessages Parsed messages of user input and processed by Parser.
-     * @param task Task object to be updated.
+     * @param storage Utility object to store the changed list of tasks into hard disk.
+     * @param ui Utility object to print out the message to user to inform the result of the method.
+     * @return Message for successful or unsuccessful execution
+     */
+    public String editTask(String[] splitMessages, Storage storage, Ui ui) {
+        return editTask(String.join(" ", splitMessages), storage, ui);
+    }
+
+    /**
+     * Updates content parameter of the task.
+     *
+     * @param input User input.
+     * @param task Copy of the task to be updated, which editTask puts in place of the task.
      * @param ui Utility object to print out the message to user to inform the result of the method.
      * @return Message for successful or unsuccessful execution.
      */
-    public String editContent(String[] splitMessages, Task task, Ui ui) {
-        String content = Parser.parseContentUpdateInput(splitMessages);
-        task.updateTask(content);
+    public String editContent(String input, Task task, Ui ui) {
+        String content = Parser.parseContentUpdateInput(input);
+        String oldContent = task.getTask();
+        task.updateTask(shareContent(content));
+        releaseContent(oldContent);
         return ui.showUpdatedTaskMessage(task);
     }
 
     /**
      * Updates deadline parameter of the task.
      *
-     * @param splitMessages Parsed messages of user input and processed by Parser.
-     * @param task Task object to be updated.
+     * @param input User input.
+     * @param task Copy of the task to be updated, which editTask puts in place of the task.
      * @param ui Utility objet to print out the message to user to inform the result of the method.
-     * @return Message for successful or unsuccessful execution
+     * @return Message for successful or unsuccessful execution, leaving the task unchanged if the new deadline
+     *     cannot be parsed.
      */
-    public String editDeadline(String[] splitMessages, Task task, Ui ui) {
-        LocalDateTime deadline = Parser.parseDateTimeUpdateInput(splitMessages);
-        if (task.getTaskType() == TaskType.DEADLINE) {
-            ((Deadline) task).updateDeadline(deadline);
-            return ui.showUpdatedTaskMessage(task);
+    public String editDeadline(String input, Task task, Ui ui) {
+        if (task.getTaskType() != TaskType.DEADLINE) {
+            return ui.showWrongFormatUpdateMessage();
         }
-        return ui.showWrongFormatUpdateMessage();
+        ParseResult<LocalDateTime> deadline = Parser.validateDateTimeUpdateInput(input);
+        if (!deadline.isSuccess()) {
+            return deadline.getMessage();
+        }
+        ((Deadline) task).updateDeadline(deadline.getValue());
+        return ui.showUpdatedTaskMessage(task);
     }
 
     /**
      * Updates from parameter of the task.
      *
-     * @param splitMessages Parsed messages of user input and processed by Parser.
-     * @param task Task object to be updated.
+     * @param input User input.
+     * @param task Copy of the task to be updated, which editTask puts in place of the task.
      * @param ui Utility object to print out the message to user to inform the result of the method.
      * @return Message for successful or unsuccessful execution.
      */
-    public String editFrom(String[] splitMessages, Task task, Ui ui) {
-        LocalDateTime time = Parser.parseDateTimeUpdateInput(splitMessages);
-        if (task.getTaskType() == TaskType.EVENT) {
-            ((Event) task).updateFrom(time);
-            return ui.showUpdatedTaskMessage(task);
+    public String editFrom(String input, Task task, Ui ui) {
+        if (task.getTaskType() != TaskType.EVENT) {
+            return ui.showWrongFormatUpdateMessage();
+        }
+        ParseResult<LocalDateTime> time = Parser.validateDateTimeUpdateInput(input);
+        if (!time.isSuccess()) {
+            return time.getMessage();
         }
-        return ui.showWrongFormatUpdateMessage();
+        ((Event) task).updateFrom(time.getValue());
+        return ui.showUpdatedTaskMessage(task);
     }
 
     /**
      * Updates to parameter of the task.
      *
-     * @param splitMessages Parsed messages of user input and processed by Parser.
-     * @param task Task object to be updated.
+     * @param input User input.
+     * @param task Copy of the task to be updated, which editTask puts in place of the task.
      * @param ui Utility object to print out the message to user to inform the result of the method.
      * @return Message for successful or unsuccessful execution.
      */
-    public String editTo(String[] splitMessages, Task task, Ui ui) {
-        LocalDateTime time = Parser.parseDateTimeUpdateInput(splitMessages);
-        if (task.getTaskType() == TaskType.EVENT) {
-            ((Event) task).updateTo(time);
-            return ui.showUpdatedTaskMessage(task);
+    public String editTo(String input, Task task, Ui ui) {
+        if (task.getTaskType() != TaskType.EVENT) {
+            return ui.showWrongFormatUpdateMessage();
         }
-        return ui.showWrongFormatUpdateMessage();
+        ParseResult<LocalDateTime> time = Parser.validateDateTimeUpdateInput(input);
+        if (!time.isSuccess()) {
+            return time.getMessage();
+        }
+        ((Event) task).updateTo(time.getValue());
+        return ui.showUpdatedTaskMessage(task);
     }
 }
@@ -0,0 +1,785 @@
+package bytetalker.task;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents an immutable list of tasks, kept in the leaves of a B+ tree whose branches know how many tasks are
+ * below each of their children, so a task is found by its position in O(log n).
+ * Adding, replacing or removing a task copies only the nodes on the path to it and returns a new sequence sharing
+ * every other node with the old one. Removing a task therefore never moves the tasks after it, and an older
+ * sequence stays valid as a copy of the list taken at no cost.
+ * New tasks get the next id and are appended, so the ids normally increase along the list. Every node knows the
+ * smallest and largest id below it, which finds a task by its id in O(log n) as well. A list loaded with ids out of
+ * order is still supported, but is then searched by id linearly.
+ * The leaves keep their tasks either as objects or, for a sequence created with TaskStore.COLUMNS, as TaskColumns
+ * blocks, whose tasks are created whenever they are read.
+ */
+public final class TaskSequence extends AbstractList<Task> {
+    // A leaf of columns keeps the statuses of its tasks in the bits of a long.
+    private static final int LEAF_CAPACITY = TaskColumns.CAPACITY;
+    private static final int BRANCH_CAPACITY = 32;
+    private static final int MIN_FILL_DIVISOR = 4;
+    private static final TaskSequence EMPTY = new TaskSequence(new ObjectLeaf(new Task[0]), TaskStore.OBJECTS);
+    private static final TaskSequence EMPTY_COLUMNS =
+            new TaskSequence(new ColumnLeaf(TaskColumns.EMPTY, new long[0]), TaskStore.COLUMNS);
+
+    private final Node root;
+    private final TaskStore store;
+
+    private TaskSequence(Node root, TaskStore store) {
+        this.root = root;
+        this.store = store;
+    }
+
+    public static TaskSequence empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a sequence of the tasks kept as objects, with every node filled, in O(n).
+     *
+     * @param tasks Tasks in the order of the list.
+     * @return Sequence of the tasks.
+     */
+    public static TaskSequence of(List<Task> tasks) {
+        return of(tasks, TaskStore.OBJECTS);
+    }
+
+    /**
+     * Creates a sequence of the tasks with every node filled, in O(n).
+     *
+     * @param tasks Tasks in the order of the list.
+     * @param store Way the leaves keep their tasks.
+     * @return Sequence of the tasks.
+     */
+    public static TaskSequence of(List<Task> tasks, TaskStore store) {
+        if (tasks.isEmpty()) {
+            return store == TaskStore.COLUMNS ? EMPTY_COLUMNS : EMPTY;
+        }
+        ArrayList<Node> nodes = new ArrayList<>((tasks.size() + LEAF_CAPACITY - 1) / LEAF_CAPACITY);
+        int remaining = tasks.size();
+        Task[] leafTasks = new Task[Math.min(LEAF_CAPACITY, remaining)];
+        int count = 0;
+        for (Task task : tasks) {
+            leafTasks[count++] = task;
+            if (count == leafTasks.length) {
+                nodes.add(Leaf.of(leafTasks, store));
+                remaining -= count;
+                leafTasks = new Task[Math.min(LEAF_CAPACITY, remaining)];
+                count = 0;
+            }
+        }
+        while (nodes.size() > 1) {
+            ArrayList<Node> parents = new ArrayList<>((nodes.size() + BRANCH_CAPACITY - 1) / BRANCH_CAPACITY);
+            for (int start = 0; start < nodes.size(); start += BRANCH_CAPACITY) {
+                List<Node> children = nodes.subList(start, Math.min(nodes.size(), start + BRANCH_CAPACITY));
+                parents.add(new Branch(children.toArray(new Node[0])));
+            }
+            nodes = parents;
+        }
+        return new TaskSequence(nodes.get(0), store);
+    }
+
+    public TaskStore getStore() {
+        return this.store;
+    }
+
+    @Override
+    public int size() {
+        return root.size;
+    }
+
+    @Override
+    public Task get(int position) {
+        checkPosition(position);
+        return root.get(position);
+    }
+
+    /**
+     * Returns a sequence with the task appended.
+     *
+     * @param task Task to be appended.
+     * @return New sequence.
+     */
+    public TaskSequence append(Task task) {
+        Node[] nodes = root.append(task);
+        return new TaskSequence(nodes.length == 1 ? nodes[0] : new Branch(nodes), store);
+    }
+
+    /**
+     * Returns a sequence with the task at the position replaced.
+     *
+     * @param position Position of the task, starting from 0.
+     * @param task Task replacing it.
+     * @return New sequence.
+     */
+    public TaskSequence with(int position, Task task) {
+        checkPosition(position);
+        return new TaskSequence(root.set(position, task), store);
+    }
+
+    /**
+     * Returns a sequence without the task at the position.
+     *
+     * @param position Position of the task, starting from 0.
+     * @return New sequence.
+     */
+    public TaskSequence without(int position) {
+        checkPosition(position);
+        Node node = root.remove(position);
+        while (node instanceof Branch && ((Branch) node).children.length == 1) {
+            node = ((Branch) node).children[0];
+        }
+        if (node == null) {
+            return store == TaskStore.COLUMNS ? EMPTY_COLUMNS : EMPTY;
+        }
+        return new TaskSequence(node, store);
+    }
+
+    /**
+     * Returns the position of the task with the id.
+     *
+     * @param id Id of the task.
+     * @return Position of the task starting from 0, or -1 if there is no task with the id.
+     */
+    public int positionOf(long id) {
+        return root.positionOf(id);
+    }
+
+    /**
+     * Returns the tasks with the ids in the order of the list. Ids without a task are skipped.
+     * As the ids increase along the list, the tree is walked once and the subtrees between two of the ids are
+     * skipped, which costs far less than looking up every id when many tasks are asked for.
+     *
+     * @param ids Ids in increasing order.
+     * @param count Number of ids to be used from the start of the array.
+     * @return Tasks with the ids.
+     */
+    public ArrayList<Task> findByIds(long[] ids, int count) {
+        ArrayList<Task> foundTasks = new ArrayList<>(count);
+        if (count == 0) {
+            return foundTasks;
+        }
+        if (root.isOrdered) {
+            root.collect(ids, new int[] {0}, count, foundTasks);
+            return foundTasks;
+        }
+        for (Task task : this) {
+            if (Arrays.binarySearch(ids, 0, count, task.getId()) >= 0) {
+                foundTasks.add(task);
+            }
+        }
+        return foundTasks;
+    }
+
+    /**
+     * Returns whether each task has the status. Tasks kept in columns are not created.
+     *
+     * @param isDone Status to be selected.
+     * @return Whether the task at each position has the status.
+     */
+    public boolean[] selectByStatus(boolean isDone) {
+        boolean[] isSelected = new boolean[root.size];
+        root.selectByStatus(isDone, isSelected, 0);
+        return isSelected;
+    }
+
+    /**
+     * Finds the tasks whose content contains the search string. Tasks kept in columns are only created if they
+     * are found.
+     *
+     * @param content Search string.
+     * @return Tasks containing the search string, in the order of the list.
+     */
+    public ArrayList<Task> findContaining(String content) {
+        ArrayList<Task> foundTasks = new ArrayList<>();
+        root.findContaining(content, foundTasks);
+        return foundTasks;
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        return new LeafIterator(root);
+    }
+
+    private void checkPosition(int position) {
+        if (position < 0 || position >= root.size) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of " + root.size);
+        }
+    }
+
+    /**
+     * Represents a node of the tree, which knows the number of tasks and the range of ids below it.
+     */
+    private abstract static class Node {
+        final int size;
+        final long minId;
+        final long maxId;
+        final boolean isOrdered;
+
+        Node(int size, long minId, long maxId, boolean isOrdered) {
+            this.size = size;
+            this.minId = minId;
+            this.maxId = maxId;
+            this.isOrdered = isOrdered;
+        }
+
+        abstract Task get(int position);
+
+        abstract Node set(int position, Task task);
+
+        /**
+         * Returns the node without the task at the position, or null if no task is left.
+         */
+        abstract Node remove(int position);
+
+        /**
+         * Returns the node with the task appended, followed by a new sibling holding the task if the node is full.
+         */
+        abstract Node[] append(Task task);
+
+        abstract int positionOf(long id);
+
+        /**
+         * Adds the tasks with the ids starting at the cursor, and moves the cursor past the ids up to the largest
+         * id below the node.
+         */
+        abstract void collect(long[] ids, int[] cursor, int count, ArrayList<Task> foundTasks);
+
+        /**
+         * Sets whether each task below the node has the status, starting from the offset of the node in the list.
+         */
+        abstract void selectByStatus(boolean isDone, boolean[] isSelected, int offset);
+
+        abstract void findContaining(String content, ArrayList<Task> foundTasks);
+
+        boolean isUnderfilled() {
+            return false;
+        }
+    }
+
+    /**
+     * Represents a leaf of the tree, which keeps the ids of its tasks next to the tasks.
+     */
+    private abstract static class Leaf extends Node {
+        final long[] ids;
+
+        Leaf(long[] ids) {
+            super(ids.length, minOf(ids), maxOf(ids), isIncreasing(ids));
+            this.ids = ids;
+        }
+
+        static Leaf of(Task[] tasks, TaskStore store) {
+            return store == TaskStore.COLUMNS
+                    ? new ColumnLeaf(TaskColumns.of(tasks), idsOf(tasks))
+                    : new ObjectLeaf(tasks, idsOf(tasks));
+        }
+
+        static long[] idsOf(Task[] tasks) {
+            long[] ids = new long[tasks.length];
+            for (int i = 0; i < tasks.length; i++) {
+                ids[i] = tasks[i].getId();
+            }
+            return ids;
+        }
+
+        private static long minOf(long[] ids) {
+            long min = Long.MAX_VALUE;
+            for (long id : ids) {
+                min = Math.min(min, id);
+            }
+            return min;
+        }
+
+        private static long maxOf(long[] ids) {
+            long max = Long.MIN_VALUE;
+            for (long id : ids) {
+                max = Math.max(max, id);
+            }
+            return max;
+        }
+
+        private static boolean isIncreasing(long[] ids) {
+            for (int i = 1; i < ids.length; i++) {
+                if (ids[i - 1] >= ids[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns the leaf merged with the next leaf, which keeps its tasks the same way.
+         */
+        abstract Leaf merge(Leaf next);
+
+        abstract boolean isDone(int position);
+
+        abstract boolean contains(int position, String content);
+
+        @Override
+        void selectByStatus(boolean isDone, boolean[] isSelected, int offset) {
+            for (int i = 0; i < size; i++) {
+                isSelected[offset + i] = isDone(i) == isDone;
+            }
+        }
+
+        @Override
+        void findContaining(String content, ArrayList<Task> foundTasks) {
+            for (int i = 0; i < size; i++) {
+                if (contains(i, content)) {
+                    foundTasks.add(get(i));
+                }
+            }
+        }
+
+        long[] idsWith(int position, long id) {
+            long[] newIds = ids.clone();
+            newIds[position] = id;
+            return newIds;
+        }
+
+        long[] idsWithout(int position) {
+            long[] newIds = new long[size - 1];
+            System.arraycopy(ids, 0, newIds, 0, position);
+            System.arraycopy(ids, position + 1, newIds, position, size - position - 1);
+            return newIds;
+        }
+
+        long[] idsAppended(long id) {
+            long[] newIds = Arrays.copyOf(ids, size + 1);
+            newIds[size] = id;
+            return newIds;
+        }
+
+        long[] idsMerged(Leaf next) {
+            long[] newIds = Arrays.copyOf(ids, size + next.size);
+            System.arraycopy(next.ids, 0, newIds, size, next.size);
+            return newIds;
+        }
+
+        @Override
+        int positionOf(long id) {
+            if (isOrdered) {
+                int position = Arrays.binarySearch(ids, id);
+                return position >= 0 ? position : -1;
+            }
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        void collect(long[] ids, int[] cursor, int count, ArrayList<Task> foundTasks) {
+            int i = 0;
+            while (cursor[0] < count && i < size) {
+                long id = ids[cursor[0]];
+                if (this.ids[i] < id) {
+                    i++;
+                } else if (this.ids[i] > id) {
+                    cursor[0]++;
+                } else {
+                    foundTasks.add(get(i++));
+                    cursor[0]++;
+                }
+            }
+        }
+
+        @Override
+        boolean isUnderfilled() {
+            return size < LEAF_CAPACITY / MIN_FILL_DIVISOR;
+        }
+    }
+
+    private static final class ObjectLeaf extends Leaf {
+        final Task[] tasks;
+
+        ObjectLeaf(Task[] tasks) {
+            this(tasks, idsOf(tasks));
+        }
+
+        ObjectLeaf(Task[] tasks, long[] ids) {
+            super(ids);
+            this.tasks = tasks;
+        }
+
+        @Override
+        Task get(int position) {
+            return tasks[position];
+        }
+
+        @Override
+        Node set(int position, Task task) {
+            Task[] newTasks = tasks.clone();
+            newTasks[position] = task;
+            return new ObjectLeaf(newTasks, idsWith(position, task.getId()));
+        }
+
+        @Override
+        Node remove(int position) {
+            if (size == 1) {
+                return null;
+            }
+            Task[] newTasks = new Task[size - 1];
+            System.arraycopy(tasks, 0, newTasks, 0, position);
+            System.arraycopy(tasks, position + 1, newTasks, position, size - position - 1);
+            return new ObjectLeaf(newTasks, idsWithout(position));
+        }
+
+        @Override
+        Node[] append(Task task) {
+            if (size == LEAF_CAPACITY) {
+                return new Node[] {this, new ObjectLeaf(new Task[] {task})};
+            }
+            Task[] newTasks = Arrays.copyOf(tasks, size + 1);
+            newTasks[size] = task;
+            return new Node[] {new ObjectLeaf(newTasks, idsAppended(task.getId()))};
+        }
+
+        @Override
+        boolean isDone(int position) {
+            return tasks[position].getStatus();
+        }
+
+        @Override
+        boolean contains(int position, String content) {
+            return tasks[position].getTask().contains(content);
+        }
+
+        @Override
+        Leaf merge(Leaf next) {
+            Task[] newTasks = Arrays.copyOf(tasks, size + next.size);
+            System.arraycopy(((ObjectLeaf) next).tasks, 0, newTasks, size, next.size);
+            return new ObjectLeaf(newTasks, idsMerged(next));
+        }
+    }
+
+    /**
+     * Represents a leaf keeping its tasks in a TaskColumns block, which creates a task whenever it is read.
+     */
+    private static final class ColumnLeaf extends Leaf {
+        final TaskColumns columns;
+
+        ColumnLeaf(TaskColumns columns, long[] ids) {
+            super(ids);
+            this.columns = columns;
+        }
+
+        @Override
+        Task get(int position) {
+            return columns.get(position, ids[position]);
+        }
+
+        @Override
+        Node set(int position, Task task) {
+            return new ColumnLeaf(columns.with(position, task), idsWith(position, task.getId()));
+        }
+
+        @Override
+        Node remove(int position) {
+            if (size == 1) {
+                return null;
+            }
+            return new ColumnLeaf(columns.without(position), idsWithout(position));
+        }
+
+        @Override
+        Node[] append(Task task) {
+            if (size == LEAF_CAPACITY) {
+                Task[] newTasks = {task};
+                return new Node[] {this, new ColumnLeaf(TaskColumns.of(newTasks), idsOf(newTasks))};
+            }
+            return new Node[] {new ColumnLeaf(columns.append(task), idsAppended(task.getId()))};
+        }
+
+        @Override
+        boolean isDone(int position) {
+            return columns.isDone(position);
+        }
+
+        @Override
+        boolean contains(int position, String content) {
+            return columns.contains(position, content);
+        }
+
+        @Override
+        Leaf merge(Leaf next) {
+            return new ColumnLeaf(columns.concat(((ColumnLeaf) next).columns), idsMerged(next));
+        }
+    }
+
+    private static final class Branch extends Node {
+        final Node[] children;
+        final int[] ends;
+
+        Branch(Node[] children) {
+            this(children, endsOf(children));
+        }
+
+        private Branch(Node[] children, int[] ends) {
+            super(ends[ends.length - 1], minOf(children), maxOf(children), isOrdered(children));
+            this.children = children;
+            this.ends = ends;
+        }
+
+        private static int[] endsOf(Node[] children) {
+            int[] ends = new int[children.length];
+            int end = 0;
+            for (int i = 0; i < children.length; i++) {
+                end += children[i].size;
+                ends[i] = end;
+            }
+            return ends;
+        }
+
+        private static long minOf(Node[] children) {
+            long min = Long.MAX_VALUE;
+            for (Node child : children) {
+                min = Math.min(min, child.minId);
+            }
+            return min;
+        }
+
+        private static long maxOf(Node[] children) {
+            long max = Long.MIN_VALUE;
+            for (Node child : children) {
+                max = Math.max(max, child.maxId);
+            }
+            return max;
+        }
+
+        private static boolean isOrdered(Node[] children) {
+            for (int i = 0; i < children.length; i++) {
+                if (!children[i].isOrdered || (i > 0 && children[i - 1].maxId >= children[i].minId)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int childIndex(int position) {
+            int low = 0;
+            int high = ends.length - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (ends[middle] <= position) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private int start(int index) {
+            return index == 0 ? 0 : ends[index - 1];
+        }
+
+        @Override
+        Task get(int position) {
+            int index = childIndex(position);
+            return children[index].get(position - start(index));
+        }
+
+        @Override
+        Node set(int position, Task task) {
+            int index = childIndex(position);
+            Node[] newChildren = children.clone();
+            newChildren[index] = children[index].set(position - start(index), task);
+            return new Branch(newChildren, ends);
+        }
+
+        @Override
+        Node remove(int position) {
+            int index = childIndex(position);
+            Node child = children[index].remove(position - start(index));
+            if (child == null) {
+                if (children.length == 1) {
+                    return null;
+                }
+                Node[] newChildren = new Node[children.length - 1];
+                System.arraycopy(children, 0, newChildren, 0, index);
+                System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+                return new Branch(newChildren);
+            }
+            Node[] newChildren = children.clone();
+            newChildren[index] = child;
+            if (child.isUnderfilled() && children.length > 1) {
+                return new Branch(mergeWithNeighbour(newChildren, index));
+            }
+            return new Branch(newChildren);
+        }
+
+        /**
+         * Merges the underfilled child with a neighbour if both fit into one node, so a list that has shrunk a lot
+         * is not left with many nearly empty nodes.
+         */
+        private static Node[] mergeWithNeighbour(Node[] children, int index) {
+            int first = index == children.length - 1 ? index - 1 : index;
+            Node merged = merge(children[first], children[first + 1]);
+            if (merged == null) {
+                return children;
+            }
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(children, 0, newChildren, 0, first);
+            newChildren[first] = merged;
+            System.arraycopy(children, first + 2, newChildren, first + 1, children.length - first - 2);
+            return newChildren;
+        }
+
+        private static Node merge(Node first, Node second) {
+            if (first instanceof Leaf) {
+                return first.size + second.size > LEAF_CAPACITY ? null : ((Leaf) first).merge((Leaf) second);
+            }
+            Node[] firstChildren = ((Branch) first).children;
+            Node[] secondChildren = ((Branch) second).children;
+            if (firstChildren.length + secondChildren.length > BRANCH_CAPACITY) {
+                return null;
+            }
+            Node[] children = Arrays.copyOf(firstChildren, firstChildren.length + secondChildren.length);
+            System.arraycopy(secondChildren, 0, children, firstChildren.length, secondChildren.length);
+            return new Branch(children);
+        }
+
+        @Override
+        Node[] append(Task task) {
+            int last = children.length - 1;
+            Node[] appended = children[last].append(task);
+            if (appended.length == 1) {
+                Node[] newChildren = children.clone();
+                newChildren[last] = appended[0];
+                return new Node[] {new Branch(newChildren)};
+            }
+            if (children.length == BRANCH_CAPACITY) {
+                Node[] newChildren = children.clone();
+                newChildren[last] = appended[0];
+                return new Node[] {new Branch(newChildren), new Branch(new Node[] {appended[1]})};
+            }
+            Node[] newChildren = Arrays.copyOf(children, children.length + 1);
+            newChildren[last] = appended[0];
+            newChildren[last + 1] = appended[1];
+            return new Node[] {new Branch(newChildren)};
+        }
+
+        @Override
+        boolean isUnderfilled() {
+            return children.length < BRANCH_CAPACITY / MIN_FILL_DIVISOR;
+        }
+
+        @Override
+        int positionOf(long id) {
+            if (id < minId || id > maxId) {
+                return -1;
+            }
+            for (int i = firstCandidate(id); i < children.length; i++) {
+                if (isOrdered && children[i].minId > id) {
+                    return -1;
+                }
+                int position = children[i].positionOf(id);
+                if (position >= 0) {
+                    return start(i) + position;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Returns the first child that may hold the id, which is found by binary search if the ids are in order.
+         */
+        private int firstCandidate(long id) {
+            if (!isOrdered) {
+                return 0;
+            }
+            int low = 0;
+            int high = children.length - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (children[middle].maxId < id) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        @Override
+        void selectByStatus(boolean isDone, boolean[] isSelected, int offset) {
+            for (int i = 0; i < children.length; i++) {
+                children[i].selectByStatus(isDone, isSelected, offset + start(i));
+            }
+        }
+
+        @Override
+        void findContaining(String content, ArrayList<Task> foundTasks) {
+            for (Node child : children) {
+                child.findContaining(content, foundTasks);
+            }
+        }
+
+        @Override
+        void collect(long[] ids, int[] cursor, int count, ArrayList<Task> foundTasks) {
+            for (int i = 0; i < children.length && cursor[0] < count; i++) {
+                if (children[i].maxId >= ids[cursor[0]]) {
+                    children[i].collect(ids, cursor, count, foundTasks);
+                }
+            }
+        }
+    }
+
+    /**
+     * Iterates over the tasks leaf by leaf, keeping the path from the root to the current leaf.
+     */
+    private static final class LeafIterator implements Iterator<Task> {
+        private final Branch[] branches = new Branch[64];
+        private final int[] childIndexes = new int[64];
+        private int depth = 0;
+        private Leaf leaf;
+        private int index = 0;
+
+        LeafIterator(Node root) {
+            descend(root);
+        }
+
+        private void descend(Node node) {
+            while (node instanceof Branch) {
+                branches[depth] = (Branch) node;
+                childIndexes[depth++] = 0;
+                node = ((Branch) node).children[0];
+            }
+            leaf = (Leaf) node;
+            index = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (index == leaf.size) {
+                while (depth > 0 && childIndexes[depth - 1] == branches[depth - 1].children.length - 1) {
+                    depth--;
+                }
+                if (depth == 0) {
+                    return false;
+                }
+                Node next = branches[depth - 1].children[++childIndexes[depth - 1]];
+                descend(next);
+            }
+            return true;
+        }
+
+        @Override
+        public Task next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return leaf.get(index++);
+        }
+    }
+}
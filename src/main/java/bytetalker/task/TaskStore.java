@@ -0,0 +1,12 @@
+package bytetalker.task;
+
+/**
+ * Represents the ways a list of tasks can be kept in memory.
+ * OBJECTS keeps every task as an object, while COLUMNS keeps the fields of the tasks in primitive arrays and creates
+ * a task whenever it is read, which takes several times less memory for a large list but makes every read of a
+ * task allocate it.
+ */
+public enum TaskStore {
+    OBJECTS,
+    COLUMNS
+}
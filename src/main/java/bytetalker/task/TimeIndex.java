@@ -0,0 +1,246 @@
+package bytetalker.task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Represents an immutable index of deadlines and events ordered by time.
+ * Deadlines and events are kept in one interval tree keyed by their deadline or start, where a deadline is an
+ * interval ending where it starts and every node also remembers the latest end in its subtree, so the tasks within
+ * a period are found without visiting the tasks that end too early or start too late.
+ * The tree is a treap whose nodes are never changed. Adding or removing a task copies only the nodes on the path to
+ * it and returns a new index sharing every other node with the old one, so a copy of the list keeps the index it was
+ * taken with. Nodes hold the ids of the tasks, which are looked up in the list when a period is queried, so a task
+ * replaced by a copy with another status does not have to be re-indexed.
+ */
+public class TimeIndex {
+    private static final TimeIndex EMPTY = new TimeIndex((Node) null);
+
+    private final Node root;
+
+    /**
+     * Creates the index of the tasks. The tree is built from the tasks sorted by time in O(n log n) without any
+     * rotation.
+     *
+     * @param tasks Tasks with their ids assigned.
+     */
+    public TimeIndex(List<Task> tasks) {
+        ArrayList<Node> nodes = new ArrayList<>();
+        for (Task task : tasks) {
+            Node node = Node.of(task);
+            if (node != null) {
+                nodes.add(node);
+            }
+        }
+        Node[] sortedNodes = nodes.toArray(new Node[0]);
+        Arrays.sort(sortedNodes, Comparator.comparing((Node node) -> node.start)
+                .thenComparing(node -> node.isEvent).thenComparingLong(node -> node.id));
+        this.root = build(sortedNodes, 0, sortedNodes.length);
+    }
+
+    private TimeIndex(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns an index with the task added. Todo tasks and tasks without a time are ignored.
+     *
+     * @param task Task with its id assigned.
+     * @return New index.
+     */
+    public TimeIndex add(Task task) {
+        Node node = Node.of(task);
+        return node == null ? this : new TimeIndex(insert(root, node));
+    }
+
+    /**
+     * Returns an index without the task, which is found by the times and id the task has.
+     *
+     * @param task Task to be removed, as it was when it was added.
+     * @return New index.
+     */
+    public TimeIndex remove(Task task) {
+        Node node = Node.of(task);
+        if (node == null) {
+            return this;
+        }
+        Node newRoot = delete(root, node);
+        return newRoot == null ? EMPTY : new TimeIndex(newRoot);
+    }
+
+    /**
+     * Returns an index with a task re-indexed after its deadline, start or end has been changed in a copy of it.
+     *
+     * @param oldTask Task as it was when it was added.
+     * @param newTask Copy of the task with the new times.
+     * @return New index.
+     */
+    public TimeIndex update(Task oldTask, Task newTask) {
+        return remove(oldTask).add(newTask);
+    }
+
+    /**
+     * Finds the deadlines due within the period and the events overlapping the period, ordered by the deadline or
+     * the start of the event.
+     *
+     * @param tasks List of tasks the index was built for.
+     * @param from Start of the period, inclusive.
+     * @param to End of the period, inclusive.
+     * @return Tasks falling within the period, which are none if the period ends before it starts.
+     */
+    public ArrayList<Task> findBetween(TaskSequence tasks, LocalDateTime from, LocalDateTime to) {
+        ArrayList<Task> foundTasks = new ArrayList<>();
+        if (from.isAfter(to)) {
+            return foundTasks;
+        }
+        collectOverlapping(root, from, to, tasks, foundTasks);
+        return foundTasks;
+    }
+
+    private static void collectOverlapping(Node node, LocalDateTime from, LocalDateTime to, TaskSequence tasks,
+            ArrayList<Task> foundTasks) {
+        if (node == null || node.maxEnd.isBefore(from)) {
+            return;
+        }
+        collectOverlapping(node.left, from, to, tasks, foundTasks);
+        if (node.start.isAfter(to)) {
+            return;
+        }
+        if (!node.end.isBefore(from)) {
+            int position = tasks.positionOf(node.id);
+            if (position >= 0) {
+                foundTasks.add(tasks.get(position));
+            }
+        }
+        collectOverlapping(node.right, from, to, tasks, foundTasks);
+    }
+
+    /**
+     * Builds the treap of the sorted nodes by making the node with the highest priority the root of each range.
+     */
+    private static Node build(Node[] nodes, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int top = from;
+        for (int i = from + 1; i < to; i++) {
+            if (nodes[i].priority > nodes[top].priority) {
+                top = i;
+            }
+        }
+        return nodes[top].withChildren(build(nodes, from, top), build(nodes, top + 1, to));
+    }
+
+    private static Node insert(Node node, Node newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        if (newNode.compareTo(node) < 0) {
+            Node left = insert(node.left, newNode);
+            if (left.priority > node.priority) {
+                return left.withChildren(left.left, node.withChildren(left.right, node.right));
+            }
+            return node.withChildren(left, node.right);
+        }
+        Node right = insert(node.right, newNode);
+        if (right.priority > node.priority) {
+            return right.withChildren(node.withChildren(node.left, right.left), right.right);
+        }
+        return node.withChildren(node.left, right);
+    }
+
+    private static Node delete(Node node, Node target) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = target.compareTo(node);
+        if (comparison == 0) {
+            return merge(node.left, node.right);
+        }
+        if (comparison < 0) {
+            Node left = delete(node.left, target);
+            return left == node.left ? node : node.withChildren(left, node.right);
+        }
+        Node right = delete(node.right, target);
+        return right == node.right ? node : node.withChildren(node.left, right);
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            return left.withChildren(left.left, merge(left.right, right));
+        }
+        return right.withChildren(merge(left, right.left), right.right);
+    }
+
+    /**
+     * Represents a node of the interval tree, balanced as a treap with priorities derived from the id of the task.
+     */
+    private static final class Node implements Comparable<Node> {
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final boolean isEvent;
+        private final long id;
+        private final int priority;
+        private final LocalDateTime maxEnd;
+        private final Node left;
+        private final Node right;
+
+        private Node(LocalDateTime start, LocalDateTime end, boolean isEvent, long id, Node left, Node right) {
+            this.start = start;
+            this.end = end;
+            this.isEvent = isEvent;
+            this.id = id;
+            this.priority = Long.hashCode(id * 0x9E3779B97F4A7C15L);
+            this.left = left;
+            this.right = right;
+            LocalDateTime maxEnd = end;
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+            this.maxEnd = maxEnd;
+        }
+
+        /**
+         * Creates the node of a deadline or event, or returns null for other tasks and tasks without a time.
+         */
+        static Node of(Task task) {
+            if (task.getTaskType() == TaskType.DEADLINE) {
+                LocalDateTime deadline = ((Deadline) task).getDeadline();
+                return deadline == null ? null : new Node(deadline, deadline, false, task.getId(), null, null);
+            }
+            if (task.getTaskType() == TaskType.EVENT) {
+                Event event = (Event) task;
+                if (event.getFrom() != null && event.getTo() != null) {
+                    return new Node(event.getFrom(), event.getTo(), true, task.getId(), null, null);
+                }
+            }
+            return null;
+        }
+
+        Node withChildren(Node left, Node right) {
+            return new Node(start, end, isEvent, id, left, right);
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            int comparison = start.compareTo(other.start);
+            if (comparison != 0) {
+                return comparison;
+            }
+            comparison = Boolean.compare(isEvent, other.isEvent);
+            return comparison != 0 ? comparison : Long.compare(id, other.id);
+        }
+    }
+}
@@ -22,7 +22,12 @@ public class Todo extends Task {
      * @return String that contains information about task.
      */
     @Override
-    public String toString() {
+    protected String render() {
         return "[" + getTaskType().getIcon() + "]" + "[" + getStatusIcon() + "] " + getTask();
     }
+
+    @Override
+    public Todo copy() {
+        return initCopy(new Todo(getTask(), getStatus()));
+    }
 }
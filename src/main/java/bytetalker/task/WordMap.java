@@ -0,0 +1,453 @@
+package bytetalker.task;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * Represents an immutable map from words to the sets of ids of the tasks containing them, kept in a hash array
+ * mapped trie.
+ * Each level of the trie picks one of 32 children by the next 5 bits of the hash of a word, so a word is found in
+ * a few steps, and putting or removing a word copies only the few nodes on the path to it. An older map stays valid
+ * and shares every other node with the new one.
+ * Entries are kept directly in the node of the shortest unique prefix of their hash, and words with equal hashes
+ * share a collision node at the bottom of the trie.
+ */
+final class WordMap {
+    static final WordMap EMPTY = new WordMap(TrieNode.EMPTY, 0);
+
+    private static final int BITS_PER_LEVEL = 5;
+    private static final int MAX_SHIFT = 30;
+
+    private final Node root;
+    private final int size;
+
+    private WordMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Creates a map of the words in O(n), building every node once instead of copying it for each word.
+     *
+     * @param words Distinct words.
+     * @param postings Set of ids for the word at the same index.
+     * @param count Number of words to be used from the start of the arrays.
+     * @return Map of the words.
+     */
+    static WordMap of(String[] words, LongTree[] postings, int count) {
+        if (count == 0) {
+            return EMPTY;
+        }
+        long[] order = new long[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = ((long) (hash(words[i]) ^ Integer.MIN_VALUE) << 32) | i;
+        }
+        Arrays.sort(order);
+        return new WordMap(build(words, postings, order, 0, count, 0), count);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the set of ids for the word.
+     *
+     * @param word Word to be looked up.
+     * @return Set of ids, or null if the word is not in the map.
+     */
+    LongTree get(String word) {
+        return root.get(word, hash(word), 0);
+    }
+
+    /**
+     * Returns a map with the set of ids for the word put in.
+     *
+     * @param word Word to be put in.
+     * @param posting Set of ids for the word.
+     * @return New map.
+     */
+    WordMap with(String word, LongTree posting) {
+        int hash = hash(word);
+        boolean isNew = root.get(word, hash, 0) == null;
+        return new WordMap(root.with(word, hash, posting, 0), isNew ? size + 1 : size);
+    }
+
+    /**
+     * Returns a map without the word.
+     *
+     * @param word Word to be removed.
+     * @return New map, or this map if the word is not in it.
+     */
+    WordMap without(String word) {
+        int hash = hash(word);
+        if (root.get(word, hash, 0) == null) {
+            return this;
+        }
+        Node newRoot = root.without(word, hash, 0);
+        return new WordMap(newRoot == null ? TrieNode.EMPTY : newRoot, size - 1);
+    }
+
+    /**
+     * Passes every word with its set of ids to the action, in no particular order.
+     *
+     * @param action Action taking a word and its set of ids.
+     */
+    void forEach(BiConsumer<String, LongTree> action) {
+        root.forEach(action);
+    }
+
+    /**
+     * Spreads the hash of the word so its highest bits, which pick the child at the top of the trie, depend on every
+     * character even for short words.
+     */
+    private static int hash(String word) {
+        return word.hashCode() * 0x9E3779B9;
+    }
+
+    private static int fragment(int hash, int shift) {
+        return (hash << shift) >>> (Integer.SIZE - BITS_PER_LEVEL);
+    }
+
+    /**
+     * Returns the hash of a word from its entry in the order of the words, which holds the hash with its sign bit
+     * flipped in its upper half, so sorting the entries as signed longs sorts the hashes as unsigned ints.
+     */
+    private static int hashOf(long entry) {
+        return (int) (entry >>> 32) ^ Integer.MIN_VALUE;
+    }
+
+    private static Node build(String[] words, LongTree[] postings, long[] order, int from, int to, int shift) {
+        if (shift > MAX_SHIFT) {
+            String[] keys = new String[to - from];
+            LongTree[] values = new LongTree[to - from];
+            for (int i = from; i < to; i++) {
+                keys[i - from] = words[(int) order[i]];
+                values[i - from] = postings[(int) order[i]];
+            }
+            return new CollisionNode(keys, values);
+        }
+        int dataMap = 0;
+        int nodeMap = 0;
+        int dataCount = 0;
+        int nodeCount = 0;
+        for (int start = from; start < to; ) {
+            int fragment = fragment(hashOf(order[start]), shift);
+            int end = groupEnd(order, start, to, shift);
+            if (end - start == 1) {
+                dataMap |= 1 << fragment;
+                dataCount++;
+            } else {
+                nodeMap |= 1 << fragment;
+                nodeCount++;
+            }
+            start = end;
+        }
+        Object[] content = new Object[2 * dataCount + nodeCount];
+        int dataIndex = 0;
+        int nodeIndex = 2 * dataCount;
+        for (int start = from; start < to; ) {
+            int end = groupEnd(order, start, to, shift);
+            if (end - start == 1) {
+                content[dataIndex++] = words[(int) order[start]];
+                content[dataIndex++] = postings[(int) order[start]];
+            } else {
+                content[nodeIndex++] = build(words, postings, order, start, end, shift + BITS_PER_LEVEL);
+            }
+            start = end;
+        }
+        return new TrieNode(dataMap, nodeMap, content);
+    }
+
+    /**
+     * Returns the end of the run of words sorted by hash that share the fragment of the first one.
+     */
+    private static int groupEnd(long[] order, int start, int to, int shift) {
+        int fragment = fragment(hashOf(order[start]), shift);
+        int end = start + 1;
+        while (end < to && fragment(hashOf(order[end]), shift) == fragment) {
+            end++;
+        }
+        return end;
+    }
+
+    private abstract static class Node {
+        abstract LongTree get(String word, int hash, int shift);
+
+        abstract Node with(String word, int hash, LongTree posting, int shift);
+
+        /**
+         * Returns the node without the word, or null if no word is left.
+         */
+        abstract Node without(String word, int hash, int shift);
+
+        abstract void forEach(BiConsumer<String, LongTree> action);
+
+        /**
+         * Returns whether the node holds a single word and no child, so its parent can hold the word instead.
+         */
+        abstract boolean isSingleEntry();
+
+        abstract String singleWord();
+
+        abstract LongTree singlePosting();
+    }
+
+    /**
+     * Represents a level of the trie, holding the words alone under their fragment first and then the children for
+     * the fragments shared by several words, each in the order of their fragments.
+     */
+    private static final class TrieNode extends Node {
+        static final TrieNode EMPTY = new TrieNode(0, 0, new Object[0]);
+
+        final int dataMap;
+        final int nodeMap;
+        final Object[] content;
+
+        TrieNode(int dataMap, int nodeMap, Object[] content) {
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.content = content;
+        }
+
+        private int dataIndex(int bit) {
+            return 2 * Integer.bitCount(dataMap & (bit - 1));
+        }
+
+        private int nodeIndex(int bit) {
+            return 2 * Integer.bitCount(dataMap) + Integer.bitCount(nodeMap & (bit - 1));
+        }
+
+        @Override
+        LongTree get(String word, int hash, int shift) {
+            int bit = 1 << fragment(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int index = dataIndex(bit);
+                return word.equals(content[index]) ? (LongTree) content[index + 1] : null;
+            }
+            if ((nodeMap & bit) != 0) {
+                return ((Node) content[nodeIndex(bit)]).get(word, hash, shift + BITS_PER_LEVEL);
+            }
+            return null;
+        }
+
+        @Override
+        Node with(String word, int hash, LongTree posting, int shift) {
+            int bit = 1 << fragment(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int index = dataIndex(bit);
+                String existingWord = (String) content[index];
+                if (word.equals(existingWord)) {
+                    Object[] newContent = content.clone();
+                    newContent[index + 1] = posting;
+                    return new TrieNode(dataMap, nodeMap, newContent);
+                }
+                Node child = merge(existingWord, hash(existingWord), (LongTree) content[index + 1],
+                        word, hash, posting, shift + BITS_PER_LEVEL);
+                return replaceDataWithNode(bit, child);
+            }
+            if ((nodeMap & bit) != 0) {
+                int index = nodeIndex(bit);
+                Object[] newContent = content.clone();
+                newContent[index] = ((Node) content[index]).with(word, hash, posting, shift + BITS_PER_LEVEL);
+                return new TrieNode(dataMap, nodeMap, newContent);
+            }
+            int index = dataIndex(bit);
+            Object[] newContent = new Object[content.length + 2];
+            System.arraycopy(content, 0, newContent, 0, index);
+            newContent[index] = word;
+            newContent[index + 1] = posting;
+            System.arraycopy(content, index, newContent, index + 2, content.length - index);
+            return new TrieNode(dataMap | bit, nodeMap, newContent);
+        }
+
+        @Override
+        Node without(String word, int hash, int shift) {
+            int bit = 1 << fragment(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int index = dataIndex(bit);
+                if (!word.equals(content[index])) {
+                    return this;
+                }
+                if (content.length == 2) {
+                    return null;
+                }
+                Object[] newContent = new Object[content.length - 2];
+                System.arraycopy(content, 0, newContent, 0, index);
+                System.arraycopy(content, index + 2, newContent, index, content.length - index - 2);
+                return new TrieNode(dataMap & ~bit, nodeMap, newContent);
+            }
+            if ((nodeMap & bit) == 0) {
+                return this;
+            }
+            int index = nodeIndex(bit);
+            Node child = ((Node) content[index]).without(word, hash, shift + BITS_PER_LEVEL);
+            if (child != null && child.isSingleEntry()) {
+                return replaceNodeWithData(bit, child.singleWord(), child.singlePosting());
+            }
+            if (child == null) {
+                if (content.length == 1) {
+                    return null;
+                }
+                Object[] newContent = new Object[content.length - 1];
+                System.arraycopy(content, 0, newContent, 0, index);
+                System.arraycopy(content, index + 1, newContent, index, content.length - index - 1);
+                return new TrieNode(dataMap, nodeMap & ~bit, newContent);
+            }
+            Object[] newContent = content.clone();
+            newContent[index] = child;
+            return new TrieNode(dataMap, nodeMap, newContent);
+        }
+
+        private Node replaceDataWithNode(int bit, Node child) {
+            int oldIndex = dataIndex(bit);
+            int newIndex = nodeIndex(bit) - 2;
+            Object[] newContent = new Object[content.length - 1];
+            System.arraycopy(content, 0, newContent, 0, oldIndex);
+            System.arraycopy(content, oldIndex + 2, newContent, oldIndex, newIndex - oldIndex);
+            newContent[newIndex] = child;
+            System.arraycopy(content, newIndex + 2, newContent, newIndex + 1, content.length - newIndex - 2);
+            return new TrieNode(dataMap & ~bit, nodeMap | bit, newContent);
+        }
+
+        private Node replaceNodeWithData(int bit, String word, LongTree posting) {
+            int oldIndex = nodeIndex(bit);
+            int newIndex = dataIndex(bit);
+            Object[] newContent = new Object[content.length + 1];
+            System.arraycopy(content, 0, newContent, 0, newIndex);
+            newContent[newIndex] = word;
+            newContent[newIndex + 1] = posting;
+            System.arraycopy(content, newIndex, newContent, newIndex + 2, oldIndex - newIndex);
+            System.arraycopy(content, oldIndex + 1, newContent, oldIndex + 2, content.length - oldIndex - 1);
+            return new TrieNode(dataMap | bit, nodeMap & ~bit, newContent);
+        }
+
+        private static Node merge(String firstWord, int firstHash, LongTree firstPosting,
+                String secondWord, int secondHash, LongTree secondPosting, int shift) {
+            if (shift > MAX_SHIFT) {
+                return new CollisionNode(new String[] {firstWord, secondWord},
+                        new LongTree[] {firstPosting, secondPosting});
+            }
+            int firstFragment = fragment(firstHash, shift);
+            int secondFragment = fragment(secondHash, shift);
+            if (firstFragment == secondFragment) {
+                Node child = merge(firstWord, firstHash, firstPosting, secondWord, secondHash, secondPosting,
+                        shift + BITS_PER_LEVEL);
+                return new TrieNode(0, 1 << firstFragment, new Object[] {child});
+            }
+            Object[] content = firstFragment < secondFragment
+                    ? new Object[] {firstWord, firstPosting, secondWord, secondPosting}
+                    : new Object[] {secondWord, secondPosting, firstWord, firstPosting};
+            return new TrieNode((1 << firstFragment) | (1 << secondFragment), 0, content);
+        }
+
+        @Override
+        void forEach(BiConsumer<String, LongTree> action) {
+            int dataEnd = 2 * Integer.bitCount(dataMap);
+            for (int i = 0; i < dataEnd; i += 2) {
+                action.accept((String) content[i], (LongTree) content[i + 1]);
+            }
+            for (int i = dataEnd; i < content.length; i++) {
+                ((Node) content[i]).forEach(action);
+            }
+        }
+
+        @Override
+        boolean isSingleEntry() {
+            return nodeMap == 0 && content.length == 2;
+        }
+
+        @Override
+        String singleWord() {
+            return (String) content[0];
+        }
+
+        @Override
+        LongTree singlePosting() {
+            return (LongTree) content[1];
+        }
+    }
+
+    /**
+     * Represents the words whose hashes are equal, which are told apart by comparing the words.
+     */
+    private static final class CollisionNode extends Node {
+        final String[] words;
+        final LongTree[] postings;
+
+        CollisionNode(String[] words, LongTree[] postings) {
+            this.words = words;
+            this.postings = postings;
+        }
+
+        private int indexOf(String word) {
+            for (int i = 0; i < words.length; i++) {
+                if (words[i].equals(word)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        LongTree get(String word, int hash, int shift) {
+            int index = indexOf(word);
+            return index < 0 ? null : postings[index];
+        }
+
+        @Override
+        Node with(String word, int hash, LongTree posting, int shift) {
+            int index = indexOf(word);
+            if (index >= 0) {
+                LongTree[] newPostings = postings.clone();
+                newPostings[index] = posting;
+                return new CollisionNode(words, newPostings);
+            }
+            String[] newWords = Arrays.copyOf(words, words.length + 1);
+            LongTree[] newPostings = Arrays.copyOf(postings, postings.length + 1);
+            newWords[words.length] = word;
+            newPostings[postings.length] = posting;
+            return new CollisionNode(newWords, newPostings);
+        }
+
+        @Override
+        Node without(String word, int hash, int shift) {
+            int index = indexOf(word);
+            if (index < 0) {
+                return this;
+            }
+            if (words.length == 1) {
+                return null;
+            }
+            String[] newWords = new String[words.length - 1];
+            LongTree[] newPostings = new LongTree[postings.length - 1];
+            System.arraycopy(words, 0, newWords, 0, index);
+            System.arraycopy(words, index + 1, newWords, index, words.length - index - 1);
+            System.arraycopy(postings, 0, newPostings, 0, index);
+            System.arraycopy(postings, index + 1, newPostings, index, postings.length - index - 1);
+            return new CollisionNode(newWords, newPostings);
+        }
+
+        @Override
+        void forEach(BiConsumer<String, LongTree> action) {
+            for (int i = 0; i < words.length; i++) {
+                action.accept(words[i], postings[i]);
+            }
+        }
+
+        @Override
+        boolean isSingleEntry() {
+            return words.length == 1;
+        }
+
+        @Override
+        String singleWord() {
+            return words[0];
+        }
+
+        @Override
+        LongTree singlePosting() {
+            return postings[0];
+        }
+    }
+}
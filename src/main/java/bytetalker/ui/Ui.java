@@ -3,6 +3,7 @@ package bytetalker.ui;
 import bytetalker.task.Task;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Deals with interactions with the user. Mainly the print statements are included in this class to control the
@@ -13,6 +14,8 @@ import java.util.ArrayList;
  * @since 2024-02-06
  */
 public class Ui {
+    private static final int ESTIMATED_TASK_LINE_LENGTH = 64;
+
     /**
      * Prints out welcome message and command format the user can use to enter the task.
      *
@@ -74,6 +77,46 @@ public class Ui {
         return unmarkedTaskMessage;
     }
 
+    /**
+     * Returns the message that the selected tasks have been marked as done or as not done.
+     *
+     * @param tasks Tasks selected by the user.
+     * @param isDone Status the tasks have been marked with.
+     * @return Message listing the marked tasks.
+     */
+    public String showMarkTasksMsg(List<Task> tasks, boolean isDone) {
+        if (tasks.isEmpty()) {
+            return "No tasks matched the selection.";
+        }
+        StringBuilder message = new StringBuilder(ESTIMATED_TASK_LINE_LENGTH * (tasks.size() + 1));
+        message.append(isDone ? "Nice! I've marked these " : "OK, I've marked these ").append(tasks.size())
+                .append(isDone ? " tasks as done:" : " tasks as not done yet:");
+        for (Task task : tasks) {
+            message.append("\n      ").append(task.toString());
+        }
+        return message.toString();
+    }
+
+    /**
+     * Returns the message that the selected tasks have been removed, with the length of the task list.
+     *
+     * @param tasks Tasks removed from the list.
+     * @param length Length of the task list after removing the tasks.
+     * @return Message listing the removed tasks.
+     */
+    public String showDeleteTasksMsg(List<Task> tasks, int length) {
+        if (tasks.isEmpty()) {
+            return "No tasks matched the selection.";
+        }
+        StringBuilder message = new StringBuilder(ESTIMATED_TASK_LINE_LENGTH * (tasks.size() + 1));
+        message.append("Got it. I've removed these ").append(tasks.size()).append(" tasks:");
+        for (Task task : tasks) {
+            message.append("\n        ").append(task.toString());
+        }
+        message.append("\nNow you have ").append(length).append(" task in the list.");
+        return message.toString();
+    }
+
     /**
      * Prints out the message that the task user wants is deleted and prints out the length of the task
      * list.
@@ -100,7 +143,8 @@ public class Ui {
     public String showAddTaskMsg(Task task, int length) {
         String addedTaskMessage = "Got it. I've added this task:" + "\n"
                 + "       " + task.toString() + "\n" + "Now "
-                + "you have " + length + " tasks in the list.";
+                + "you have " + length + " tasks in the list." + "\n"
+                + "Its id is #" + task.getId() + ".";
         return addedTaskMessage;
     }
 
@@ -119,23 +163,84 @@ public class Ui {
      * @param tasks Task list that contains all the tasks added.
      * @return Message containing every task in the list.
      */
-    public String returnList(ArrayList<Task> tasks) {
-        String taskListMessage = "";
-        taskListMessage += "Here are the tasks in your list:\n";
-        for (int i = 0; i < tasks.size(); i++) {
-            taskListMessage += "    " + (i + 1) + "." + tasks.get(i).toString() + "\n";
+    public String returnList(List<Task> tasks) {
+        StringBuilder taskListMessage = new StringBuilder(ESTIMATED_TASK_LINE_LENGTH * (tasks.size() + 1));
+        taskListMessage.append("Here are the tasks in your list:\n");
+        int number = 0;
+        for (Task task : tasks) {
+            taskListMessage.append("    ").append(++number).append('.').append(task.toString()).append('\n');
+        }
+        return taskListMessage.toString();
+    }
+
+    /**
+     * Prints out one page of the list of tasks. Only the tasks on the page are rendered, numbered by their
+     * position in the whole list.
+     *
+     * @param tasks Task list that contains all the tasks added.
+     * @param page Page to be printed, starting from 1.
+     * @param pageSize Number of tasks on each page.
+     * @return Message containing the tasks on the page.
+     */
+    public String returnListPage(List<Task> tasks, int page, int pageSize) {
+        int numberOfPages = Math.max(1, (tasks.size() + pageSize - 1) / pageSize);
+        if (page > numberOfPages) {
+            return "There are only " + numberOfPages + " pages in your list.";
+        }
+        int start = (page - 1) * pageSize;
+        int end = Math.min(tasks.size(), start + pageSize);
+        StringBuilder taskListMessage = new StringBuilder(ESTIMATED_TASK_LINE_LENGTH * (end - start + 2));
+        taskListMessage.append("Here are the tasks in your list (page ").append(page)
+                .append(" of ").append(numberOfPages).append("):\n");
+        appendTasks(taskListMessage, tasks, start, end);
+        return taskListMessage.toString();
+    }
+
+    private void appendTasks(StringBuilder message, List<Task> tasks, int start, int end) {
+        for (int i = start; i < end; i++) {
+            message.append("    ").append(i + 1).append('.').append(tasks.get(i).toString()).append('\n');
         }
-        return taskListMessage;
     }
 
     /**
      * Prints out the error message when date and time parse cannot be done.
      *
-     * @param e Error occured while parsing date and time.
+     * @param dateTimeString Date and time string that could not be parsed.
      * @return Error message for unsupported DateTime format.
      */
-    public static void showDateTimeParseErrorMsg(Exception e) {
-        System.err.println("Unable to parse the date and time string: " + e.getMessage());
+    public static void showDateTimeParseErrorMsg(String dateTimeString) {
+        System.err.println("Unable to parse the date and time string: " + dateTimeString);
+    }
+
+    /**
+     * Returns error message when the script to run cannot be read.
+     *
+     * @param filePath Path of the script given by the user.
+     * @return Error message for the unreadable script.
+     */
+    public String showReadScriptErrorMessage(String filePath) {
+        return "Unable to read the script " + filePath;
+    }
+
+    /**
+     * Prints out the result of every command run in a batch and whether the changes have been saved.
+     *
+     * @param commands Commands in the order they were executed.
+     * @param responses Reply to each of the commands.
+     * @param isSaved Whether the changes have been saved, rather than rolled back.
+     * @return Message containing the result of every command.
+     */
+    public String showBatchReport(ArrayList<String> commands, ArrayList<String> responses, boolean isSaved) {
+        StringBuilder report = new StringBuilder(ESTIMATED_TASK_LINE_LENGTH * 2 * (commands.size() + 1));
+        report.append("Ran ").append(commands.size()).append(" commands:\n");
+        for (int i = 0; i < commands.size(); i++) {
+            report.append(i + 1).append(". ").append(commands.get(i)).append('\n')
+                    .append(responses.get(i)).append('\n');
+        }
+        report.append(isSaved
+                ? "All changes have been saved."
+                : "Failed to save the changes, so none of the commands have taken effect. Please try again.");
+        return report.toString();
     }
 
     /**
@@ -144,15 +249,38 @@ public class Ui {
      * @param foundTasks List of tasks found.
      * @return Message containing found tasks based on user input.
      */
-    public String displayFoundTasks(ArrayList<Task> foundTasks) {
-        String foundTasksMessage = "Here are the found tasks:\n";
-        for (int i = 0; i < foundTasks.size(); i++) {
-            foundTasksMessage += (i + 1) + "." + foundTasks.get(i).toString() + "\n";
-        }
+    public String displayFoundTasks(List<Task> foundTasks) {
         if (foundTasks.size() == 0) {
             return "No tasks found";
         }
-        return foundTasksMessage;
+        StringBuilder foundTasksMessage = new StringBuilder(ESTIMATED_TASK_LINE_LENGTH * (foundTasks.size() + 1));
+        foundTasksMessage.append("Here are the found tasks:\n");
+        appendNumberedTasks(foundTasksMessage, foundTasks);
+        return foundTasksMessage.toString();
+    }
+
+    private void appendNumberedTasks(StringBuilder message, List<Task> tasks) {
+        int number = 0;
+        for (Task task : tasks) {
+            message.append(++number).append('.').append(task.toString()).append('\n');
+        }
+    }
+
+    /**
+     * Prints out the deadlines and events falling within the period asked by the user.
+     *
+     * @param scheduledTasks List of tasks in chronological order.
+     * @return Message containing the tasks within the period.
+     */
+    public String displayScheduledTasks(List<Task> scheduledTasks) {
+        if (scheduledTasks.size() == 0) {
+            return "No deadlines or events in that period";
+        }
+        StringBuilder scheduledTasksMessage = new StringBuilder(
+                ESTIMATED_TASK_LINE_LENGTH * (scheduledTasks.size() + 1));
+        scheduledTasksMessage.append("Here are the deadlines and events in that period:\n");
+        appendNumberedTasks(scheduledTasksMessage, scheduledTasks);
+        return scheduledTasksMessage.toString();
     }
 
     /**
@@ -196,4 +324,36 @@ public class Ui {
         String message = "Please enter the index.";
         return message;
     }
+
+    /**
+     * Returns warning message when saving the list in the background has failed after the changes were reported.
+     *
+     * @return Warning message indicating the changes have been undone.
+     */
+    public String showBackgroundSaveFailureMessage() {
+        String message = "Warning: your latest changes could not be saved, so they have been undone.\n"
+                + "Please check the list and enter them again.";
+        return message;
+    }
+
+    /**
+     * Returns warning message when the journal has repeatedly failed to be compacted into the data file.
+     *
+     * @return Warning message indicating the journal keeps growing.
+     */
+    public String showCompactionFailureMessage() {
+        String message = "Warning: the journal could not be merged into the data file. Your changes are saved in\n"
+                + "the journal, but it keeps growing until merging succeeds.";
+        return message;
+    }
+
+    /**
+     * Returns error message when the first word of the input is not a supported command.
+     *
+     * @return Error message indicating the command is unsupported.
+     */
+    public String showUnsupportedCommandMessage() {
+        String message = "This is unsupported task. Please only enter the supported types of task.";
+        return message;
+    }
 }
@@ -0,0 +1,42 @@
+package graphics;
+
+import bytetalker.CommandProcessor;
+import bytetalker.storage.Storage;
+import bytetalker.ui.Ui;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * A launcher that runs ByteTalker without a window. The commands in the file given as the argument, or in the
+ * standard input when no file is given, are run as one batch and the result of every command is printed.
+ */
+public class BatchLauncher {
+    public static void main(String[] args) throws IOException {
+        Ui ui = new Ui();
+        Storage storage = CommandProcessor.createStorage(CommandProcessor.DATA_FILE_PATH, null);
+        CommandProcessor commandProcessor;
+        try {
+            commandProcessor = new CommandProcessor(storage, ui);
+        } catch (IOException e) {
+            System.out.println(ui.showFileNotFoundErrorMsg());
+            return;
+        }
+
+        if (args.length > 0) {
+            System.out.println(commandProcessor.runScript(String.join(" ", args)));
+            return;
+        }
+        ArrayList<String> commands = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                commands.add(line);
+            }
+        }
+        System.out.println(commandProcessor.runBatch(commands));
+    }
+}
@@ -0,0 +1,23 @@
+package graphics;
+
+/**
+ * Represents a single message of the chat transcript, either entered by the user or replied by ByteTalker.
+ * Only the messages are kept in the transcript; the dialog boxes showing them are created for the visible ones.
+ */
+public class ChatMessage {
+    private final String text;
+    private final boolean isFromUser;
+
+    public ChatMessage(String text, boolean isFromUser) {
+        this.text = text;
+        this.isFromUser = isFromUser;
+    }
+
+    public String getText() {
+        return this.text;
+    }
+
+    public boolean isFromUser() {
+        return this.isFromUser;
+    }
+}
@@ -1,8 +1,11 @@
 package graphics;
 
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.SnapshotParameters;
 import javafx.scene.control.Label;
+import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundFill;
@@ -13,8 +16,24 @@ import javafx.collections.ObservableList;
 import javafx.scene.Node;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
+import javafx.stage.Screen;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Shows a message next to the picture of its sender.
+ * The pictures are scaled and clipped to a circle once per picture and shared by every dialog box, and the padding
+ * and background are shared constants, so a dialog box only allocates its own nodes.
+ */
 public class DialogBox extends HBox {
+    private static final double AVATAR_SIZE = 80.0;
+    private static final Insets TEXT_PADDING = new Insets(10);
+    private static final Insets BOX_PADDING = new Insets(8, 8, 8, 8);
+    private static final Background BYTETALKER_BACKGROUND =
+            new Background(new BackgroundFill(Color.GRAY, CornerRadii.EMPTY, Insets.EMPTY));
+    private static final Map<Image, Image> AVATARS = Collections.synchronizedMap(new WeakHashMap<>());
 
     private Label text;
     private ImageView displayPicture;
@@ -24,18 +43,67 @@ public class DialogBox extends HBox {
         displayPicture = iv;
 
         text.setWrapText(true);
-        text.setPadding(new Insets(10));
-        this.setPadding(new Insets(8, 8, 8, 8));
-        displayPicture.setFitWidth(80.0);
-        displayPicture.setFitHeight(80.0);
-        Circle clip = new Circle(40, 40, 40);
-        displayPicture.setClip(clip);
+        text.setPadding(TEXT_PADDING);
+        this.setPadding(BOX_PADDING);
+        displayPicture.setFitWidth(AVATAR_SIZE);
+        displayPicture.setFitHeight(AVATAR_SIZE);
         displayPicture.setPreserveRatio(true);
+        setPicture(displayPicture.getImage());
 
         this.setAlignment(Pos.TOP_RIGHT);
         this.getChildren().addAll(text, displayPicture);
     }
 
+    /**
+     * Returns the picture scaled to the size of an avatar and clipped to a circle. It is rendered the first time the
+     * picture is shown and then shared by every dialog box.
+     *
+     * @param picture Picture of the sender.
+     * @return Rendered avatar, or null if it cannot be rendered yet, because the picture is still being loaded in the
+     *     background or this is not the JavaFX application thread, which is the only thread that can render it.
+     */
+    static Image getAvatar(Image picture) {
+        Image avatar = AVATARS.get(picture);
+        boolean isLoaded = picture.getProgress() >= 1.0 && !picture.isError();
+        if (avatar == null && isLoaded && Platform.isFxApplicationThread()) {
+            avatar = renderAvatar(picture);
+            AVATARS.put(picture, avatar);
+        }
+        return avatar;
+    }
+
+    /**
+     * Renders the picture clipped to a circle at the resolution of the screen, so it stays sharp on high density
+     * screens once the image view scales it down to the size of an avatar.
+     */
+    private static Image renderAvatar(Image picture) {
+        double size = AVATAR_SIZE * Screen.getPrimary().getOutputScaleX();
+        ImageView view = new ImageView(picture);
+        view.setFitWidth(size);
+        view.setFitHeight(size);
+        view.setPreserveRatio(true);
+        view.setClip(new Circle(size / 2, size / 2, size / 2));
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        return view.snapshot(parameters, null);
+    }
+
+    /**
+     * Shows the shared avatar of the picture, or clips the picture itself when the avatar cannot be rendered yet.
+     */
+    private void setPicture(Image picture) {
+        Image avatar = picture == null ? null : getAvatar(picture);
+        if (avatar != null) {
+            displayPicture.setImage(avatar);
+            displayPicture.setClip(null);
+        } else {
+            displayPicture.setImage(picture);
+            if (displayPicture.getClip() == null) {
+                displayPicture.setClip(new Circle(AVATAR_SIZE / 2, AVATAR_SIZE / 2, AVATAR_SIZE / 2));
+            }
+        }
+    }
+
     /**
      * Flips the dialog box such that the ImageView is on the left and text on the right.
      */
@@ -46,6 +114,31 @@ public class DialogBox extends HBox {
         this.getChildren().setAll(tmp);
     }
 
+    /**
+     * Shows another message in the dialog box, with the picture on the right for the user and on the left for
+     * ByteTalker, so the same dialog box can be reused for every message shown by a cell of the transcript.
+     *
+     * @param message Text of the message.
+     * @param picture Picture of the sender.
+     * @param isFromUser Whether the message has been entered by the user.
+     */
+    public void showMessage(String message, Image picture, boolean isFromUser) {
+        text.setText(message);
+        text.setTextFill(isFromUser ? Color.BLACK : Color.WHITE);
+        setPicture(picture);
+        boolean isShowingUserMessage = this.getChildren().get(0) == text;
+        if (isFromUser == isShowingUserMessage) {
+            return;
+        }
+        flip();
+        if (isFromUser) {
+            this.setAlignment(Pos.TOP_RIGHT);
+            this.setBackground(null);
+        } else {
+            this.setBackground(BYTETALKER_BACKGROUND);
+        }
+    }
+
     public static DialogBox getUserDialog(Label l, ImageView iv) {
         DialogBox dialogBox = new DialogBox(l, iv);
         return dialogBox;
@@ -54,7 +147,7 @@ public class DialogBox extends HBox {
     public static DialogBox getByteTalkerDialog(Label l, ImageView iv) {
         var db = new DialogBox(l, iv);
         db.flip();
-        db.setBackground(new Background(new BackgroundFill(Color.GRAY, CornerRadii.EMPTY, Insets.EMPTY)));
+        db.setBackground(BYTETALKER_BACKGROUND);
         db.text.setTextFill(Color.WHITE);
         return db;
     }
@@ -0,0 +1,40 @@
+package graphics;
+
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+/**
+ * Shows a message of the transcript as a dialog box.
+ * The list view only creates as many cells as fit on the screen and reuses them while scrolling, so each cell keeps
+ * a single dialog box and only swaps its text and picture when it is given another message.
+ */
+public class DialogCell extends ListCell<ChatMessage> {
+    private final Image userImage;
+    private final Image byteTalkerImage;
+    private final DialogBox dialogBox = new DialogBox(new Label(), new ImageView());
+
+    public DialogCell(Image userImage, Image byteTalkerImage) {
+        this.userImage = userImage;
+        this.byteTalkerImage = byteTalkerImage;
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        // Lets the text wrap to the width of the list instead of widening the cell, and keeps the dialog boxes
+        // from being highlighted when clicked.
+        setPrefWidth(0);
+        setStyle("-fx-background-color: transparent; -fx-padding: 0;");
+    }
+
+    @Override
+    protected void updateItem(ChatMessage message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        if (isEmpty || message == null) {
+            setGraphic(null);
+            return;
+        }
+        Image picture = message.isFromUser() ? userImage : byteTalkerImage;
+        dialogBox.showMessage(message.getText(), picture, message.isFromUser());
+        setGraphic(dialogBox);
+    }
+}
@@ -0,0 +1,88 @@
+package graphics;
+
+import bytetalker.CommandProcessor;
+import bytetalker.server.CommandServer;
+import bytetalker.storage.Storage;
+import bytetalker.ui.Ui;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * A launcher that serves ByteTalker over a local socket without a window.
+ * Listens on the loopback port given with --port, 4567 by default, or on the Unix domain socket given with
+ * --unix {path}, until the process is stopped.
+ */
+public class ServerLauncher {
+    private static final int DEFAULT_PORT = 4567;
+    private static final int MAX_PORT = 65535;
+    private static final String USAGE = "Usage: ServerLauncher [--port {port} | --unix {path}]";
+
+    public static void main(String[] args) throws IOException {
+        SocketAddress address = parseAddress(args);
+        if (address == null) {
+            System.out.println(USAGE);
+            return;
+        }
+        ScheduledExecutorService commandExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bytetalker-command");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Ui ui = new Ui();
+        Storage storage = CommandProcessor.createStorage(CommandProcessor.DATA_FILE_PATH, commandExecutor);
+        CommandProcessor commandProcessor;
+        try {
+            commandProcessor = new CommandProcessor(storage, ui, commandExecutor);
+        } catch (IOException e) {
+            System.out.println(ui.showFileNotFoundErrorMsg());
+            return;
+        }
+
+        CommandServer server = new CommandServer(commandProcessor, commandExecutor, address);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+        System.out.println("ByteTalker is listening on " + server.getLocalAddress());
+        if (storage.getContentDictionary() != null) {
+            System.out.println("Loaded " + storage.getContentDictionary());
+        }
+        server.serve();
+    }
+
+    /**
+     * Returns the address given in the arguments.
+     *
+     * @param args Command line arguments.
+     * @return Address to listen on, or null if the arguments are not valid.
+     */
+    static SocketAddress parseAddress(String[] args) {
+        if (args.length == 0) {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), DEFAULT_PORT);
+        } else if (args.length != 2) {
+            return null;
+        } else if (args[0].equals("--unix")) {
+            return UnixDomainSocketAddress.of(args[1]);
+        } else if (!args[0].equals("--port")) {
+            return null;
+        }
+        try {
+            int port = Integer.parseInt(args[1]);
+            return port >= 0 && port <= MAX_PORT
+                    ? new InetSocketAddress(InetAddress.getLoopbackAddress(), port)
+                    : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
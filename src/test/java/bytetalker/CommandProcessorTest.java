@@ -0,0 +1,104 @@
+package bytetalker;
+
+import bytetalker.storage.Storage;
+import bytetalker.ui.Ui;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CommandProcessorTest {
+    @TempDir
+    Path tempDir;
+
+    private Storage createStorage(Path filePath) {
+        Storage storage = new Storage(filePath.toString());
+        storage.setupDirectoryAndFile();
+        return storage;
+    }
+
+    @Test
+    public void execute_addTask_repliesWithId() throws IOException {
+        CommandProcessor commandProcessor = new CommandProcessor(createStorage(tempDir.resolve("ByteTalker.txt")),
+                new Ui());
+
+        assertEquals("Got it. I've added this task:\n"
+                + "       [T][ ] read book\n"
+                + "Now you have 1 tasks in the list.\n"
+                + "Its id is #1.", commandProcessor.execute("todo read book"));
+        commandProcessor.execute("todo write essay");
+        assertTrue(commandProcessor.execute("delete #1").contains("[T][ ] read book"));
+        assertTrue(commandProcessor.execute("todo sleep").endsWith("Its id is #3."));
+    }
+
+    @Test
+    public void runScript_appliesAllCommandsAndSavesOnce() throws IOException {
+        Path filePath = tempDir.resolve("ByteTalker.txt");
+        Path script = tempDir.resolve("script.txt");
+        Files.write(script, List.of("todo read book", "", "deadline return book /by 5/2/2019 1800", "mark 1",
+                "delete 5", "bye", "todo never run"));
+        CommandProcessor commandProcessor = new CommandProcessor(createStorage(filePath), new Ui());
+
+        String report = commandProcessor.execute("run " + script);
+
+        assertTrue(report.startsWith("Ran 4 commands:\n1. todo read book\n"));
+        assertTrue(report.endsWith("All changes have been saved."));
+        assertEquals(List.of("1 / T / 1 / read book", "2 / D / 0 / return book / 5/2/2019 1800"),
+                Files.readAllLines(filePath));
+    }
+
+    @Test
+    public void writeBehind_failedFlush_rollsBackUnsavedChanges() throws Exception {
+        ScheduledExecutorService writerLane = Executors.newSingleThreadScheduledExecutor();
+        Path filePath = tempDir.resolve("ByteTalker.txt");
+        try {
+            Storage storage = createStorage(filePath);
+            storage.enableWriteBehind(writerLane, 10);
+            CommandProcessor commandProcessor = new CommandProcessor(storage, new Ui(), writerLane);
+            commandProcessor.execute("todo read book");
+            for (int i = 0; i < 500 && Files.readAllLines(filePath).isEmpty(); i++) {
+                Thread.sleep(10);
+            }
+            Files.createDirectories(tempDir.resolve("ByteTalker.txt.tmp").resolve("blocked"));
+            commandProcessor.execute("todo return book");
+
+            String reply = "";
+            for (int i = 0; i < 500 && !reply.contains("Warning"); i++) {
+                Thread.sleep(10);
+                reply = commandProcessor.execute("list");
+            }
+            assertTrue(reply.contains("have been undone"));
+            assertFalse(reply.contains("return book"));
+            assertFalse(commandProcessor.execute("find book").contains("return book"));
+        } finally {
+            writerLane.shutdownNow();
+        }
+    }
+
+    @Test
+    public void runBatch_failedSave_rollsBackEveryCommand() throws IOException {
+        Path directory = Files.createDirectory(tempDir.resolve("data"));
+        Path filePath = directory.resolve("ByteTalker.txt");
+        CommandProcessor commandProcessor = new CommandProcessor(createStorage(filePath), new Ui());
+        commandProcessor.execute("todo read book");
+        String listBefore = commandProcessor.execute("list");
+        String foundBefore = commandProcessor.execute("find read");
+        Files.delete(filePath);
+        Files.delete(directory);
+
+        String report = commandProcessor.runBatch(List.of("mark 1", "update 1 /content write essay", "todo sleep"));
+
+        assertTrue(report.endsWith("none of the commands have taken effect. Please try again."));
+        assertEquals(listBefore, commandProcessor.execute("list"));
+        assertEquals(foundBefore, commandProcessor.execute("find read"));
+    }
+}
@@ -0,0 +1,65 @@
+package bytetalker.command;
+
+import bytetalker.storage.Storage;
+import bytetalker.task.TaskList;
+import bytetalker.ui.Ui;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CommandRegistryTest {
+    private static class EchoCommand implements Command {
+        private final String keyword;
+
+        EchoCommand(String keyword) {
+            this.keyword = keyword;
+        }
+
+        @Override
+        public String getKeyword() {
+            return this.keyword;
+        }
+
+        @Override
+        public boolean isReadOnly() {
+            return true;
+        }
+
+        @Override
+        public String execute(TaskList tasks, String input, Storage storage, Ui ui) {
+            return input;
+        }
+    }
+
+    @Test
+    public void find_keywordsAndAliases_returnsBuiltInCommand() {
+        CommandRegistry registry = CommandRegistry.createDefault();
+
+        assertSame(TaskCommand.LIST, registry.find("list"));
+        assertSame(TaskCommand.LIST, registry.find("ls"));
+        assertSame(TaskCommand.DELETE, registry.find("rm"));
+        assertSame(TaskCommand.TODO, registry.find("todo"));
+        assertNull(registry.find("bye"));
+        assertNull(registry.find(""));
+    }
+
+    @Test
+    public void register_newCommand_isFound() {
+        CommandRegistry registry = CommandRegistry.createDefault();
+        Command echo = new EchoCommand("echo");
+
+        registry.register(echo);
+
+        assertSame(echo, registry.find("echo"));
+    }
+
+    @Test
+    public void register_takenKeyword_throwsException() {
+        CommandRegistry registry = CommandRegistry.createDefault();
+
+        assertThrows(IllegalArgumentException.class, () -> registry.register(new EchoCommand("ls")));
+        assertSame(TaskCommand.LIST, registry.find("ls"));
+    }
+}
@@ -0,0 +1,77 @@
+package bytetalker.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class DateTimeParserTest {
+    private static final String ALPHABET = "0123456789-/ +";
+
+    @Test
+    public void parse_resolvesLikeFormatter() {
+        assertEquals(LocalDateTime.of(2019, 2, 28, 23, 59), DateTimeParser.parse("2019-2-30"));
+        assertEquals(LocalDateTime.of(2019, 2, 6, 0, 0), DateTimeParser.parse("5/2/2019 2400"));
+        assertEquals(LocalDateTime.of(2019, 2, 5, 8, 0), DateTimeParser.parse("05/002/2019 800"));
+        assertEquals(null, DateTimeParser.parse("0000-1-1"));
+        assertEquals(null, DateTimeParser.parse("5/2/2019  1800"));
+        assertEquals(null, DateTimeParser.parse("5/2/2019 1860"));
+    }
+
+    @Test
+    public void parse_sameAsFormatter() {
+        String[] samples = {"5/2/2019 1800", "2019-2-5 1800", "2019-2-5", " 2019-2-5 ", "2019-2-5-", "-2019-2-5",
+            "5-2-2019 1800", "29/2/2024", "29/2/2023", "31/4/2019", "2019-13-1", "+20190-1-1 1800",
+            "+2019-1-1 1800", "20190-1-1 1800", "5/2/2019 00001800", "5/2/2019 +800", "5/2/2019\t1800", "", " ",
+            "-", "5/2/2019 123456789012345678900", "5/2/2019 000000000000000000001800", "test"};
+        for (String sample : samples) {
+            assertEquals(parseWithFormatter(sample), DateTimeParser.parseUncached(sample), sample);
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            StringBuilder sample = new StringBuilder(random.nextBoolean() ? "2019-2-5 1800" : "5/2/2019 1800");
+            for (int j = random.nextInt(3); j >= 0; j--) {
+                int position = random.nextInt(sample.length() + 1);
+                if (position < sample.length() && random.nextBoolean()) {
+                    sample.deleteCharAt(position);
+                } else {
+                    sample.insert(position, ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+                }
+            }
+            String text = sample.toString();
+            assertEquals(parseWithFormatter(text), DateTimeParser.parseUncached(text), text);
+        }
+    }
+
+    @Test
+    public void parse_returnsCachedResult() {
+        LocalDateTime dateTime = DateTimeParser.parse("8/2/2024 1500");
+        assertSame(dateTime, DateTimeParser.parse("8/2/2024 1500"));
+    }
+
+    /**
+     * Parses the string the way Parser.parseDateTime did before the parsing was done by DateTimeParser.
+     */
+    private static LocalDateTime parseWithFormatter(String dateTimeString) {
+        String cleanDateTimeString = dateTimeString.strip();
+        boolean isTimeExist = cleanDateTimeString.split(" ").length > 1;
+        boolean isInputFirstFormat = dateTimeString.split("-").length > 1;
+        if (!isTimeExist) {
+            cleanDateTimeString += " 2359";
+        }
+        DateTimeFormatter inputFormatter = isInputFirstFormat
+                ? DateTimeFormatter.ofPattern("yyyy-M-d Hmm")
+                : DateTimeFormatter.ofPattern("d/M/yyyy Hmm");
+        try {
+            return LocalDateTime.parse(cleanDateTimeString, inputFormatter);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -5,7 +5,9 @@ import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 public class ParserTest {
 
@@ -62,4 +64,41 @@ public class ParserTest {
     public void parseDateTime_wrongInput6() {
         assertEquals(null, Parser.parseDateTime("2019-5-50"));
     }
+
+    @Test
+    public void validateDeadlineAddInput_missingDeadline_returnsWrongFormat() {
+        ParseResult<String[]> result = Parser.validateDeadlineAddInput("deadline return book /by");
+
+        assertFalse(result.isSuccess());
+        assertEquals(ParseError.WRONG_FORMAT, result.getError());
+        assertEquals("Wrong command format. Please follow the correct format.", result.getMessage());
+    }
+
+    @Test
+    public void validateEventAddInput_sampleInput() {
+        ParseResult<String[]> result = Parser.validateEventAddInput("event meeting /from 8/2/2024 1500 /to 1700");
+
+        assertArrayEquals(new String[] {"meeting", "8/2/2024 1500", "1700"}, result.getValue());
+    }
+
+    @Test
+    public void validateQueryInput_reversedPeriod_returnsWrongQueryFormat() {
+        String[] reversed = Parser.parse("query /from 2/12/2019 1800 /to 2/12/2019 1400");
+        String[] sameMinute = Parser.parse("query /from 2/12/2019 1800 /to 2/12/2019 1800");
+
+        assertEquals(ParseError.WRONG_QUERY_FORMAT, Parser.validateQueryInput(reversed).getError());
+        LocalDateTime minute = LocalDateTime.of(2019, 12, 2, 18, 0);
+        assertArrayEquals(new LocalDateTime[] {minute, minute}, Parser.validateQueryInput(sameMinute).getValue());
+    }
+
+    @Test
+    public void parseNumber_matchesParseInt() {
+        assertEquals(Long.valueOf(12), Parser.parseNumber("12", Integer.MAX_VALUE).getValue());
+        assertEquals(Long.valueOf(-3), Parser.parseNumber("-3", Integer.MAX_VALUE).getValue());
+        assertEquals(Long.valueOf(Integer.MAX_VALUE), Parser.parseNumber("2147483647", Integer.MAX_VALUE).getValue());
+        assertEquals(ParseError.NOT_A_NUMBER, Parser.parseNumber("2147483648", Integer.MAX_VALUE).getError());
+        assertEquals(ParseError.NOT_A_NUMBER, Parser.parseNumber("1a", Integer.MAX_VALUE).getError());
+        assertEquals(ParseError.NOT_A_NUMBER, Parser.parseNumber("-", Integer.MAX_VALUE).getError());
+        assertEquals(ParseError.NOT_A_NUMBER, Parser.parseNumber("", Integer.MAX_VALUE).getError());
+    }
 }
@@ -0,0 +1,42 @@
+package bytetalker.parser;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TokenizerTest {
+    private static final String[] EVENT_MARKERS = {"/from", "/to"};
+
+    @Test
+    public void word_sameAsParse() {
+        String input = " update 2  /content read  book ";
+        String[] splitMessages = Parser.parse(input);
+        for (int i = 0; i < splitMessages.length; i++) {
+            assertEquals(splitMessages[i], Tokenizer.word(input, i));
+        }
+        assertEquals(null, Tokenizer.word(input, splitMessages.length));
+    }
+
+    @Test
+    public void afterWords_keepsSpacesInside() {
+        assertEquals("read  book", Tokenizer.afterWords("update 2 /content  read  book ", 3));
+        assertEquals("", Tokenizer.afterWords("update 2 /content", 3));
+    }
+
+    @Test
+    public void splitFields_event() {
+        assertArrayEquals(new String[] {"midterm  exam", "8/2/2024 1500", "8/2/2024 1800"},
+                Tokenizer.splitFields("event midterm  exam /from 8/2/2024 1500 /to 8/2/2024 1800",
+                        EVENT_MARKERS, new String[] {"/by"}));
+        assertArrayEquals(new String[] {"midterm", null, ""},
+                Tokenizer.splitFields("event midterm /from", EVENT_MARKERS, new String[] {"/by"}));
+        assertEquals(null, Tokenizer.splitFields("event midterm /by 8/2/2024", EVENT_MARKERS, new String[] {"/by"}));
+    }
+
+    @Test
+    public void parseEventAddInput_sameForRawAndSplitInput() throws Exception {
+        String input = "event project /from 8/2/2024 1500 /to 8/2/2024 1800";
+        assertArrayEquals(Parser.parseEventAddInput(Parser.parse(input)), Parser.parseEventAddInput(input));
+    }
+}
@@ -0,0 +1,139 @@
+package bytetalker.server;
+
+import bytetalker.CommandProcessor;
+import bytetalker.storage.Storage;
+import bytetalker.ui.Ui;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CommandServerTest {
+    @TempDir
+    Path tempDir;
+
+    private CommandServer startServer() throws IOException {
+        Storage storage = new Storage(tempDir.resolve("ByteTalker.txt").toString());
+        storage.setupDirectoryAndFile();
+        ScheduledExecutorService commandExecutor = Executors.newSingleThreadScheduledExecutor();
+        CommandProcessor commandProcessor = new CommandProcessor(storage, new Ui(), commandExecutor);
+        CommandServer server = new CommandServer(commandProcessor, commandExecutor,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        Thread serverThread = new Thread(() -> {
+            try {
+                server.serve();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        serverThread.setDaemon(true);
+        serverThread.start();
+        return server;
+    }
+
+    private static String readReply(BufferedReader reader) throws IOException {
+        StringBuilder reply = new StringBuilder();
+        String line;
+        while (!(line = reader.readLine()).equals(CommandServer.END_OF_REPLY)) {
+            reply.append(line.startsWith(CommandServer.END_OF_REPLY) ? line.substring(1) : line).append('\n');
+        }
+        return reply.toString();
+    }
+
+    @Test
+    public void serve_commandsFromConcurrentClients() throws Exception {
+        CommandServer server = startServer();
+        int clientCount = 4;
+        int commandsPerClient = 50;
+        ArrayList<Thread> clients = new ArrayList<>();
+        for (int c = 0; c < clientCount; c++) {
+            int client = c;
+            Thread thread = new Thread(() -> {
+                try (Socket socket = new Socket()) {
+                    socket.connect(server.getLocalAddress());
+                    PrintWriter writer = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+                    BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                    for (int i = 0; i < commandsPerClient; i++) {
+                        writer.println("todo client " + client + " task " + i);
+                        assertTrue(readReply(reader).startsWith("Got it. I've added this task:"));
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            clients.add(thread);
+            thread.start();
+        }
+        for (Thread thread : clients) {
+            thread.join();
+        }
+        server.close();
+
+        assertEquals(clientCount * commandsPerClient, Files.readAllLines(tempDir.resolve("ByteTalker.txt")).size());
+    }
+
+    @Test
+    public void writeReply_dotStuffing() throws IOException {
+        StringWriter writer = new StringWriter();
+        CommandServer.writeReply(writer, ".\nread .profile\n..");
+        assertEquals("..\nread .profile\n...\n.\n", writer.toString());
+        assertEquals(".\nread .profile\n..\n", readReply(new BufferedReader(new StringReader(writer.toString()))));
+    }
+
+    @Test
+    public void serve_replyAndBye() throws Exception {
+        CommandServer server = startServer();
+        try (Socket socket = new Socket()) {
+            socket.connect(server.getLocalAddress());
+            PrintWriter writer = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            writer.println("todo .");
+            readReply(reader);
+            writer.println("find .");
+            assertEquals("Here are the found tasks:\n1.[T][ ] .\n\n", readReply(reader));
+            writer.println("bye");
+            assertEquals("    Bye. Hope to see you again soon!\n", readReply(reader));
+            assertEquals(null, reader.readLine());
+        } finally {
+            server.close();
+        }
+    }
+
+    @Test
+    public void serve_runCommand_rejected() throws Exception {
+        Path script = tempDir.resolve("secret.txt");
+        Files.writeString(script, "todo secret\n");
+        CommandServer server = startServer();
+        try (Socket socket = new Socket()) {
+            socket.connect(server.getLocalAddress());
+            PrintWriter writer = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            writer.println("run " + script);
+            String reply = readReply(reader);
+            assertTrue(reply.startsWith("This is unsupported task."));
+            assertTrue(!reply.contains("secret"));
+        } finally {
+            server.close();
+        }
+    }
+}
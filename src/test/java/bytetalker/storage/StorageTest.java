@@ -0,0 +1,364 @@
+package bytetalker.storage;
+
+import bytetalker.task.ContentDictionary;
+import bytetalker.task.Deadline;
+import bytetalker.task.Event;
+import bytetalker.task.Task;
+import bytetalker.task.Todo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StorageTest {
+    @TempDir
+    Path tempDir;
+
+    private Storage createStorage() {
+        Storage storage = new Storage(tempDir.resolve("ByteTalker.txt").toString());
+        storage.setupDirectoryAndFile();
+        return storage;
+    }
+
+    @Test
+    public void storeTasks_loadTasks_roundTrip() throws IOException {
+        Storage storage = createStorage();
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book", true));
+        tasks.add(new Deadline("return book", LocalDateTime.of(2019, 2, 5, 18, 0)));
+        storage.storeTasks(tasks);
+
+        ArrayList<Task> loadedTasks = createStorage().loadTasks();
+        assertEquals(2, loadedTasks.size());
+        assertEquals("[T][X] read book", loadedTasks.get(0).toString());
+        assertEquals("[D][ ] return book (by: Feb 05 2019 6:00PM)", loadedTasks.get(1).toString());
+    }
+
+    @Test
+    public void journal_replayedOnLoad() throws IOException {
+        Storage storage = createStorage();
+        storage.setJournalEnabled(true);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        storage.storeTasks(tasks);
+
+        Task added = new Todo("write essay");
+        tasks.add(added);
+        storage.storeAddedTask(tasks, added);
+        tasks.get(0).setStatus(true);
+        storage.storeChangedTask(tasks, 0);
+        tasks.remove(0);
+        storage.storeDeletedTask(tasks, 0);
+
+        assertEquals(1, Files.readAllLines(tempDir.resolve("ByteTalker.txt")).size());
+        ArrayList<Task> loadedTasks = createStorage().loadTasks();
+        assertEquals(1, loadedTasks.size());
+        assertEquals("[T][ ] write essay", loadedTasks.get(0).toString());
+    }
+
+    @Test
+    public void journal_forcedAppends_replayedOnLoad() throws IOException {
+        Storage storage = createStorage();
+        storage.setJournalEnabled(true);
+        storage.setDurability(Durability.FILE_AND_DIRECTORY);
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (String content : List.of("read book", "write essay")) {
+            Task task = new Todo(content);
+            tasks.add(task);
+            storage.storeAddedTask(tasks, task);
+        }
+
+        assertEquals(List.of("+ / T / 0 / read book", "+ / T / 0 / write essay"),
+                Files.readAllLines(tempDir.resolve("ByteTalker.txt.journal")));
+        assertEquals(2, createStorage().loadTasks().size());
+    }
+
+    @Test
+    public void journal_compactedIntoDataFile() throws IOException {
+        Storage storage = createStorage();
+        storage.setJournalEnabled(true);
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Task task = new Todo("task " + i);
+            tasks.add(task);
+            storage.storeAddedTask(tasks, task);
+        }
+
+        assertFalse(Files.exists(tempDir.resolve("ByteTalker.txt.journal")));
+        assertEquals(1000, Files.readAllLines(tempDir.resolve("ByteTalker.txt")).size());
+        assertEquals(1000, createStorage().loadTasks().size());
+    }
+
+    @Test
+    public void loadTasks_interruptedCompactionRecovered() throws IOException {
+        Storage storage = createStorage();
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        storage.storeTasks(tasks);
+        Files.write(tempDir.resolve("ByteTalker.txt.journal"), List.of("+ / T / 1 / write essay"));
+        Files.write(tempDir.resolve("ByteTalker.txt.compacted"), List.of("T / 0 / read book", "T / 1 / write essay"));
+
+        ArrayList<Task> loadedTasks = createStorage().loadTasks();
+        assertEquals(2, loadedTasks.size());
+        assertEquals("[T][X] write essay", loadedTasks.get(1).toString());
+        assertTrue(Files.notExists(tempDir.resolve("ByteTalker.txt.compacted")));
+        assertTrue(Files.notExists(tempDir.resolve("ByteTalker.txt.journal")));
+    }
+
+    @Test
+    public void loadTasks_truncatedJournalRecordDropped() throws IOException {
+        Storage storage = createStorage();
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        storage.storeTasks(tasks);
+        Path journalPath = tempDir.resolve("ByteTalker.txt.journal");
+        Files.writeString(journalPath, "+ / T / 0 / write essay\n= / 0");
+
+        Storage loadingStorage = createStorage();
+        loadingStorage.setJournalEnabled(true);
+        ArrayList<Task> loadedTasks = loadingStorage.loadTasks();
+        assertEquals(2, loadedTasks.size());
+        assertEquals("[T][ ] read book", loadedTasks.get(0).toString());
+        assertEquals("+ / T / 0 / write essay\n", Files.readString(journalPath));
+
+        Task added = new Todo("submit timesheet");
+        loadedTasks.add(added);
+        loadingStorage.storeAddedTask(loadedTasks, added);
+        Files.writeString(journalPath, Files.readString(journalPath) + "+ / 4 / T / 0 / retu");
+        assertEquals(List.of("[T][ ] read book", "[T][ ] write essay", "[T][ ] submit timesheet"),
+                createStorage().loadTasks().stream().map(Task::toString).toList());
+    }
+
+    @Test
+    public void loadTasks_invalidJournalRecordBeforeTheLast_fails() throws IOException {
+        createStorage().storeTasks(new ArrayList<>(List.of(new Todo("read book"))));
+        Files.write(tempDir.resolve("ByteTalker.txt.journal"), List.of("- / 5", "+ / T / 0 / write essay"));
+
+        boolean isFailed = false;
+        try {
+            createStorage().loadTasks();
+        } catch (IOException e) {
+            isFailed = true;
+        }
+        assertTrue(isFailed);
+    }
+
+    @Test
+    public void loadTasks_interruptedWriteDiscarded() throws IOException {
+        Storage storage = createStorage();
+        storage.setDurability(Durability.FILE_AND_DIRECTORY);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        storage.storeTasks(tasks);
+        Files.writeString(tempDir.resolve("ByteTalker.txt.tmp"), "T / 1 / wri");
+
+        ArrayList<Task> loadedTasks = createStorage().loadTasks();
+        assertEquals(1, loadedTasks.size());
+        assertEquals("[T][ ] read book", loadedTasks.get(0).toString());
+        assertTrue(Files.notExists(tempDir.resolve("ByteTalker.txt.tmp")));
+    }
+
+    @Test
+    public void loadTasks_contentWithSeparator() throws IOException {
+        Storage storage = createStorage();
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read a / b"));
+        tasks.add(new Event("exam / quiz", LocalDateTime.of(2024, 2, 8, 9, 5), LocalDateTime.of(2024, 2, 8, 18, 0)));
+        storage.storeTasks(tasks);
+
+        ArrayList<Task> loadedTasks = createStorage().loadTasks();
+        assertEquals("[T][ ] read a / b", loadedTasks.get(0).toString());
+        assertEquals("[E][ ] exam / quiz (from: Feb 08 2024 9:05AM to: Feb 08 2024 6:00PM)",
+                loadedTasks.get(1).toString());
+    }
+
+    @Test
+    public void loadTasks_windowsLineEndingsAndMissingLastNewline() throws IOException {
+        Files.writeString(tempDir.resolve("ByteTalker.txt"), "T / 0 / read book\r\nD / 1 / essay / 31/2/2024 2359");
+
+        ArrayList<Task> loadedTasks = createStorage().loadTasks();
+        assertEquals("[T][ ] read book", loadedTasks.get(0).toString());
+        assertEquals("[D][X] essay (by: Feb 29 2024 11:59PM)", loadedTasks.get(1).toString());
+    }
+
+    @Test
+    public void binaryFormat_roundTrip() throws IOException {
+        Storage storage = createStorage();
+        storage.setFormat(StorageFormat.BINARY);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read a / b", true));
+        tasks.add(new Event("exam", LocalDateTime.of(2024, 2, 8, 9, 5), LocalDateTime.of(2024, 2, 8, 18, 0)));
+        storage.storeTasks(tasks);
+
+        Storage loadingStorage = createStorage();
+        loadingStorage.setFormat(StorageFormat.BINARY);
+        ArrayList<Task> loadedTasks = loadingStorage.loadTasks();
+        assertTrue(Files.exists(tempDir.resolve("ByteTalker.bin")));
+        assertEquals("[T][X] read a / b", loadedTasks.get(0).toString());
+        assertEquals("[E][ ] exam (from: Feb 08 2024 9:05AM to: Feb 08 2024 6:00PM)", loadedTasks.get(1).toString());
+    }
+
+    @Test
+    public void binaryFormat_convertedFromTextFile() throws IOException {
+        Files.write(tempDir.resolve("ByteTalker.txt"), List.of("T / 1 / read book", "D / 0 / essay / 5/2/2019 1800"));
+
+        Storage storage = new Storage(tempDir.resolve("ByteTalker.txt").toString());
+        storage.setFormat(StorageFormat.BINARY);
+        storage.setupDirectoryAndFile();
+        ArrayList<Task> loadedTasks = storage.loadTasks();
+        assertEquals("[T][X] read book", loadedTasks.get(0).toString());
+        assertEquals("[D][ ] essay (by: Feb 05 2019 6:00PM)", loadedTasks.get(1).toString());
+    }
+
+    @Test
+    public void writeBehind_coalescedUntilFlush() throws IOException {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            Storage storage = createStorage();
+            storage.enableWriteBehind(executor, 3_600_000);
+            ArrayList<Task> tasks = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                Task task = new Todo("task " + i);
+                tasks.add(task);
+                storage.storeAddedTask(tasks, task);
+            }
+            assertEquals(0, Files.readAllLines(tempDir.resolve("ByteTalker.txt")).size());
+
+            storage.flush();
+            assertEquals(100, Files.readAllLines(tempDir.resolve("ByteTalker.txt")).size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void loadTasks_idsKeptAndAssignedToLinesWithoutIds() throws IOException {
+        Files.write(tempDir.resolve("ByteTalker.txt"), List.of("T / 0 / read book", "D / 1 / essay / 5/2/2019 1800"));
+        ArrayList<Task> oldTasks = createStorage().loadTasks();
+        assertEquals(1, oldTasks.get(0).getId());
+        assertEquals(2, oldTasks.get(1).getId());
+
+        Files.write(tempDir.resolve("ByteTalker.txt"),
+                List.of("7 / T / 0 / read / book", "3 / D / 1 / essay / 5/2/2019 1800"));
+        ArrayList<Task> loadedTasks = createStorage().loadTasks();
+        assertEquals(7, loadedTasks.get(0).getId());
+        assertEquals("[T][ ] read / book", loadedTasks.get(0).toString());
+        assertEquals(3, loadedTasks.get(1).getId());
+        assertEquals("[D][X] essay (by: Feb 05 2019 6:00PM)", loadedTasks.get(1).toString());
+    }
+
+    @Test
+    public void binaryFormat_idsRoundTrip() throws IOException {
+        Storage storage = createStorage();
+        storage.setFormat(StorageFormat.BINARY);
+        ArrayList<Task> tasks = new ArrayList<>();
+        Task task = new Todo("read book");
+        task.setId(42);
+        tasks.add(task);
+        storage.storeTasks(tasks);
+
+        Storage loadingStorage = createStorage();
+        loadingStorage.setFormat(StorageFormat.BINARY);
+        assertEquals(42, loadingStorage.loadTasks().get(0).getId());
+    }
+
+    @Test
+    public void loadTasks_contentDictionary_sharesEqualContents() throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tasks.add(new Todo("weekly sync"));
+            tasks.add(new Deadline("submit timesheet", LocalDateTime.of(2024, 2, 2 + i * 7, 17, 0)));
+        }
+        createStorage().storeTasks(tasks);
+
+        Storage storage = createStorage();
+        ContentDictionary contentDictionary = new ContentDictionary();
+        storage.setContentDictionary(contentDictionary);
+        ArrayList<Task> loadedTasks = storage.loadTasks();
+
+        assertSame(loadedTasks.get(0).getTask(), loadedTasks.get(6).getTask());
+        assertSame(loadedTasks.get(1).getTask(), loadedTasks.get(7).getTask());
+        assertEquals(2, contentDictionary.size());
+        assertEquals(0.75, contentDictionary.getDedupRatio(), 1e-9);
+    }
+
+    @Test
+    public void writeBehind_failedFlush_rolledBackAndReported() throws Exception {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        Path blockingDirectory = tempDir.resolve("ByteTalker.txt.tmp");
+        try {
+            Storage storage = createStorage();
+            storage.enableWriteBehind(executor, 10);
+            AtomicReference<List<Task>> rolledBackTasks = new AtomicReference<>();
+            storage.setRollbackListener(rolledBackTasks::set);
+            ArrayList<Task> savedTasks = new ArrayList<>(List.of(new Todo("read book")));
+            executor.submit(() -> {
+                storage.storeTasksNow(savedTasks);
+                return null;
+            }).get();
+            Files.createDirectories(blockingDirectory.resolve("blocked"));
+            ArrayList<Task> tasks = new ArrayList<>(savedTasks);
+            Task task = new Todo("return book");
+            tasks.add(task);
+            executor.submit(() -> {
+                storage.storeAddedTask(tasks, task);
+                return null;
+            }).get();
+
+            IOException failure = null;
+            for (int i = 0; i < 500 && failure == null; i++) {
+                Thread.sleep(10);
+                failure = storage.takeBackgroundFailure();
+            }
+            assertTrue(failure != null);
+            assertEquals(savedTasks, rolledBackTasks.get());
+
+            Files.delete(blockingDirectory.resolve("blocked"));
+            Files.delete(blockingDirectory);
+            storage.flush();
+            assertEquals(1, Files.readAllLines(tempDir.resolve("ByteTalker.txt")).size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void journal_compactedOnExecutorAfterTheChange() throws Exception {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            Storage storage = createStorage();
+            storage.setJournalEnabled(true);
+            storage.setCompactionExecutor(executor);
+            ArrayList<Task> tasks = new ArrayList<>();
+            boolean isJournalKeptByChange = executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    Task task = new Todo("task " + i);
+                    tasks.add(task);
+                    storage.storeAddedTask(tasks, task);
+                }
+                return Files.exists(tempDir.resolve("ByteTalker.txt.journal"));
+            }).get();
+            executor.submit(() -> null).get();
+
+            assertTrue(isJournalKeptByChange);
+            assertFalse(Files.exists(tempDir.resolve("ByteTalker.txt.journal")));
+            assertEquals(1000, Files.readAllLines(tempDir.resolve("ByteTalker.txt")).size());
+            assertEquals(null, storage.takeCompactionFailure());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package bytetalker.task;
+
+import bytetalker.storage.Storage;
+import bytetalker.ui.Ui;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentTaskListTest {
+    private static final int WRITER_COUNT = 2;
+    private static final int READER_COUNT = 4;
+    private static final int TASKS_PER_WRITER = 300;
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Checks that the snapshot is a copy published after a whole change: every writer's tasks are present in the
+     * order they were added, without gaps.
+     */
+    private static String checkSnapshot(List<Task> snapshot) {
+        int[] nextTask = new int[WRITER_COUNT];
+        for (Task task : snapshot) {
+            String[] words = task.getTask().split(" ");
+            int writer = Integer.parseInt(words[1]);
+            int number = Integer.parseInt(words[2]);
+            if (number != nextTask[writer]) {
+                return "Expected task " + nextTask[writer] + " of writer " + writer + " but got " + task;
+            }
+            nextTask[writer]++;
+        }
+        return null;
+    }
+
+    @Test
+    public void readAndWrite_concurrentThreads_linearizable() throws Exception {
+        Storage storage = new Storage(tempDir.resolve("ByteTalker.txt").toString());
+        storage.setupDirectoryAndFile();
+        storage.setJournalEnabled(true);
+        Ui ui = new Ui();
+        ExecutorService writerLane = Executors.newSingleThreadExecutor();
+        ConcurrentTaskList tasks = new ConcurrentTaskList(new TaskList(new ArrayList<>()), writerLane);
+        AtomicReference<String> failure = new AtomicReference<>();
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+
+        ArrayList<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < WRITER_COUNT; w++) {
+            int writer = w;
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < TASKS_PER_WRITER; i++) {
+                    String content = "writer " + writer + " " + i;
+                    tasks.write(taskList -> taskList.addTask("todo " + content, storage, ui));
+                    // A read started after the write has returned reads the copy published by it.
+                    String found = tasks.read(taskList -> taskList.findTask("find " + content, ui));
+                    if (!found.contains(content)) {
+                        failure.compareAndSet(null, "Write of " + content + " not visible: " + found);
+                    }
+                }
+            }));
+        }
+        ArrayList<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < READER_COUNT; r++) {
+            readers.add(new Thread(() -> {
+                int lastSize = 0;
+                while (isWriting.get()) {
+                    List<Task> snapshot = tasks.getSnapshot();
+                    if (snapshot.size() < lastSize) {
+                        failure.compareAndSet(null, "Snapshot went back from " + lastSize + " to " + snapshot.size());
+                    }
+                    lastSize = snapshot.size();
+                    String error = checkSnapshot(snapshot);
+                    if (error != null) {
+                        failure.compareAndSet(null, error);
+                    }
+                }
+            }));
+        }
+
+        readers.forEach(Thread::start);
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        isWriting.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        writerLane.shutdown();
+
+        assertNull(failure.get());
+        assertEquals(WRITER_COUNT * TASKS_PER_WRITER, tasks.getSnapshot().size());
+        assertNull(checkSnapshot(tasks.getSnapshot()));
+        assertEquals(WRITER_COUNT * TASKS_PER_WRITER, storage.loadTasks().size());
+    }
+
+    @Test
+    public void read_duringWrite_doesNotWait() throws Exception {
+        ExecutorService writerLane = Executors.newSingleThreadExecutor();
+        ConcurrentTaskList tasks = new ConcurrentTaskList(new TaskList(new ArrayList<>()), writerLane);
+        Storage storage = new Storage(tempDir.resolve("ByteTalker.txt").toString());
+        storage.setupDirectoryAndFile();
+        Ui ui = new Ui();
+        CountDownLatch isChanged = new CountDownLatch(1);
+        CountDownLatch isRead = new CountDownLatch(1);
+
+        Thread writer = new Thread(() -> tasks.write(taskList -> {
+            String reply = taskList.addTask("todo slow", storage, ui);
+            isChanged.countDown();
+            try {
+                isRead.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return reply;
+        }));
+        writer.start();
+        isChanged.await();
+        // The writer holds the writer lane until the read is done, so the read must not wait for it.
+        int sizeDuringWrite = tasks.read(taskList -> taskList.getTasks().size());
+        isRead.countDown();
+        writer.join();
+        writerLane.shutdown();
+
+        assertEquals(0, sizeDuringWrite);
+        assertEquals(1, tasks.getSnapshot().size());
+    }
+
+    @Test
+    public void write_onWriterLane_runsRightAway() throws Exception {
+        ExecutorService writerLane = Executors.newSingleThreadExecutor();
+        ConcurrentTaskList tasks = new ConcurrentTaskList(new TaskList(new ArrayList<>()), writerLane);
+        Storage storage = new Storage(tempDir.resolve("ByteTalker.txt").toString());
+        storage.setupDirectoryAndFile();
+        Ui ui = new Ui();
+
+        String reply = tasks.write(taskList ->
+                tasks.write(innerList -> innerList.addTask("todo nested", storage, ui)));
+        writerLane.shutdown();
+
+        assertTrue(reply.startsWith("Got it. I've added this task:"));
+        assertEquals(1, tasks.getSnapshot().size());
+        assertEquals("nested", tasks.getSnapshot().get(0).getTask());
+    }
+}
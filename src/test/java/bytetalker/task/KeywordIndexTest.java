@@ -0,0 +1,112 @@
+package bytetalker.task;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class KeywordIndexTest {
+    private static final String[] CONTENTS = {
+        "read book", "return notebook", "read  book twice", "buy books", "book club", "weekly sync", "reading"
+    };
+
+    private TaskSequence createTasks() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (String content : CONTENTS) {
+            tasks.add(new Todo(content));
+        }
+        TaskList.assignIds(tasks);
+        return TaskSequence.of(tasks);
+    }
+
+    private ArrayList<Task> scan(List<Task> tasks, String content) {
+        ArrayList<Task> foundTasks = new ArrayList<>();
+        for (Task task : tasks) {
+            if (task.getTask().contains(content)) {
+                foundTasks.add(task);
+            }
+        }
+        return foundTasks;
+    }
+
+    @Test
+    public void find_wholeWords() {
+        TaskSequence tasks = createTasks();
+        KeywordIndex index = new KeywordIndex(tasks);
+
+        assertEquals(List.of(tasks.get(0), tasks.get(2), tasks.get(4)), index.find(tasks, "book"));
+        assertEquals(List.of(tasks.get(0)), index.find(tasks, "read book"));
+        assertEquals(List.of(tasks.get(4)), index.find(tasks, "book club"));
+        assertEquals(List.of(), index.find(tasks, "book read"));
+    }
+
+    @Test
+    public void find_notAWord_sameAsSubstringScan() {
+        TaskSequence tasks = createTasks();
+        KeywordIndex index = new KeywordIndex(tasks);
+        String[] queries = {"ead", "ad bo", "read  book", "k c", "weekly sync x", "z", " book"};
+        for (String query : queries) {
+            assertEquals(scan(tasks, query), index.find(tasks, query), query);
+        }
+    }
+
+    @Test
+    public void find_afterUpdateAndRemove() {
+        TaskSequence tasks = createTasks();
+        KeywordIndex index = new KeywordIndex(tasks);
+        Task task = tasks.get(0);
+        task.updateTask("write essay");
+        KeywordIndex updatedIndex = index.update(task, "read book").remove(tasks.get(4));
+
+        assertEquals(List.of(tasks.get(2)), updatedIndex.find(tasks, "book"));
+        assertEquals(List.of(task), updatedIndex.find(tasks, "essay"));
+        assertEquals(List.of(tasks.get(0), tasks.get(2), tasks.get(4)), index.find(tasks, "book"));
+    }
+
+    @Test
+    public void findAllAndFindAny() {
+        TaskSequence tasks = createTasks();
+        KeywordIndex index = new KeywordIndex(tasks);
+
+        assertEquals(List.of(tasks.get(0), tasks.get(2)), index.findAll(tasks, List.of("read", "book")));
+        assertEquals(List.of(tasks.get(0), tasks.get(1), tasks.get(2)), index.findAll(tasks, List.of("ook", "r")));
+        assertEquals(List.of(tasks.get(0), tasks.get(2), tasks.get(5)), index.findAny(tasks, List.of("read", "sync")));
+        assertEquals(List.of(tasks.get(0), tasks.get(2), tasks.get(5), tasks.get(6)),
+                index.findAny(tasks, List.of("rea", "sync")));
+    }
+
+    @Test
+    public void addAndRemove_sameAsBuiltIndex() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        KeywordIndex index = new KeywordIndex(List.of());
+        Random random = new Random(4);
+        for (long id = 1; id <= 3_000; id++) {
+            Task task = new Todo("task " + random.nextInt(50) + " " + random.nextInt(500));
+            task.setId(id);
+            tasks.add(task);
+            index = index.add(task);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            index = index.remove(tasks.remove(random.nextInt(tasks.size())));
+        }
+        TaskSequence sequence = TaskSequence.of(tasks);
+        KeywordIndex builtIndex = new KeywordIndex(tasks);
+
+        for (String query : new String[] {"task", "7", "task 7", "42 9", "task 49 499"}) {
+            assertEquals(builtIndex.find(sequence, query), index.find(sequence, query), query);
+        }
+        for (int i = 0; i < 50; i++) {
+            String word = String.valueOf(i);
+            ArrayList<Task> expected = new ArrayList<>();
+            for (Task task : tasks) {
+                if (List.of(task.getTask().split(" ")).contains(word)) {
+                    expected.add(task);
+                }
+            }
+            assertEquals(expected, index.findAny(sequence, List.of(word)), word);
+        }
+    }
+}
@@ -1,13 +1,23 @@
 package bytetalker.task;
 
 import bytetalker.exception.UnsupportedDateTimeFormatException;
+import bytetalker.parser.ParseError;
+import bytetalker.storage.Storage;
+import bytetalker.ui.Ui;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TaskListTest {
+    @TempDir
+    Path tempDir;
+
     @Test
     public void test() {
         assertEquals(2, 2);
@@ -124,4 +134,160 @@ public class TaskListTest {
             assertEquals(true, false);
         }
     }
+
+    @Test
+    public void listTasks_page() {
+        ArrayList<Task> sampleTasks = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            sampleTasks.add(new Todo("task " + i));
+        }
+        TaskList tasks = new TaskList(sampleTasks);
+        String[] splitMessages = {"list", "2", "--page-size", "2"};
+        assertEquals("Here are the tasks in your list (page 2 of 3):\n"
+                + "    3.[T][ ] task 3\n"
+                + "    4.[T][ ] task 4\n", tasks.listTasks(splitMessages, new Ui()));
+    }
+
+    @Test
+    public void listTasks_pageOutOfRange() {
+        TaskList tasks = new TaskList(new ArrayList<>());
+        assertEquals("There are only 1 pages in your list.", tasks.listTasks(new String[] {"list", "2"}, new Ui()));
+        assertEquals("Wrong command format. Please use list [page] [--page-size size].",
+                tasks.listTasks(new String[] {"list", "0"}, new Ui()));
+    }
+
+    @Test
+    public void markAndDeleteTask_byIdAfterEarlierDelete() {
+        Storage storage = new Storage(tempDir.resolve("ByteTalker.txt").toString());
+        storage.setupDirectoryAndFile();
+        Ui ui = new Ui();
+        TaskList tasks = new TaskList(new ArrayList<>());
+        for (int i = 1; i <= 5; i++) {
+            assertTrue(tasks.addTask("todo task " + i, storage, ui).endsWith("Its id is #" + i + "."));
+        }
+
+        tasks.deleteTask(new String[] {"delete", "2"}, storage, ui);
+        tasks.markTask(new String[] {"mark", "#4"}, storage, ui);
+        tasks.deleteTask(new String[] {"delete", "#5"}, storage, ui);
+
+        assertEquals("Here are the tasks in your list:\n"
+                + "    1.[T][ ] task 1\n"
+                + "    2.[T][ ] task 3\n"
+                + "    3.[T][X] task 4\n", tasks.listTasks(new String[] {"list"}, ui));
+        assertEquals(null, tasks.getTaskById(5));
+        assertEquals("Please enter the valid index.", tasks.markTask(new String[] {"mark", "#2"}, storage, ui));
+        assertEquals("Please enter the index.", tasks.markTask(new String[] {"mark", "#x"}, storage, ui));
+    }
+
+    @Test
+    public void markAndDeleteTask_bulkSelections() throws Exception {
+        Storage storage = new Storage(tempDir.resolve("ByteTalker.txt").toString());
+        storage.setupDirectoryAndFile();
+        storage.setJournalEnabled(true);
+        Ui ui = new Ui();
+        TaskList tasks = new TaskList(new ArrayList<>());
+        for (int i = 1; i <= 6; i++) {
+            tasks.addTask("todo " + (i % 2 == 0 ? "read book " : "write essay ") + i, storage, ui);
+        }
+
+        assertTrue(tasks.markTask(new String[] {"mark", "1-3"}, storage, ui)
+                .startsWith("Nice! I've marked these 3 tasks as done:"));
+        assertTrue(tasks.markTask(new String[] {"mark", "all", "matching", "book"}, storage, ui)
+                .startsWith("Nice! I've marked these 3 tasks as done:"));
+        assertTrue(tasks.unmarkTask(new String[] {"unmark", "#1,", "6"}, storage, ui)
+                .startsWith("OK, I've marked these 2 tasks as not done yet:"));
+        assertTrue(tasks.deleteTask(new String[] {"delete", "done"}, storage, ui)
+                .startsWith("Got it. I've removed these 3 tasks:"));
+        assertEquals("Please enter the valid index.", tasks.deleteTask(new String[] {"delete", "2-9"}, storage, ui));
+        assertEquals("No tasks matched the selection.", tasks.deleteTask(new String[] {"delete", "done"}, storage, ui));
+
+        String expectedList = "Here are the tasks in your list:\n"
+                + "    1.[T][ ] write essay 1\n"
+                + "    2.[T][ ] write essay 5\n"
+                + "    3.[T][ ] read book 6\n";
+        assertEquals(expectedList, tasks.listTasks(new String[] {"list"}, ui));
+        assertEquals(expectedList, new TaskList(storage.loadTasks()).listTasks(new String[] {"list"}, ui));
+        assertEquals(null, tasks.getTaskById(2));
+        assertEquals("No tasks found", tasks.findTask("find book 4", ui));
+    }
+
+    @Test
+    public void editTask_unparsableDateTime_taskUnchanged() {
+        Storage storage = new Storage(tempDir.resolve("ByteTalker.txt").toString());
+        storage.setupDirectoryAndFile();
+        Ui ui = new Ui();
+        TaskList tasks = new TaskList(new ArrayList<>());
+        tasks.addTask("deadline return book /by 2/12/2019 1800", storage, ui);
+        tasks.addTask("event project meeting /from 2/12/2019 1400 /to 2/12/2019 1600", storage, ui);
+
+        String error = ParseError.UNSUPPORTED_DATE_TIME.getMessage();
+        assertEquals(error, tasks.editTask("update 1 /by notadate", storage, ui));
+        assertEquals(error, tasks.editTask("update 2 /from notadate", storage, ui));
+        assertEquals(error, tasks.editTask("update #2 /to", storage, ui));
+
+        String expectedList = "Here are the tasks in your list:\n"
+                + "    1.[D][ ] return book (by: Dec 02 2019 6:00PM)\n"
+                + "    2.[E][ ] project meeting (from: Dec 02 2019 2:00PM to: Dec 02 2019 4:00PM)\n";
+        assertEquals(expectedList, tasks.listTasks(new String[] {"list"}, ui));
+        assertTrue(tasks.queryTasks(new String[] {"query", "/on", "2/12/2019", "0000"}, ui)
+                .endsWith("2.[D][ ] return book (by: Dec 02 2019 6:00PM)\n"));
+        assertTrue(tasks.markTask(new String[] {"mark", "1"}, storage, ui).startsWith("Nice!"));
+        assertTrue(tasks.deleteTask(new String[] {"delete", "2"}, storage, ui).startsWith("Got it."));
+    }
+
+    @Test
+    public void commands_columnStore_sameRepliesAsObjectStore() {
+        Storage storage = new Storage(tempDir.resolve("ByteTalker.txt").toString());
+        storage.setupDirectoryAndFile();
+        ArrayList<Task> loadedTasks = new ArrayList<>();
+        loadedTasks.add(new Todo("caf\u00e9 \uC8FC\uAC04 \uD68C\uC758", true));
+
+        String objectReplies = runCommands(new TaskList(new ArrayList<>(loadedTasks)), storage);
+        String columnReplies = runCommands(new TaskList(loadedTasks, null, TaskStore.COLUMNS), storage);
+
+        assertEquals(objectReplies, columnReplies);
+        assertTrue(columnReplies.contains("[E][ ] exam (from: Dec 02 2019 2:00PM to: Dec 03 2019 4:00PM)"));
+    }
+
+    private String runCommands(TaskList tasks, Storage storage) {
+        Ui ui = new Ui();
+        StringBuilder replies = new StringBuilder();
+        replies.append(tasks.addTask("todo read book", storage, ui));
+        replies.append(tasks.addTask("deadline return book /by 2/12/2019 1800", storage, ui));
+        replies.append(tasks.addTask("event exam /from 2/12/2019 1400 /to 3/12/2019 1600", storage, ui));
+        replies.append(tasks.addTask("todo weekly sync", storage, ui));
+        replies.append(tasks.markTask(new String[] {"mark", "2"}, storage, ui));
+        replies.append(tasks.editTask("update #3 /content midterm exam", storage, ui));
+        replies.append(tasks.editTask("update 3 /content exam", storage, ui));
+        replies.append(tasks.editTask("update #3 /to 3/12/2019 1600", storage, ui));
+        replies.append(tasks.deleteTask(new String[] {"delete", "#5"}, storage, ui));
+        replies.append(tasks.unmarkTask(new String[] {"unmark", "1-3"}, storage, ui));
+        replies.append(tasks.findTask("find book", ui));
+        replies.append(tasks.queryTasks(new String[] {"query", "/on", "2/12/2019", "0000"}, ui));
+        replies.append(tasks.listTasks(new String[] {"list"}, ui));
+        return replies.toString();
+    }
+
+    @Test
+    public void addEditDeleteTask_contentDictionary_sharesAndReleasesContents() {
+        Storage storage = new Storage(tempDir.resolve("ByteTalker.txt").toString());
+        storage.setupDirectoryAndFile();
+        Ui ui = new Ui();
+        ContentDictionary contentDictionary = new ContentDictionary();
+        TaskList tasks = new TaskList(new ArrayList<>(), contentDictionary);
+
+        tasks.addTask("todo weekly sync", storage, ui);
+        tasks.addTask("todo weekly sync", storage, ui);
+        tasks.addTask("todo submit timesheet", storage, ui);
+        tasks.editTask("update 3 /content weekly sync", storage, ui);
+
+        assertSame(tasks.getTasks().get(0).getTask(), tasks.getTasks().get(1).getTask());
+        assertSame(tasks.getTasks().get(0).getTask(), tasks.getTasks().get(2).getTask());
+        assertEquals(1, contentDictionary.size());
+        assertEquals(2.0 / 3, contentDictionary.getDedupRatio(), 1e-9);
+
+        tasks.deleteTask(new String[] {"delete", "1-3"}, storage, ui);
+        assertEquals(0, contentDictionary.size());
+        assertEquals(0, contentDictionary.getReferenceCount());
+    }
 }
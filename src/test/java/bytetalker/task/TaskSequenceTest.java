@@ -0,0 +1,146 @@
+package bytetalker.task;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TaskSequenceTest {
+    private static Task createTask(long id) {
+        Task task = new Todo("task " + id);
+        task.setId(id);
+        return task;
+    }
+
+    private static void assertSameTasks(List<Task> expected, TaskSequence sequence) {
+        assertEquals(expected.size(), sequence.size());
+        assertEquals(expected, new ArrayList<>(sequence));
+        for (int i = 0; i < expected.size(); i += 97) {
+            assertEquals(expected.get(i), sequence.get(i));
+            assertEquals(i, sequence.positionOf(expected.get(i).getId()));
+        }
+    }
+
+    @Test
+    public void addReplaceRemove_matchesArrayList() {
+        ArrayList<Task> expected = new ArrayList<>();
+        TaskSequence sequence = TaskSequence.empty();
+        Random random = new Random(16);
+        long nextId = 1;
+        for (int i = 0; i < 20_000; i++) {
+            int operation = random.nextInt(10);
+            if (operation < 6 || expected.isEmpty()) {
+                Task task = createTask(nextId++);
+                expected.add(task);
+                sequence = sequence.append(task);
+            } else if (operation < 8) {
+                int position = random.nextInt(expected.size());
+                Task task = createTask(expected.get(position).getId());
+                expected.set(position, task);
+                sequence = sequence.with(position, task);
+            } else {
+                int position = random.nextInt(expected.size());
+                expected.remove(position);
+                sequence = sequence.without(position);
+            }
+        }
+        assertSameTasks(expected, sequence);
+        assertEquals(-1, sequence.positionOf(nextId));
+
+        TaskSequence emptied = sequence;
+        while (!emptied.isEmpty()) {
+            emptied = emptied.without(random.nextInt(emptied.size()));
+        }
+        assertSameTasks(List.of(), emptied);
+        assertSameTasks(expected, sequence);
+    }
+
+    @Test
+    public void columns_sameTasksAsObjects() {
+        ArrayList<Task> expected = new ArrayList<>();
+        TaskSequence sequence = TaskSequence.of(List.of(), TaskStore.COLUMNS);
+        Random random = new Random(24);
+        LocalDateTime start = LocalDateTime.of(2024, 2, 1, 9, 30);
+        String[] contents = {"read book", "", "caf\u00e9", "\uC8FC\uAC04 \uD68C\uC758"};
+        for (long id = 1; id <= 5_000; id++) {
+            String content = contents[random.nextInt(contents.length)] + " " + id;
+            LocalDateTime time = start.plusMinutes(random.nextInt(100_000));
+            Task task = id % 3 == 0 ? new Todo(content, random.nextBoolean())
+                    : id % 3 == 1 ? new Deadline(content, time, random.nextBoolean())
+                    : new Event(content, time, time.plusHours(2), random.nextBoolean());
+            task.setId(id);
+            int position = expected.isEmpty() ? 0 : random.nextInt(expected.size());
+            if (random.nextInt(10) < 6 || expected.isEmpty()) {
+                expected.add(task);
+                sequence = sequence.append(task);
+            } else if (random.nextBoolean()) {
+                task.setId(expected.get(position).getId());
+                expected.set(position, task);
+                sequence = sequence.with(position, task);
+            } else {
+                expected.remove(position);
+                sequence = sequence.without(position);
+            }
+        }
+
+        assertEquals(TaskStore.COLUMNS, sequence.getStore());
+        assertEquals(expected.size(), sequence.size());
+        int position = 0;
+        for (Task task : sequence) {
+            assertEquals(expected.get(position).getId(), task.getId());
+            assertEquals(expected.get(position).toString(), task.toString());
+            assertEquals(position, sequence.positionOf(task.getId()));
+            position++;
+        }
+        TaskSequence objects = TaskSequence.of(expected);
+        for (String content : new String[] {"book 1", "\u00e9 4", "\uD68C\uC758 3", "", "caf\u00e9x"}) {
+            assertEquals(toStrings(objects.findContaining(content)), toStrings(sequence.findContaining(content)));
+        }
+        assertEquals(Arrays.toString(objects.selectByStatus(true)), Arrays.toString(sequence.selectByStatus(true)));
+        assertEquals(TaskStore.COLUMNS, TaskSequence.of(expected, TaskStore.COLUMNS).without(0).getStore());
+    }
+
+    private static List<String> toStrings(List<Task> tasks) {
+        ArrayList<String> strings = new ArrayList<>();
+        for (Task task : tasks) {
+            strings.add(task.getId() + " " + task);
+        }
+        return strings;
+    }
+
+    @Test
+    public void findByIds_inListOrder() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (long id = 1; id <= 10_000; id++) {
+            tasks.add(createTask(id * 2));
+        }
+        TaskSequence sequence = TaskSequence.of(tasks);
+        long[] ids = {1, 2, 4, 5, 640, 642, 9_999, 20_000, 20_001};
+
+        assertEquals(List.of(tasks.get(0), tasks.get(1), tasks.get(319), tasks.get(320), tasks.get(9_999)),
+                sequence.findByIds(ids, ids.length));
+        assertEquals(List.of(tasks.get(0)), sequence.findByIds(ids, 2));
+    }
+
+    @Test
+    public void idsOutOfOrder_foundByScan() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (long id = 1; id <= 1_000; id++) {
+            tasks.add(createTask(id == 500 ? 5_000 : id));
+        }
+        Task appended = createTask(2_000);
+        TaskSequence sequence = TaskSequence.of(tasks).append(appended);
+
+        assertEquals(499, sequence.positionOf(5_000));
+        assertEquals(500, sequence.positionOf(501));
+        assertEquals(1_000, sequence.positionOf(2_000));
+        assertEquals(-1, sequence.positionOf(500));
+        assertEquals(List.of(tasks.get(2), tasks.get(499), appended),
+                sequence.findByIds(new long[] {3, 500, 2_000, 5_000}, 4));
+    }
+}
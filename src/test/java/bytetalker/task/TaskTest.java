@@ -0,0 +1,36 @@
+package bytetalker.task;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TaskTest {
+    @Test
+    public void toString_unchangedTask_returnsSameString() {
+        Deadline deadline = new Deadline("return book", LocalDateTime.of(2019, 2, 5, 18, 0));
+
+        assertSame(deadline.toString(), deadline.toString());
+        assertSame(deadline.toString(), deadline.copy().toString());
+    }
+
+    @Test
+    public void toString_changedTask_isRenderedAgain() {
+        Event event = new Event("midterm", LocalDateTime.of(2024, 3, 5, 8, 0), LocalDateTime.of(2024, 3, 8, 15, 0));
+        assertEquals("[E][ ] midterm (from: Mar 05 2024 8:00AM to: Mar 08 2024 3:00PM)", event.toString());
+
+        event.setStatus(true);
+        assertEquals("[E][X] midterm (from: Mar 05 2024 8:00AM to: Mar 08 2024 3:00PM)", event.toString());
+        event.updateTask("final");
+        event.updateFrom(LocalDateTime.of(2024, 4, 1, 9, 0));
+        event.updateTo(LocalDateTime.of(2024, 4, 1, 11, 30));
+        assertEquals("[E][X] final (from: Apr 01 2024 9:00AM to: Apr 01 2024 11:30AM)", event.toString());
+
+        Deadline deadline = new Deadline("return book", LocalDateTime.of(2019, 2, 5, 18, 0));
+        deadline.toString();
+        deadline.updateDeadline(LocalDateTime.of(2019, 2, 6, 9, 0));
+        assertEquals("[D][ ] return book (by: Feb 06 2019 9:00AM)", deadline.toString());
+    }
+}
@@ -0,0 +1,90 @@
+package bytetalker.task;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TimeIndexTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 2, 1, 0, 0);
+
+    @Test
+    public void findBetween_deadlinesAndEvents() {
+        Task deadline = new Deadline("essay", LocalDateTime.of(2024, 2, 9, 23, 59));
+        Task event = new Event("exam", LocalDateTime.of(2024, 2, 8, 15, 0), LocalDateTime.of(2024, 2, 10, 18, 0));
+        Task lateEvent = new Event("trip", LocalDateTime.of(2024, 2, 12, 8, 0), LocalDateTime.of(2024, 2, 13, 8, 0));
+        TaskSequence tasks = createTasks(List.of(new Todo("read book"), deadline, event, lateEvent));
+        TimeIndex index = new TimeIndex(tasks);
+
+        assertEquals(List.of(event, deadline),
+                index.findBetween(tasks, LocalDateTime.of(2024, 2, 9, 0, 0), LocalDateTime.of(2024, 2, 11, 0, 0)));
+        assertEquals(List.of(event), index.findBetween(tasks, LocalDateTime.of(2024, 2, 10, 0, 0),
+                LocalDateTime.of(2024, 2, 10, 23, 59)));
+    }
+
+    @Test
+    public void findBetween_sameAsScanAfterUpdates() {
+        Random random = new Random(42);
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime from = START.plusHours(random.nextInt(1000));
+            tasks.add(i % 2 == 0
+                    ? new Deadline("deadline " + i, from)
+                    : new Event("event " + i, from, from.plusHours(random.nextInt(100))));
+        }
+        TaskList.assignIds(tasks);
+        TimeIndex index = new TimeIndex(tasks);
+        TimeIndex originalIndex = index;
+        TaskSequence originalTasks = TaskSequence.of(tasks);
+        for (int i = 0; i < 100; i++) {
+            int position = random.nextInt(tasks.size());
+            Task task = tasks.get(position);
+            if (task instanceof Event) {
+                Event changedTask = ((Event) task).copy();
+                changedTask.updateTo(changedTask.getFrom().plusHours(random.nextInt(300)));
+                index = index.update(task, changedTask);
+                tasks.set(position, changedTask);
+            } else {
+                index = index.remove(task);
+                tasks.remove(position);
+            }
+        }
+        TaskSequence sequence = TaskSequence.of(tasks);
+
+        for (int i = 0; i < 50; i++) {
+            LocalDateTime from = START.plusHours(random.nextInt(1100));
+            LocalDateTime to = from.plusHours(random.nextInt(50));
+            List<Task> foundTasks = index.findBetween(sequence, from, to);
+            long expectedCount = tasks.stream().filter(task -> task instanceof Deadline
+                    ? !((Deadline) task).getDeadline().isBefore(from) && !((Deadline) task).getDeadline().isAfter(to)
+                    : !((Event) task).getFrom().isAfter(to) && !((Event) task).getTo().isBefore(from)).count();
+            assertEquals(expectedCount, (long) foundTasks.size());
+            for (int j = 1; j < foundTasks.size(); j++) {
+                assertEquals(true, !startOf(foundTasks.get(j - 1)).isAfter(startOf(foundTasks.get(j))));
+            }
+        }
+        LocalDateTime end = START.plusHours(1200);
+        assertEquals(originalTasks.size(), originalIndex.findBetween(originalTasks, START, end).size());
+    }
+
+    @Test
+    public void findBetween_reversedPeriod_findsNothing() {
+        TaskSequence tasks = createTasks(List.of(new Deadline("return book", START.plusHours(1))));
+        TimeIndex index = new TimeIndex(tasks);
+
+        assertEquals(List.of(), index.findBetween(tasks, START.plusHours(2), START));
+    }
+
+    private TaskSequence createTasks(List<Task> tasks) {
+        TaskList.assignIds(tasks);
+        return TaskSequence.of(tasks);
+    }
+
+    private LocalDateTime startOf(Task task) {
+        return task instanceof Deadline ? ((Deadline) task).getDeadline() : ((Event) task).getFrom();
+    }
+}